@@ -0,0 +1,55 @@
+package com.githubpopularity.benchmark;
+
+import com.githubpopularity.model.GithubRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Shared fixtures for the benchmarks: deterministic synthetic repositories and the recorded search payload.
+ */
+final class BenchmarkData {
+
+    static final String SEARCH_RESPONSE = "/search-response.json";
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Generates {@code count} repositories with a fixed seed so every fork scores the same input.
+     */
+    static List<GithubRepository> repositories(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        Instant now = Instant.now();
+        List<GithubRepository> repositories = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            repositories.add(new GithubRepository(
+                    "project-" + i,
+                    "owner" + (i % 97) + "/project-" + i,
+                    "Benchmark repository " + i,
+                    random.nextInt(60_000),
+                    random.nextInt(12_000),
+                    now.minus(Duration.ofHours(random.nextInt(24 * 730))),
+                    "Java",
+                    0.0));
+        }
+        return repositories;
+    }
+
+    static byte[] searchResponse() {
+        try (InputStream in = BenchmarkData.class.getResourceAsStream(SEARCH_RESPONSE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark resource " + SEARCH_RESPONSE);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.githubpopularity.benchmark;
+
+import com.githubpopularity.client.GithubSearchResponseDecoder;
+import com.githubpopularity.model.GithubRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of a recorded 100-item search response, both from a single array and from the
+ * chunked {@link DataBuffer} stream the client sees on the wire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecodingBenchmark {
+
+    @Param({"8192"})
+    private int chunkSize;
+
+    private final GithubSearchResponseDecoder decoder = new GithubSearchResponseDecoder();
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private byte[] payload;
+    private List<byte[]> chunks;
+
+    @Setup
+    public void setUp() {
+        payload = BenchmarkData.searchResponse();
+        chunks = new ArrayList<>();
+        for (int offset = 0; offset < payload.length; offset += chunkSize) {
+            chunks.add(Arrays.copyOfRange(payload, offset, Math.min(payload.length, offset + chunkSize)));
+        }
+    }
+
+    @Benchmark
+    public List<GithubRepository> decodeBytes() {
+        return decoder.decode(payload);
+    }
+
+    @Benchmark
+    public List<GithubRepository> decodeStream() {
+        Flux<DataBuffer> body = Flux.fromIterable(chunks).map(bufferFactory::wrap);
+        return decoder.decode(body).collectList().block();
+    }
+}
@@ -0,0 +1,58 @@
+package com.githubpopularity.benchmark;
+
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.service.RepositoryBatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the model transformations around scoring: copying records into columns and
+ * attaching computed scores back onto immutable records.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"100", "10000"})
+    private int batchSize;
+
+    private List<GithubRepository> repositories;
+    private RepositoryBatch batch;
+    private double[] scores;
+    private Instant now;
+
+    @Setup
+    public void setUp() {
+        repositories = BenchmarkData.repositories(batchSize);
+        now = Instant.now();
+        batch = RepositoryBatch.of(repositories, now);
+        scores = new double[batchSize];
+    }
+
+    @Benchmark
+    public RepositoryBatch toColumns() {
+        return RepositoryBatch.of(repositories, now);
+    }
+
+    @Benchmark
+    public List<GithubRepository> attachScores() {
+        return batch.withScores(scores);
+    }
+}
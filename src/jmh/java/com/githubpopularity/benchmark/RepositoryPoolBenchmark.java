@@ -0,0 +1,60 @@
+package com.githubpopularity.benchmark;
+
+import com.githubpopularity.cache.RepositoryPool;
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.service.StaticThresholdStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository cache hit path: reading a cached page and scoring it, with the page held in a {@link RepositoryPool}
+ * or as plain records. Run with {@code -prof gc} to compare the bytes allocated per hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryPoolBenchmark {
+
+    @Param({"true", "false"})
+    private boolean pooled;
+
+    @Param({"100"})
+    private int pageSize;
+
+    private StaticThresholdStrategy strategy;
+    private List<GithubRepository> cached;
+
+    @Setup
+    public void setUp() {
+        strategy = new StaticThresholdStrategy(50_000, 10_000, 365);
+        cached = new RepositoryPool(pooled).intern(BenchmarkData.repositories(pageSize));
+    }
+
+    @Benchmark
+    public void readCachedPage(Blackhole blackhole) {
+        for (GithubRepository repository : cached) {
+            blackhole.consume(repository);
+        }
+    }
+
+    @Benchmark
+    public List<GithubRepository> scoreCachedPage() {
+        return strategy.calculateScores(cached);
+    }
+}
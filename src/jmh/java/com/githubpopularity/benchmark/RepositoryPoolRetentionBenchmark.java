@@ -0,0 +1,115 @@
+package com.githubpopularity.benchmark;
+
+import com.githubpopularity.cache.RepositoryPool;
+import com.githubpopularity.model.GithubRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap retained per cached repository, with the cached pages held in a {@link RepositoryPool} or as plain records.
+ * Each page is cached {@code copies} times as freshly decoded records, as when one repository is returned by several
+ * queries or held by several caches at once. Retained bytes are read from the heap after a full GC and reported as
+ * the {@code bytesPerRepository} counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseSerialGC")
+public class RepositoryPoolRetentionBenchmark {
+
+    @Param({"true", "false"})
+    private boolean pooled;
+
+    @Param({"1", "4"})
+    private int copies;
+
+    @Param({"20000"})
+    private int repositories;
+
+    private List<GithubRepository> source;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RetainedHeap {
+        public long bytesPerRepository;
+    }
+
+    @Setup
+    public void setUp() {
+        source = BenchmarkData.repositories(repositories);
+    }
+
+    @Benchmark
+    public int retainCachedPages(RetainedHeap retained) {
+        RepositoryPool pool = new RepositoryPool(pooled);
+        List<List<GithubRepository>> cached = new ArrayList<>(copies);
+        long before = usedHeapAfterGc();
+        for (int i = 0; i < copies; i++) {
+            cached.add(pool.intern(decodedCopy(source)));
+        }
+        long after = usedHeapAfterGc();
+        retained.bytesPerRepository = (after - before) / ((long) copies * repositories);
+        Reference.reachabilityFence(pool);
+        Reference.reachabilityFence(cached);
+        return cached.size();
+    }
+
+    /**
+     * Copies the repositories into new records, strings and instants, as decoding a response does.
+     */
+    private static List<GithubRepository> decodedCopy(List<GithubRepository> repositories) {
+        List<GithubRepository> copy = new ArrayList<>(repositories.size());
+        for (GithubRepository repository : repositories) {
+            Instant lastUpdated = repository.lastUpdated();
+            copy.add(new GithubRepository(new String(repository.name()), new String(repository.fullName()),
+                    new String(repository.description()), repository.stars(), repository.forks(),
+                    Instant.ofEpochSecond(lastUpdated.getEpochSecond(), lastUpdated.getNano()),
+                    new String(repository.language()), 0.0));
+        }
+        return copy;
+    }
+
+    /**
+     * Collects until the used heap stops shrinking, as pools of earlier invocations are only freed once the cleaner
+     * thread has released their lists.
+     */
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 20; i++) {
+            System.gc();
+            long collected = memory.getHeapMemoryUsage().getUsed();
+            if (collected >= used) {
+                break;
+            }
+            used = collected;
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return used;
+    }
+}
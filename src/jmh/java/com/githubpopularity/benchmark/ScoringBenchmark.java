@@ -0,0 +1,77 @@
+package com.githubpopularity.benchmark;
+
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.service.FormulaScoringStrategy;
+import com.githubpopularity.service.RepositoryBatch;
+import com.githubpopularity.service.ScoringFormula;
+import com.githubpopularity.service.StaticThresholdStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoring throughput for {@link StaticThresholdStrategy}: per-repository scoring, list scoring
+ * (which builds a {@link RepositoryBatch} and attaches scores) and raw columnar batch scoring.
+ * Batch sizes straddle the default fork/join threshold. {@link FormulaScoringStrategy} scores the same batch
+ * with the equivalent compiled formula, to compare configured formulas with the hand-written strategy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoringBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    private int batchSize;
+
+    private StaticThresholdStrategy strategy;
+    private FormulaScoringStrategy formulaStrategy;
+    private List<GithubRepository> repositories;
+    private RepositoryBatch batch;
+
+    @Setup
+    public void setUp() {
+        strategy = new StaticThresholdStrategy(50_000, 10_000, 365);
+        formulaStrategy = new FormulaScoringStrategy(ScoringFormula.compile(
+                "(min(1.0, stars / 50000) * 0.6 + min(1.0, forks / 10000) * 0.3) * 100",
+                "exp(-ageDays / 365) * 10", 10));
+        repositories = BenchmarkData.repositories(batchSize);
+        batch = RepositoryBatch.of(repositories);
+    }
+
+    @Benchmark
+    public void calculateScorePerRepository(Blackhole blackhole) {
+        for (GithubRepository repository : repositories) {
+            blackhole.consume(strategy.calculateScore(repository));
+        }
+    }
+
+    @Benchmark
+    public List<GithubRepository> calculateScoresList() {
+        return strategy.calculateScores(repositories);
+    }
+
+    @Benchmark
+    public double[] calculateScoresBatch() {
+        return strategy.calculateScores(batch);
+    }
+
+    @Benchmark
+    public double[] calculateScoresBatchFormula() {
+        return formulaStrategy.calculateScores(batch);
+    }
+}
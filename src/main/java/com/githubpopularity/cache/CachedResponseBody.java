@@ -0,0 +1,16 @@
+package com.githubpopularity.cache;
+
+import com.githubpopularity.model.GithubRepository;
+
+import java.util.List;
+
+/**
+ * Encoded popularity response stored together with the repository cache entry it was built from.
+ * The body is only served while that entry is still the one cached for its query, so a refresh, a reload or the
+ * expiry of the entry retires the body with it.
+ *
+ * @param gzip   gzip-compressed JSON body
+ * @param source repository cache entry the body was built from, compared by identity
+ */
+public record CachedResponseBody(byte[] gzip, List<GithubRepository> source) {
+}
@@ -0,0 +1,47 @@
+package com.githubpopularity.cache;
+
+import com.githubpopularity.model.GithubRepository;
+
+import java.lang.ref.Reference;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of repositories stored in a {@link RepositoryPool}, holding only their slot indices.
+ * Elements are materialized from the pool on every read.
+ * <p>
+ * The slots are released by a cleaner once the list is unreachable, so every method reading them keeps the list
+ * reachable until the read is done; otherwise the slots could be freed and reused during the read.
+ */
+final class PooledRepositoryList extends AbstractList<GithubRepository> implements RandomAccess {
+
+    private final RepositoryPool pool;
+    private final int[] slots;
+
+    PooledRepositoryList(RepositoryPool pool, int[] slots) {
+        this.pool = pool;
+        this.slots = slots;
+    }
+
+    @Override
+    public GithubRepository get(int index) {
+        try {
+            return pool.get(slots[index]);
+        } finally {
+            Reference.reachabilityFence(this);
+        }
+    }
+
+    @Override
+    public int size() {
+        return slots.length;
+    }
+
+    RepositoryPool pool() {
+        return pool;
+    }
+
+    int[] slots() {
+        return slots;
+    }
+}
@@ -0,0 +1,357 @@
+package com.githubpopularity.cache;
+
+import com.githubpopularity.model.GithubRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.ref.Cleaner;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Shared, deduplicated store of the repositories held by the in-process caches.
+ * <p>
+ * Each repository state is stored once in columns: stars, forks and the last update (as epoch seconds and nanos)
+ * as primitives, the full name and description as the strings of the first copy seen, the language as an index into
+ * a table of interned language names, and the name only when it is not the last segment of the full name. Cached
+ * result sets are {@link #intern(List) interned} into lists of slot indices, so a repository appearing under several
+ * queries, or in the repository, last good result and search response caches at once, costs one entry instead of one
+ * record, {@link Instant} and set of strings per copy. Reading a list allocates the record with its last update and
+ * name; these are short-lived and die young instead of being retained.
+ * <p>
+ * Popularity scores are not retained, as cached repositories are scored when served.
+ * Entries are immutable snapshots: a copy equal to the latest entry of its full name shares that entry, while a
+ * copy that differs gets an entry of its own, which becomes the latest unless it is older (by last update). Lists
+ * interned earlier keep the entries they were built from, so a list never changes while it is read. Entries are
+ * reference-counted by the lists using them and freed once those lists are garbage collected, when their slots
+ * are reused.
+ * <p>
+ * Writes are serialized; reads are lock-free unless they race with a write.
+ */
+@Component
+public class RepositoryPool {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_LANGUAGE = -1;
+    private static final long NO_UPDATE = Long.MIN_VALUE;
+
+    private final boolean enabled;
+    private final StampedLock lock = new StampedLock();
+    private final Map<String, Integer> languageCodes = new HashMap<>();
+    private String[] languageNames = new String[16];
+
+    private String[] fullNames = new String[INITIAL_CAPACITY];
+    // null when the name is the last segment of the full name, which is rebuilt on read
+    private String[] names = new String[INITIAL_CAPACITY];
+    private boolean[] unnamed = new boolean[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    private int[] stars = new int[INITIAL_CAPACITY];
+    private int[] forks = new int[INITIAL_CAPACITY];
+    private long[] updatedSeconds = new long[INITIAL_CAPACITY];
+    private int[] updatedNanos = new int[INITIAL_CAPACITY];
+    private int[] languages = new int[INITIAL_CAPACITY];
+    private int[] references = new int[INITIAL_CAPACITY];
+    // open-addressing index from full name to its latest slot + 1, 0 marking an empty bucket; kept at most half full
+    private int[] index = new int[INITIAL_CAPACITY * 2];
+    private int indexed;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int highWater;
+
+    public RepositoryPool(@Value("${popularity.pool.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Stores the repositories in the pool and returns a list backed by their entries.
+     *
+     * @param repositories repositories to retain, e.g. before caching them
+     * @return an equal list backed by the pool; the given list itself if it is already pooled or pooling is disabled
+     */
+    public List<GithubRepository> intern(List<GithubRepository> repositories) {
+        if (!enabled || repositories instanceof PooledRepositoryList pooled && pooled.pool() == this) {
+            return repositories;
+        }
+        if (repositories.isEmpty()) {
+            return List.of();
+        }
+        int[] slots = new int[repositories.size()];
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = store(repositories.get(i));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        PooledRepositoryList list = new PooledRepositoryList(this, slots);
+        CLEANER.register(list, new Release(this, slots));
+        return list;
+    }
+
+    /**
+     * @return number of distinct repositories held, not counting older states still used by some lists
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return indexed;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    GithubRepository get(int slot) {
+        long stamp = lock.tryOptimisticRead();
+        GithubRepository repository;
+        try {
+            repository = read(slot);
+        } catch (DateTimeException e) {
+            // a last update torn by a concurrent write may be out of range; the locked read below is not torn
+            repository = null;
+        }
+        if (repository == null || !lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                repository = read(slot);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return repository;
+    }
+
+    /**
+     * Drops one reference to each slot, freeing slots no list refers to anymore.
+     */
+    void release(int[] slots) {
+        long stamp = lock.writeLock();
+        try {
+            for (int slot : slots) {
+                if (--references[slot] == 0) {
+                    if (find(fullNames[slot]) == slot) {
+                        unindex(slot);
+                    }
+                    fullNames[slot] = null;
+                    names[slot] = null;
+                    descriptions[slot] = null;
+                    if (freeCount == freeSlots.length) {
+                        freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+                    }
+                    freeSlots[freeCount++] = slot;
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private int store(GithubRepository repository) {
+        int language = languageCode(repository.language());
+        int latest = find(repository.fullName());
+        if (latest >= 0 && holds(latest, repository, language)) {
+            references[latest]++;
+            return latest;
+        }
+        int slot = allocate();
+        fullNames[slot] = repository.fullName();
+        names[slot] = isLastSegment(repository.name(), repository.fullName()) ? null : repository.name();
+        unnamed[slot] = repository.name() == null;
+        descriptions[slot] = repository.description();
+        stars[slot] = repository.stars();
+        forks[slot] = repository.forks();
+        Instant lastUpdated = repository.lastUpdated();
+        updatedSeconds[slot] = lastUpdated == null ? NO_UPDATE : lastUpdated.getEpochSecond();
+        updatedNanos[slot] = lastUpdated == null ? 0 : lastUpdated.getNano();
+        languages[slot] = language;
+        references[slot] = 1;
+        if (latest < 0) {
+            index(slot);
+        } else if (!isOlder(lastUpdated, latest)) {
+            // older copies, e.g. restored from disk, keep their own entry without replacing the fresher state
+            reindex(latest, slot);
+        }
+        return slot;
+    }
+
+    private boolean holds(int slot, GithubRepository repository, int language) {
+        return stars[slot] == repository.stars()
+                && forks[slot] == repository.forks()
+                && languages[slot] == language
+                && compareUpdate(repository.lastUpdated(), slot) == 0
+                && Objects.equals(name(slot, fullNames[slot]), repository.name())
+                && Objects.equals(descriptions[slot], repository.description());
+    }
+
+    private boolean isOlder(Instant lastUpdated, int latest) {
+        return compareUpdate(lastUpdated, latest) < 0;
+    }
+
+    /**
+     * Compares a last update with the one stored in a slot, a missing last update sorting first.
+     */
+    private int compareUpdate(Instant lastUpdated, int slot) {
+        long seconds = lastUpdated == null ? NO_UPDATE : lastUpdated.getEpochSecond();
+        int compared = Long.compare(seconds, updatedSeconds[slot]);
+        return compared != 0 ? compared : Integer.compare(lastUpdated == null ? 0 : lastUpdated.getNano(),
+                updatedNanos[slot]);
+    }
+
+    private static boolean isLastSegment(String name, String fullName) {
+        return name != null && fullName != null && fullName.length() > name.length() && fullName.endsWith(name)
+                && fullName.charAt(fullName.length() - name.length() - 1) == '/';
+    }
+
+    private String name(int slot, String fullName) {
+        String name = names[slot];
+        if (name != null || unnamed[slot] || fullName == null) {
+            return name;
+        }
+        return fullName.substring(fullName.lastIndexOf('/') + 1);
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWater == fullNames.length) {
+            int capacity = highWater * 2;
+            fullNames = Arrays.copyOf(fullNames, capacity);
+            names = Arrays.copyOf(names, capacity);
+            unnamed = Arrays.copyOf(unnamed, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+            stars = Arrays.copyOf(stars, capacity);
+            forks = Arrays.copyOf(forks, capacity);
+            updatedSeconds = Arrays.copyOf(updatedSeconds, capacity);
+            updatedNanos = Arrays.copyOf(updatedNanos, capacity);
+            languages = Arrays.copyOf(languages, capacity);
+            references = Arrays.copyOf(references, capacity);
+        }
+        return highWater++;
+    }
+
+    private int find(String fullName) {
+        int mask = index.length - 1;
+        for (int bucket = hash(fullName) & mask; ; bucket = (bucket + 1) & mask) {
+            int entry = index[bucket];
+            if (entry == 0) {
+                return -1;
+            }
+            if (Objects.equals(fullName, fullNames[entry - 1])) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private void index(int slot) {
+        if ((indexed + 1) * 2 > index.length) {
+            int[] previous = index;
+            index = new int[previous.length * 2];
+            for (int entry : previous) {
+                if (entry != 0) {
+                    place(entry - 1);
+                }
+            }
+        }
+        place(slot);
+        indexed++;
+    }
+
+    /**
+     * Points the index entry of a full name at a newer slot holding the same full name.
+     */
+    private void reindex(int previous, int slot) {
+        int mask = index.length - 1;
+        int bucket = hash(fullNames[previous]) & mask;
+        while (index[bucket] != previous + 1) {
+            bucket = (bucket + 1) & mask;
+        }
+        index[bucket] = slot + 1;
+    }
+
+    private void place(int slot) {
+        int mask = index.length - 1;
+        int bucket = hash(fullNames[slot]) & mask;
+        while (index[bucket] != 0) {
+            bucket = (bucket + 1) & mask;
+        }
+        index[bucket] = slot + 1;
+    }
+
+    /**
+     * Removes a slot from the index, shifting later entries of its probe sequence back so lookups need no
+     * tombstones.
+     */
+    private void unindex(int slot) {
+        int mask = index.length - 1;
+        int hole = hash(fullNames[slot]) & mask;
+        while (index[hole] != slot + 1) {
+            hole = (hole + 1) & mask;
+        }
+        index[hole] = 0;
+        indexed--;
+        for (int bucket = (hole + 1) & mask; index[bucket] != 0; bucket = (bucket + 1) & mask) {
+            int home = hash(fullNames[index[bucket] - 1]) & mask;
+            // move the entry into the hole unless its home bucket lies cyclically in (hole, bucket]
+            boolean reachable = hole <= bucket ? home > hole && home <= bucket : home > hole || home <= bucket;
+            if (!reachable) {
+                index[hole] = index[bucket];
+                index[bucket] = 0;
+                hole = bucket;
+            }
+        }
+    }
+
+    private static int hash(String fullName) {
+        int h = Objects.hashCode(fullName) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int languageCode(String language) {
+        if (language == null) {
+            return NO_LANGUAGE;
+        }
+        Integer code = languageCodes.get(language);
+        if (code == null) {
+            code = languageCodes.size();
+            if (code == languageNames.length) {
+                languageNames = Arrays.copyOf(languageNames, code * 2);
+            }
+            languageNames[code] = language;
+            languageCodes.put(language, code);
+        }
+        return code;
+    }
+
+    /**
+     * Reads one slot; the record is only returned once the read is known to be consistent, so it may be built from
+     * a torn read and discarded, or fail to be built at all.
+     */
+    private GithubRepository read(int slot) {
+        int language = languages[slot];
+        String[] table = languageNames;
+        String fullName = fullNames[slot];
+        long seconds = updatedSeconds[slot];
+        Instant lastUpdated = seconds == NO_UPDATE ? null : Instant.ofEpochSecond(seconds, updatedNanos[slot]);
+        return new GithubRepository(name(slot, fullName), fullName, descriptions[slot], stars[slot], forks[slot],
+                lastUpdated, language >= 0 && language < table.length ? table[language] : null, 0.0);
+    }
+
+    /**
+     * Releases the slots of a garbage-collected list. Must not refer to the list itself.
+     */
+    private record Release(RepositoryPool pool, int[] slots) implements Runnable {
+
+        @Override
+        public void run() {
+            pool.release(slots);
+        }
+    }
+}
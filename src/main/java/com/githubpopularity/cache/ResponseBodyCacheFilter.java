@@ -0,0 +1,214 @@
+package com.githubpopularity.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+import com.githubpopularity.service.HotQueryTracker;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches the encoded JSON body of popularity responses, gzip-compressed, per query.
+ * <p>
+ * On a hit the controller is skipped entirely: no scoring and no Jackson serialization. Clients that accept gzip
+ * get the stored bytes as they are with {@code Content-Encoding: gzip}; others get them inflated. Only fresh
+ * {@code 200} responses are stored, never stale ones. A body is tied to the repository cache entry it was built
+ * from and only served while that entry is still cached, so hot refreshes, stale fallback recoveries and expiry
+ * retire it together with its source; this also bounds how far the recency part of the stored scores can drift.
+ * Runs inside {@code ServerTimingFilter}, so hits still report their total time. Not installed with composite
+ * scoring, where a cached body would pin one variant per query.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnExpression("${popularity.response-cache.enabled:true} "
+        + "and '${popularity.scoring.strategy:static}' != 'composite'")
+public class ResponseBodyCacheFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(ResponseBodyCacheFilter.class);
+
+    static final String CACHED_PATH = "/api/repositories/popularity";
+    private static final String QUERY_ATTRIBUTE = ResponseBodyCacheFilter.class.getName() + ".query";
+    private static final String GZIP = "gzip";
+
+    private final Cache<RepositoryQuery, CachedResponseBody> responseBodyCache;
+    private final Cache<RepositoryQuery, List<GithubRepository>> repositoryCache;
+    private final HotQueryTracker hotQueryTracker;
+
+    public ResponseBodyCacheFilter(Cache<RepositoryQuery, CachedResponseBody> responseBodyCache,
+                                   Cache<RepositoryQuery, List<GithubRepository>> repositoryCache,
+                                   HotQueryTracker hotQueryTracker) {
+        this.responseBodyCache = responseBodyCache;
+        this.repositoryCache = repositoryCache;
+        this.hotQueryTracker = hotQueryTracker;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !CACHED_PATH.equals(request.getRequestURI()) || !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RepositoryQuery query = (RepositoryQuery) request.getAttribute(QUERY_ATTRIBUTE);
+        if (query == null) {
+            Optional<RepositoryQuery> parsed = toQuery(request);
+            if (parsed.isEmpty()) {
+                chain.doFilter(request, response);
+                return;
+            }
+            query = parsed.get();
+            CachedResponseBody cached = responseBodyCache.getIfPresent(query);
+            if (cached != null) {
+                if (cached.source() == source(query)) {
+                    hotQueryTracker.record(query);
+                    write(request, response, cached.gzip());
+                    return;
+                }
+                responseBodyCache.asMap().remove(query, cached);
+            }
+            request.setAttribute(QUERY_ATTRIBUTE, query);
+        }
+        List<GithubRepository> sourceBefore = source(query);
+
+        ContentCachingResponseWrapper wrapper = response instanceof ContentCachingResponseWrapper buffered
+                ? buffered : new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        if (isAsyncStarted(request)) {
+            return;
+        }
+        List<GithubRepository> source = source(query);
+        // a source replaced while the controller ran may not be the one the body was built from
+        if (isCacheable(wrapper) && source != null && (sourceBefore == null || sourceBefore == source)) {
+            responseBodyCache.put(query, new CachedResponseBody(compress(wrapper.getContentAsByteArray()), source));
+        }
+        if (wrapper != response) {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * @return the repository cache entry of a query, read without counting as a cache hit or miss
+     */
+    private List<GithubRepository> source(RepositoryQuery query) {
+        return repositoryCache.policy().getIfPresentQuietly(query);
+    }
+
+    private static boolean isCacheable(ContentCachingResponseWrapper response) {
+        String contentType = response.getContentType();
+        return response.getStatus() == HttpServletResponse.SC_OK
+                && response.getHeader(HttpHeaders.WARNING) == null
+                && contentType != null
+                && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType))
+                && response.getContentSize() > 0;
+    }
+
+    private static void write(HttpServletRequest request, HttpServletResponse response, byte[] compressed)
+            throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        byte[] body = compressed;
+        if (acceptsGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        } else {
+            body = decompress(compressed);
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (headers.hasMoreElements()) {
+            for (String coding : headers.nextElement().split(",")) {
+                String[] parts = coding.trim().split(";");
+                if (parts[0].trim().equalsIgnoreCase(GZIP) && !isZeroQuality(parts)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) == 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the cache key with the same defaults as the controller; empty if the parameters are missing or
+     * malformed, in which case the request is left to the controller's validation.
+     */
+    static Optional<RepositoryQuery> toQuery(HttpServletRequest request) {
+        String language = request.getParameter("language");
+        String createdAfter = request.getParameter("createdAfter");
+        if (language == null || language.isBlank() || createdAfter == null) {
+            return Optional.empty();
+        }
+        try {
+            int perPage = intParameter(request, "perPage", 10);
+            int page = intParameter(request, "page", 1);
+            return Optional.of(new RepositoryQuery(language, createdAfter, perPage, page));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static int intParameter(HttpServletRequest request, String name, int defaultValue) {
+        String value = request.getParameter(name);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    static byte[] compress(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Cached response body of {} bytes as {} compressed bytes", body.length, out.size());
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] decompress(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
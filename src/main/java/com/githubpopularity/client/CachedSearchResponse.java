@@ -0,0 +1,17 @@
+package com.githubpopularity.client;
+
+import com.githubpopularity.model.GithubRepository;
+
+import java.util.List;
+
+/**
+ * Decoded GitHub search response stored together with its cache validators.
+ * Used to revalidate a search with {@code If-None-Match}/{@code If-Modified-Since}
+ * and to serve the stored repositories when GitHub answers 304 Not Modified.
+ *
+ * @param etag         value of the {@code ETag} response header, may be null
+ * @param lastModified value of the {@code Last-Modified} response header, may be null
+ * @param repositories repositories decoded from the response body
+ */
+public record CachedSearchResponse(String etag, String lastModified, List<GithubRepository> repositories) {
+}
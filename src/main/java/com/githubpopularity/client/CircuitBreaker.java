@@ -0,0 +1,237 @@
+package com.githubpopularity.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Circuit breaker for outbound GitHub calls.
+ * <p>
+ * Outcomes of the last {@code windowSize} calls are kept in a ring buffer. Once at least {@code minimumCalls}
+ * have been recorded, the breaker opens when the share of failed calls or of calls slower than
+ * {@code slowCallThreshold} reaches its rate threshold. While open every call is refused without touching
+ * the network. After {@code openDuration} the breaker half-opens and lets a single trial call through:
+ * a fast success closes it again, a failure or slow call re-opens it.
+ * <p>
+ * Each permitted call carries a {@link Permit} tagged with the state generation it was admitted in, which is
+ * advanced by every transition. Only calls admitted in the current generation count: a call admitted while closed
+ * that completes after the breaker opened is ignored, and only the trial call decides whether a half-open breaker
+ * closes or re-opens.
+ * <p>
+ * Listeners are notified of every state change, so callers can refresh stale data as soon as a trial is allowed.
+ */
+public class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Permission for one call.
+     *
+     * @param generation state generation the call was admitted in
+     * @param trial      whether the call is the trial call of a half-open breaker
+     */
+    public record Permit(long generation, boolean trial) {
+    }
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallThresholdNanos;
+    private final double slowCallRateThreshold;
+    private final Duration openDuration;
+    private final List<Consumer<State>> listeners = new CopyOnWriteArrayList<>();
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int recorded;
+    private int failedCount;
+    private int slowCount;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAtNanos;
+    private boolean trialInFlight;
+
+    /**
+     * @param windowSize            number of most recent calls considered
+     * @param minimumCalls          calls required in the window before rates are evaluated
+     * @param failureRateThreshold  failure rate in percent at which the breaker opens
+     * @param slowCallThreshold     duration above which a call counts as slow
+     * @param slowCallRateThreshold slow call rate in percent at which the breaker opens
+     * @param openDuration          time the breaker stays open before allowing a trial call
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration slowCallThreshold,
+                          double slowCallRateThreshold, Duration openDuration) {
+        this.failed = new boolean[windowSize];
+        this.slow = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThresholdNanos = slowCallThreshold.toNanos();
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * Registers a listener notified with the new state after every transition.
+     */
+    public void addListener(Consumer<State> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Asks for permission to make a call. Every permitted call must be followed by
+     * {@link #onResult(Permit, boolean, long)} or {@link #release(Permit)}.
+     *
+     * @return the permit of the call, or null if the call is refused
+     */
+    public Permit tryAcquire() {
+        boolean halfOpened;
+        Permit permit;
+        synchronized (this) {
+            halfOpened = halfOpenIfDue();
+            if (state == State.OPEN || (state == State.HALF_OPEN && trialInFlight)) {
+                return null;
+            }
+            if (state == State.HALF_OPEN) {
+                trialInFlight = true;
+            }
+            permit = new Permit(generation, state == State.HALF_OPEN);
+        }
+        if (halfOpened) {
+            notifyListeners(State.HALF_OPEN);
+        }
+        return permit;
+    }
+
+    /**
+     * Records the outcome of a permitted call. Ignored if the breaker changed state since the call was admitted.
+     *
+     * @param permit       permit the call was admitted with
+     * @param failure      whether the call failed in a way that indicates GitHub is unhealthy
+     * @param elapsedNanos call duration
+     */
+    public void onResult(Permit permit, boolean failure, long elapsedNanos) {
+        boolean isSlow = elapsedNanos >= slowCallThresholdNanos;
+        State changed = null;
+        synchronized (this) {
+            if (permit.generation() != generation) {
+                return;
+            }
+            if (permit.trial()) {
+                trialInFlight = false;
+                if (failure || isSlow) {
+                    logger.warn("Re-opening GitHub circuit breaker: trial call {}", failure ? "failed" : "was slow");
+                    changed = open();
+                } else {
+                    changed = close();
+                }
+            } else if (state == State.CLOSED) {
+                changed = record(failure, isSlow);
+            }
+        }
+        if (changed != null) {
+            notifyListeners(changed);
+        }
+    }
+
+    /**
+     * Gives back a permission whose call was cancelled, or never reached GitHub.
+     *
+     * @param permit permit the call was admitted with
+     */
+    public synchronized void release(Permit permit) {
+        if (permit.trial() && permit.generation() == generation) {
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private State record(boolean failure, boolean isSlow) {
+        if (recorded == failed.length) {
+            failedCount -= failed[next] ? 1 : 0;
+            slowCount -= slow[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failed[next] = failure;
+        slow[next] = isSlow;
+        failedCount += failure ? 1 : 0;
+        slowCount += isSlow ? 1 : 0;
+        next = (next + 1) % failed.length;
+
+        if (recorded < minimumCalls) {
+            return null;
+        }
+        double failureRate = failedCount * 100.0 / recorded;
+        double slowCallRate = slowCount * 100.0 / recorded;
+        if (failureRate >= failureRateThreshold || slowCallRate >= slowCallRateThreshold) {
+            logger.warn("Opening GitHub circuit breaker: failureRate={}%, slowCallRate={}% over {} calls",
+                    failureRate, slowCallRate, recorded);
+            return open();
+        }
+        return null;
+    }
+
+    private State open() {
+        state = State.OPEN;
+        generation++;
+        openedAtNanos = System.nanoTime();
+        resetWindow();
+        Schedulers.parallel().schedule(this::halfOpenWhenDue, openDuration.toNanos(), TimeUnit.NANOSECONDS);
+        return State.OPEN;
+    }
+
+    private State close() {
+        logger.info("Closing GitHub circuit breaker after successful trial call");
+        state = State.CLOSED;
+        generation++;
+        resetWindow();
+        return State.CLOSED;
+    }
+
+    private void halfOpenWhenDue() {
+        boolean halfOpened;
+        synchronized (this) {
+            halfOpened = halfOpenIfDue();
+        }
+        if (halfOpened) {
+            notifyListeners(State.HALF_OPEN);
+        }
+    }
+
+    private boolean halfOpenIfDue() {
+        if (state != State.OPEN || System.nanoTime() - openedAtNanos < openDuration.toNanos()) {
+            return false;
+        }
+        logger.info("Half-opening GitHub circuit breaker after {}", openDuration);
+        state = State.HALF_OPEN;
+        generation++;
+        trialInFlight = false;
+        return true;
+    }
+
+    private void resetWindow() {
+        next = 0;
+        recorded = 0;
+        failedCount = 0;
+        slowCount = 0;
+    }
+
+    private void notifyListeners(State newState) {
+        for (Consumer<State> listener : listeners) {
+            listener.accept(newState);
+        }
+    }
+}
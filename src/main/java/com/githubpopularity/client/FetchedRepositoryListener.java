@@ -0,0 +1,17 @@
+package com.githubpopularity.client;
+
+import com.githubpopularity.model.GithubRepository;
+
+/**
+ * Notified of every repository decoded from a fresh GitHub search response.
+ * Repositories served from a 304 Not Modified answer are not reported again.
+ */
+public interface FetchedRepositoryListener {
+
+    /**
+     * Called on the decoding thread; implementations must be fast and thread-safe.
+     *
+     * @param repository repository as returned by GitHub, unscored
+     */
+    void onFetched(GithubRepository repository);
+}
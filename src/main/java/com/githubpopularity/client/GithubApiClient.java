@@ -1,6 +1,6 @@
 package com.githubpopularity.client;
 
-import com.githubpopularity.dto.GithubRepositoryItem;
+import com.githubpopularity.model.GithubRepository;
 
 import java.util.List;
 
@@ -17,7 +17,7 @@ public interface GithubApiClient {
      * @param query   search query string (e.g., "language:Java created:>2023-01-01")
      * @param perPage number of repositories to fetch per page
      * @param page    page number to fetch
-     * @return list of {@link GithubRepositoryItem}; returns an empty list if no repositories match the query
+     * @return list of {@link GithubRepository} with no popularity score; returns an empty list if no repositories match the query
      */
-    List<GithubRepositoryItem> fetchRepositories(String query, int perPage, int page);
+    List<GithubRepository> fetchRepositories(String query, int perPage, int page);
 }
\ No newline at end of file
@@ -1,57 +1,254 @@
 package com.githubpopularity.client;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
-import com.githubpopularity.dto.GithubRepositoryItem;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.githubpopularity.cache.RepositoryPool;
 import com.githubpopularity.exception.GithubApiException;
+import com.githubpopularity.metrics.PopularityMetrics;
+import com.githubpopularity.metrics.StageTimings;
+import com.githubpopularity.model.GithubRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
 
 /**
  * Default implementation of {@link GithubApiClient} that communicates with the GitHub public API.
+ * <p>
+ * Response bodies are decoded incrementally by {@link GithubSearchResponseDecoder}, which emits
+ * domain {@link GithubRepository} records as the body arrives.
+ * <p>
+ * Search responses are stored with their {@code ETag} and {@code Last-Modified} validators.
+ * Repeated searches are sent as conditional requests, and a 304 Not Modified answer is served
+ * from the stored repositories without parsing or counting against the GitHub rate limit. Stored repositories
+ * are kept in the shared {@link RepositoryPool}.
+ * <p>
+ * Every call waits for a slot and a credential from the {@link RateLimitScheduler}, and every response
+ * feeds its rate-limit headers back into that credential's budget.
+ * <p>
+ * All calls go through a {@link CircuitBreaker}. Server errors, throttling and slow responses count against it,
+ * and while it is open calls fail immediately with a 503 instead of waiting on GitHub.
+ * <p>
+ * Round-trip and decoding time are recorded into the caller's {@link StageTimings}, and the response status,
+ * body size and remaining rate-limit budget are reported to {@link PopularityMetrics}.
+ * <p>
+ * Every freshly decoded repository is passed to the registered {@link FetchedRepositoryListener}s.
  */
 @Component
-public class GithubApiClientImpl implements GithubApiClient {
+public class GithubApiClientImpl implements GithubApiClient, ReactiveGithubApiClient {
     private static final Logger logger = LoggerFactory.getLogger(GithubApiClientImpl.class);
 
     private final WebClient webClient;
+    private final Cache<String, CachedSearchResponse> searchResponseCache;
+    private final RateLimitScheduler rateLimitScheduler;
+    private final CircuitBreaker circuitBreaker;
+    private final PopularityMetrics metrics;
+    private final List<FetchedRepositoryListener> listeners;
+    private final RepositoryPool repositoryPool;
+    private final GithubSearchResponseDecoder decoder = new GithubSearchResponseDecoder();
 
-    public GithubApiClientImpl(WebClient githubWebClient) {
+    public GithubApiClientImpl(WebClient githubWebClient,
+                               Cache<String, CachedSearchResponse> searchResponseCache,
+                               RateLimitScheduler rateLimitScheduler,
+                               CircuitBreaker circuitBreaker,
+                               PopularityMetrics metrics,
+                               List<FetchedRepositoryListener> listeners,
+                               RepositoryPool repositoryPool) {
         this.webClient = githubWebClient;
+        this.searchResponseCache = searchResponseCache;
+        this.rateLimitScheduler = rateLimitScheduler;
+        this.circuitBreaker = circuitBreaker;
+        this.metrics = metrics;
+        this.listeners = List.copyOf(listeners);
+        this.repositoryPool = repositoryPool;
     }
 
     @Override
-    public List<GithubRepositoryItem> fetchRepositories(String query, int perPage, int page) {
-        logger.debug("Fetching repositories from GitHub API: query='{}', perPage={}, page={}", query, perPage, page);
-        try {
-            GithubSearchResponse response = webClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/search/repositories")
-                            .queryParam("q", query)
-                            .queryParam("per_page", perPage)
-                            .queryParam("page", page)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(GithubSearchResponse.class)
-                    .onErrorMap(WebClientResponseException.class, this::handleWebClientError)
-                    .block();
-
-            return Optional.ofNullable(response)
-                    .map(r -> r.items)
-                    .orElse(Collections.emptyList());
-        } catch (GithubApiException e) {
-            logger.error("GitHub API error (status={}): {}", e.getStatusCode(), e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            logger.error("Unexpected error calling GitHub API: {}", e.getMessage(), e);
-            throw new GithubApiException(500, "Unexpected error calling GitHub API");
+    public List<GithubRepository> fetchRepositories(String query, int perPage, int page) {
+        List<GithubRepository> repositories = searchRepositories(query, perPage, page).collectList().block();
+        return Optional.ofNullable(repositories).orElse(Collections.emptyList());
+    }
+
+    @Override
+    public Flux<GithubRepository> searchRepositories(String query, int perPage, int page) {
+        return Flux.deferContextual(context -> {
+                    StageTimings timings = StageTimings.from(context);
+                    return guarded(budget -> Flux.defer(() -> {
+                        logger.debug("Fetching repositories from GitHub API: query='{}', perPage={}, page={}", query, perPage, page);
+                        String cacheKey = query + "|" + perPage + "|" + page;
+                        CachedSearchResponse cached = searchResponseCache.getIfPresent(cacheKey);
+                        long start = System.nanoTime();
+                        // the body is decoded while it streams in; count that time as decode only, not as GitHub too
+                        AtomicLong decodeNanos = new AtomicLong();
+                        LongConsumer recordDecode = nanos -> {
+                            decodeNanos.addAndGet(nanos);
+                            timings.record(StageTimings.DECODE, nanos);
+                        };
+                        Runnable recordRoundTrip = () -> timings.record(StageTimings.GITHUB,
+                                System.nanoTime() - start - decodeNanos.get());
+                        return webClient.get()
+                                .uri(searchUri(query, perPage, page))
+                                .headers(headers -> {
+                                    addCredentials(headers, budget);
+                                    addValidators(headers, cached);
+                                })
+                                .exchangeToFlux(response -> handleResponse(response, budget, cacheKey, cached, recordDecode))
+                                .onErrorMap(WebClientResponseException.class, this::handleWebClientError)
+                                .doOnTerminate(recordRoundTrip)
+                                .doOnCancel(recordRoundTrip);
+                    }));
+                })
+                .doOnError(GithubApiException.class, this::logApiError)
+                .onErrorMap(e -> !(e instanceof GithubApiException), this::mapUnexpectedError);
+    }
+
+    @Override
+    public Mono<Long> countRepositories(String query) {
+        return this.<Long>guarded(budget -> {
+                    logger.debug("Counting repositories from GitHub API: query='{}'", query);
+                    return webClient.get()
+                            .uri(searchUri(query, 1, 1))
+                            .headers(headers -> addCredentials(headers, budget))
+                            .exchangeToMono(response -> {
+                                updateBudget(response, budget);
+                                if (!response.statusCode().is2xxSuccessful()) {
+                                    return response.createException().flatMap(Mono::<Long>error);
+                                }
+                                return decoder.decodeTotalCount(response.body(BodyExtractors.toDataBuffers()));
+                            })
+                            .onErrorMap(WebClientResponseException.class, this::handleWebClientError)
+                            .flux();
+                })
+                .single()
+                .doOnError(GithubApiException.class, this::logApiError)
+                .onErrorMap(e -> !(e instanceof GithubApiException), this::mapUnexpectedError);
+    }
+
+    /**
+     * Runs a call through the circuit breaker and the rate limit scheduler: refuses it with a 503 while the breaker
+     * is open, waits for rate limit budget, then reports the outcome and duration of the exchange with GitHub.
+     * Time spent waiting for budget is not part of the duration, and a call rejected by the scheduler itself never
+     * reached GitHub, so it gives its permission back instead of counting as a failure.
+     *
+     * @param exchange sends the call with the acquired credential
+     */
+    private <T> Flux<T> guarded(Function<TokenBudget, Flux<T>> exchange) {
+        return Flux.defer(() -> {
+            CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+            if (permit == null) {
+                return Flux.error(new GithubApiException(503, "GitHub API circuit open"));
+            }
+            return rateLimitScheduler.acquire()
+                    .doOnError(e -> circuitBreaker.release(permit))
+                    .flatMapMany(budget -> {
+                        long start = System.nanoTime();
+                        return exchange.apply(budget)
+                                .doOnComplete(() -> circuitBreaker.onResult(permit, false, System.nanoTime() - start))
+                                .doOnError(e -> circuitBreaker.onResult(permit, isUpstreamFailure(e),
+                                        System.nanoTime() - start));
+                    })
+                    .doOnCancel(() -> circuitBreaker.release(permit));
+        });
+    }
+
+    private static boolean isUpstreamFailure(Throwable e) {
+        return !(e instanceof GithubApiException apiException) || apiException.isUpstreamUnavailable();
+    }
+
+    private Function<UriBuilder, URI> searchUri(String query, int perPage, int page) {
+        return uriBuilder -> uriBuilder
+                .path("/search/repositories")
+                .queryParam("q", query)
+                .queryParam("per_page", perPage)
+                .queryParam("page", page)
+                .build();
+    }
+
+    private void updateBudget(ClientResponse response, TokenBudget budget) {
+        rateLimitScheduler.update(budget, response.headers().asHttpHeaders());
+        if (response.statusCode().value() == HttpStatus.UNAUTHORIZED.value()) {
+            rateLimitScheduler.revoke(budget);
         }
+        metrics.recordGithubStatus(response.statusCode().value(), rateLimitScheduler.getRemaining());
+    }
+
+    private void addCredentials(HttpHeaders headers, TokenBudget budget) {
+        if (budget.token() != null) {
+            headers.setBearerAuth(budget.token());
+        }
+    }
+
+    private void addValidators(HttpHeaders headers, CachedSearchResponse cached) {
+        if (cached == null) {
+            return;
+        }
+        if (cached.etag() != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, cached.etag());
+        }
+        if (cached.lastModified() != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified());
+        }
+    }
+
+    private Flux<GithubRepository> handleResponse(ClientResponse response, TokenBudget budget, String cacheKey,
+                                                  CachedSearchResponse cached, LongConsumer recordDecode) {
+        updateBudget(response, budget);
+        if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+            logger.debug("GitHub API returned 304 Not Modified, serving stored repositories for key='{}'", cacheKey);
+            return response.releaseBody().thenMany(Flux.fromIterable(cached.repositories()));
+        }
+        if (!response.statusCode().is2xxSuccessful()) {
+            return response.createException().flatMapMany(Flux::error);
+        }
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        AtomicLong payloadBytes = new AtomicLong();
+        Flux<DataBuffer> body = response.body(BodyExtractors.toDataBuffers())
+                .doOnNext(buffer -> payloadBytes.addAndGet(buffer.readableByteCount()))
+                .doOnComplete(() -> metrics.recordGithubPayload(payloadBytes.get()));
+        Flux<GithubRepository> repositories = decoder.decode(body, recordDecode);
+        if (!listeners.isEmpty()) {
+            repositories = repositories.doOnNext(this::notifyListeners);
+        }
+        if (headers.getETag() == null && headers.getFirst(HttpHeaders.LAST_MODIFIED) == null) {
+            return repositories;
+        }
+        List<GithubRepository> received = new ArrayList<>();
+        return repositories
+                .doOnNext(received::add)
+                .doOnComplete(() -> searchResponseCache.put(cacheKey, new CachedSearchResponse(
+                        headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED), repositoryPool.intern(received))));
+    }
+
+    private void notifyListeners(GithubRepository repository) {
+        for (FetchedRepositoryListener listener : listeners) {
+            listener.onFetched(repository);
+        }
+    }
+
+    private void logApiError(GithubApiException e) {
+        logger.error("GitHub API error (status={}): {}", e.getStatusCode(), e.getMessage());
+    }
+
+    private GithubApiException mapUnexpectedError(Throwable e) {
+        logger.error("Unexpected error calling GitHub API: {}", e.getMessage(), e);
+        return new GithubApiException(500, "Unexpected error calling GitHub API");
     }
 
     private GithubApiException handleWebClientError(WebClientResponseException e) {
@@ -65,9 +262,4 @@ public class GithubApiClientImpl implements GithubApiClient {
         };
         return new GithubApiException(statusCode, message);
     }
-
-    private static class GithubSearchResponse {
-        @JsonProperty("items")
-        public List<GithubRepositoryItem> items;
-    }
 }
@@ -0,0 +1,254 @@
+package com.githubpopularity.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.githubpopularity.model.GithubRepository;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Streaming decoder for GitHub search responses.
+ * <p>
+ * Feeds response chunks into Jackson's non-blocking parser and walks the {@code items} array
+ * token by token, emitting a {@link GithubRepository} as soon as each item object is complete.
+ * No intermediate DTO list is built and the body is never aggregated into a single buffer.
+ * Fields other than the ones mapped onto {@link GithubRepository} are skipped.
+ */
+public class GithubSearchResponseDecoder {
+
+    private final JsonFactory jsonFactory;
+
+    public GithubSearchResponseDecoder() {
+        this(new JsonFactory());
+    }
+
+    public GithubSearchResponseDecoder(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Decodes a search response body into repositories.
+     *
+     * @param body response body chunks; each chunk is released once it has been parsed
+     * @return Flux emitting one repository per element of the {@code items} array
+     */
+    public Flux<GithubRepository> decode(Flux<DataBuffer> body) {
+        return decode(body, nanos -> {
+        });
+    }
+
+    /**
+     * Decodes a search response body into repositories, reporting the time spent parsing each chunk.
+     *
+     * @param body      response body chunks; each chunk is released once it has been parsed
+     * @param parseTime receives the parsing time of each chunk in nanoseconds, excluding time spent waiting for data
+     * @return Flux emitting one repository per element of the {@code items} array
+     */
+    public Flux<GithubRepository> decode(Flux<DataBuffer> body, LongConsumer parseTime) {
+        return Flux.defer(() -> {
+            SearchResponseParser parser = new SearchResponseParser(createParser());
+            return body.concatMapIterable(buffer -> {
+                        long start = System.nanoTime();
+                        try {
+                            return parser.feed(buffer);
+                        } finally {
+                            parseTime.accept(System.nanoTime() - start);
+                        }
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(parser.finish())))
+                    .doFinally(signal -> parser.close());
+        });
+    }
+
+    /**
+     * Decodes only the {@code total_count} of a search response, discarding the items.
+     *
+     * @param body response body chunks; each chunk is released once it has been parsed
+     * @return Mono emitting the total number of matches reported by GitHub, or 0 if absent
+     */
+    public Mono<Long> decodeTotalCount(Flux<DataBuffer> body) {
+        return Mono.defer(() -> {
+            SearchResponseParser parser = new SearchResponseParser(createParser());
+            return body.concatMapIterable(parser::feed)
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(parser.finish())))
+                    .then(Mono.fromCallable(() -> parser.totalCount))
+                    .doFinally(signal -> parser.close());
+        });
+    }
+
+    /**
+     * Decodes a complete search response held in memory.
+     *
+     * @param json response body bytes
+     * @return repositories contained in the {@code items} array
+     */
+    public List<GithubRepository> decode(byte[] json) {
+        SearchResponseParser parser = new SearchResponseParser(createParser());
+        try {
+            List<GithubRepository> repositories = new ArrayList<>(parser.feed(ByteBuffer.wrap(json)));
+            repositories.addAll(parser.finish());
+            return repositories;
+        } finally {
+            parser.close();
+        }
+    }
+
+    private JsonParser createParser() {
+        try {
+            return jsonFactory.createNonBlockingByteBufferParser();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Incremental parser state for a single response.
+     * Depth 1 is the top-level object, depth 2 the {@code items} array and depth 3 an item object.
+     */
+    private static final class SearchResponseParser {
+        private static final int ITEMS_DEPTH = 2;
+        private static final int ITEM_DEPTH = 3;
+
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+        private int depth;
+        private boolean inItems;
+        private String topLevelField;
+        private String itemField;
+        private RepositoryFields item;
+        private long totalCount;
+
+        SearchResponseParser(JsonParser parser) {
+            this.parser = parser;
+            this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        List<GithubRepository> feed(DataBuffer buffer) {
+            try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                List<GithubRepository> repositories = new ArrayList<>();
+                while (iterator.hasNext()) {
+                    repositories.addAll(feed(iterator.next()));
+                }
+                return repositories;
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        List<GithubRepository> feed(ByteBuffer bytes) {
+            try {
+                feeder.feedInput(bytes);
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        List<GithubRepository> finish() {
+            feeder.endOfInput();
+            try {
+                return drain();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // nothing left to release
+            }
+        }
+
+        private List<GithubRepository> drain() throws IOException {
+            List<GithubRepository> repositories = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                switch (token) {
+                    case START_OBJECT, START_ARRAY -> {
+                        depth++;
+                        if (token == JsonToken.START_ARRAY && depth == ITEMS_DEPTH && "items".equals(topLevelField)) {
+                            inItems = true;
+                        } else if (inItems && token == JsonToken.START_OBJECT && depth == ITEM_DEPTH) {
+                            item = new RepositoryFields();
+                        }
+                    }
+                    case END_OBJECT, END_ARRAY -> {
+                        if (item != null && depth == ITEM_DEPTH) {
+                            repositories.add(item.toRepository());
+                            item = null;
+                        } else if (inItems && depth == ITEMS_DEPTH) {
+                            inItems = false;
+                        }
+                        depth--;
+                    }
+                    case FIELD_NAME -> {
+                        if (depth == 1) {
+                            topLevelField = parser.currentName();
+                        } else if (item != null && depth == ITEM_DEPTH) {
+                            itemField = parser.currentName();
+                        }
+                    }
+                    default -> {
+                        if (item != null && depth == ITEM_DEPTH) {
+                            item.set(itemField, parser, token);
+                        } else if (depth == 1 && token == JsonToken.VALUE_NUMBER_INT && "total_count".equals(topLevelField)) {
+                            totalCount = parser.getLongValue();
+                        }
+                    }
+                }
+            }
+            return repositories;
+        }
+    }
+
+    /**
+     * Mutable holder for the fields of the item currently being parsed.
+     */
+    private static final class RepositoryFields {
+        private String name;
+        private String fullName;
+        private String description;
+        private int stars;
+        private int forks;
+        private Instant lastUpdated;
+        private String language;
+
+        void set(String field, JsonParser parser, JsonToken token) throws IOException {
+            if (field == null || token == JsonToken.VALUE_NULL) {
+                return;
+            }
+            switch (field) {
+                case "name" -> name = parser.getText();
+                case "full_name" -> fullName = parser.getText();
+                case "description" -> description = parser.getText();
+                case "stargazers_count" -> stars = parser.getIntValue();
+                case "forks_count" -> forks = parser.getIntValue();
+                case "updated_at" -> lastUpdated = Instant.parse(parser.getText());
+                case "language" -> language = parser.getText();
+                default -> {
+                    // not mapped onto the domain model
+                }
+            }
+        }
+
+        GithubRepository toRepository() {
+            return new GithubRepository(name, fullName, description, stars, forks, lastUpdated, language, 0.0);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.githubpopularity.client;
+
+import com.githubpopularity.exception.GithubApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schedules outbound GitHub calls against the rate-limit budgets reported by GitHub.
+ * <p>
+ * The scheduler owns a pool of credentials, each with its own {@link TokenBudget}. Every response
+ * updates the budget of the credential it used from {@code X-RateLimit-Remaining},
+ * {@code X-RateLimit-Reset} and {@code Retry-After}. Calls wait in a queue ordered by
+ * {@link RequestPriority} and are released at a pace that spreads each credential's remaining quota
+ * until its reset time (allowing short bursts), so aggregate throughput grows with the number of tokens. Each call is handed
+ * the available credential with the most headroom. A call that cannot be dispatched before its deadline
+ * is rejected with a 429 {@link GithubApiException} instead of being sent to GitHub.
+ */
+public class RateLimitScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitScheduler.class);
+
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    static final String RESET_HEADER = "X-RateLimit-Reset";
+    static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private final Duration interactiveDeadline;
+    private final Duration backgroundDeadline;
+    private final Clock clock;
+    private final AtomicLong sequence = new AtomicLong();
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>(
+            Comparator.comparing(Waiter::priority).thenComparingLong(Waiter::sequence));
+
+    private final List<TokenBudget> budgets = new ArrayList<>();
+    private Disposable pendingDrain;
+
+    public RateLimitScheduler(List<String> tokens, int burst, Duration interactiveDeadline, Duration backgroundDeadline) {
+        this(tokens, burst, interactiveDeadline, backgroundDeadline, Clock.systemUTC());
+    }
+
+    RateLimitScheduler(List<String> tokens, int burst, Duration interactiveDeadline, Duration backgroundDeadline,
+                       Clock clock) {
+        this.interactiveDeadline = interactiveDeadline;
+        this.backgroundDeadline = backgroundDeadline;
+        this.clock = clock;
+        if (tokens.isEmpty()) {
+            budgets.add(new TokenBudget(null, "anonymous", burst));
+        }
+        for (int i = 0; i < tokens.size(); i++) {
+            budgets.add(new TokenBudget(tokens.get(i), "token-" + (i + 1), burst));
+        }
+    }
+
+    /**
+     * Waits for a dispatch slot for the priority found in the subscriber context.
+     *
+     * @return Mono emitting the credential to send the call with, or failing with a 429 {@link GithubApiException}
+     */
+    public Mono<TokenBudget> acquire() {
+        return Mono.deferContextual(context ->
+                acquire(context.getOrDefault(RequestPriority.class, RequestPriority.INTERACTIVE)));
+    }
+
+    /**
+     * Waits for a dispatch slot for a call of the given priority.
+     *
+     * @param priority priority of the call
+     * @return Mono emitting the credential to send the call with, or failing with a 429 {@link GithubApiException}
+     */
+    public Mono<TokenBudget> acquire(RequestPriority priority) {
+        Duration deadline = priority == RequestPriority.INTERACTIVE ? interactiveDeadline : backgroundDeadline;
+        return Mono.<TokenBudget>create(sink -> {
+                    long now = clock.millis();
+                    Waiter waiter = new Waiter(priority, sequence.incrementAndGet(), sink, now + deadline.toMillis());
+                    synchronized (this) {
+                        if (nextDispatchAt(now) > waiter.deadlineMillis()) {
+                            logger.warn("Rejecting {} GitHub call: rate limit budget unavailable within {}", priority, deadline);
+                            sink.error(rejected());
+                            return;
+                        }
+                        queue.add(waiter);
+                    }
+                    sink.onCancel(() -> remove(waiter));
+                    drain();
+                })
+                .timeout(deadline, Mono.error(this::rejected));
+    }
+
+    /**
+     * Updates a credential's budget from the rate-limit headers of a GitHub response.
+     *
+     * @param budget  credential the call was sent with
+     * @param headers response headers
+     */
+    public void update(TokenBudget budget, HttpHeaders headers) {
+        synchronized (this) {
+            try {
+                budget.update(headers, clock.millis());
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring malformed GitHub rate limit headers: {}", e.getMessage());
+            }
+            logger.debug("GitHub rate limit budget for {}: remaining={}", budget.label(), budget.remaining());
+        }
+        drain();
+    }
+
+    /**
+     * Takes a credential out of rotation after GitHub rejected it.
+     *
+     * @param budget credential to revoke
+     */
+    public void revoke(TokenBudget budget) {
+        synchronized (this) {
+            if (budget.token() == null || budget.isRevoked()) {
+                return;
+            }
+            budget.revoke();
+        }
+        logger.warn("GitHub credential {} was rejected and is taken out of rotation", budget.label());
+        drain();
+    }
+
+    /**
+     * @return sum of remaining calls reported by GitHub for credentials with a known budget, or -1 if none is known
+     */
+    public synchronized int getRemaining() {
+        int total = -1;
+        for (TokenBudget budget : budgets) {
+            if (!budget.isRevoked() && budget.remaining() >= 0) {
+                total = Math.max(total, 0) + budget.remaining();
+            }
+        }
+        return total;
+    }
+
+    private synchronized void remove(Waiter waiter) {
+        queue.remove(waiter);
+    }
+
+    private void drain() {
+        List<Waiter> released = new ArrayList<>();
+        List<TokenBudget> leases = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.millis();
+            while (!queue.isEmpty()) {
+                TokenBudget budget = selectBudget(now);
+                if (budget == null) {
+                    long next = nextDispatchAt(now);
+                    if (next != Long.MAX_VALUE) {
+                        scheduleDrain(next - now);
+                    }
+                    break;
+                }
+                released.add(queue.poll());
+                leases.add(budget);
+                budget.markDispatched(now);
+            }
+        }
+        for (int i = 0; i < released.size(); i++) {
+            released.get(i).sink().success(leases.get(i));
+        }
+    }
+
+    /**
+     * Picks the credential with the most headroom among those that may dispatch now.
+     */
+    private TokenBudget selectBudget(long now) {
+        TokenBudget selected = null;
+        for (TokenBudget budget : budgets) {
+            if (budget.nextDispatchAt(now) > now) {
+                continue;
+            }
+            if (selected == null || budget.headroom(now) > selected.headroom(now)) {
+                selected = budget;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Earliest time any credential may dispatch the next call.
+     */
+    private long nextDispatchAt(long now) {
+        long next = Long.MAX_VALUE;
+        for (TokenBudget budget : budgets) {
+            next = Math.min(next, budget.nextDispatchAt(now));
+        }
+        return next;
+    }
+
+    private void scheduleDrain(long delayMillis) {
+        if (pendingDrain != null && !pendingDrain.isDisposed()) {
+            return;
+        }
+        pendingDrain = Schedulers.parallel().schedule(() -> {
+            synchronized (this) {
+                pendingDrain = null;
+            }
+            drain();
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private GithubApiException rejected() {
+        return new GithubApiException(429, "GitHub API rate limit exceeded");
+    }
+
+    private record Waiter(RequestPriority priority, long sequence, MonoSink<TokenBudget> sink, long deadlineMillis) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.githubpopularity.client;
+
+import com.githubpopularity.model.GithubRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking variant of {@link GithubApiClient}.
+ * <p>
+ * Returns a {@link Flux} that emits repositories as the GitHub response body is decoded,
+ * so no caller thread is held while the request is in flight.
+ */
+public interface ReactiveGithubApiClient {
+
+    /**
+     * Searches GitHub repositories based on the given search query and paging parameters.
+     *
+     * @param query   search query string (e.g., "language:Java created:>2023-01-01")
+     * @param perPage number of repositories to fetch per page
+     * @param page    page number to fetch
+     * @return Flux emitting each matching {@link GithubRepository} with no popularity score; empty if none match
+     */
+    Flux<GithubRepository> searchRepositories(String query, int perPage, int page);
+
+    /**
+     * Returns the total number of repositories GitHub reports for the given search query.
+     * Search results beyond the first 1,000 cannot be paged, so this is used to size crawls.
+     *
+     * @param query search query string
+     * @return Mono emitting the {@code total_count} of the search
+     */
+    Mono<Long> countRepositories(String query);
+}
@@ -0,0 +1,14 @@
+package com.githubpopularity.client;
+
+/**
+ * Priority of an outbound GitHub call when queued by {@link RateLimitScheduler}.
+ * <p>
+ * Callers select a priority by writing it into the Reactor context under the
+ * {@code RequestPriority.class} key; calls without one are treated as {@link #INTERACTIVE}.
+ */
+public enum RequestPriority {
+    /** Call made on behalf of a user request; dispatched first and rejected quickly. */
+    INTERACTIVE,
+    /** Call made by background work such as crawls or refreshes; may wait longer for budget. */
+    BACKGROUND
+}
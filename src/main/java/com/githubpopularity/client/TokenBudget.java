@@ -0,0 +1,124 @@
+package com.githubpopularity.client;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Rate-limit budget of a single GitHub credential.
+ * <p>
+ * Tracks the remaining calls and reset time reported by GitHub for one token, plus any
+ * {@code Retry-After} block. Calls are paced with a small token bucket that refills at the rate
+ * that spreads the remaining calls evenly until reset, so short bursts pass without delay. A budget whose token was rejected by GitHub is revoked and taken
+ * out of rotation. Instances are guarded by the owning {@link RateLimitScheduler}.
+ */
+public final class TokenBudget {
+
+    private final String token;
+    private final String label;
+    private final int burst;
+    private int remaining = -1;
+    private long resetAtMillis;
+    private long blockedUntilMillis;
+    private double credits;
+    private long refilledAtMillis;
+    private boolean revoked;
+
+    TokenBudget(String token, String label, int burst) {
+        this.token = token;
+        this.label = label;
+        this.burst = burst;
+        this.credits = burst;
+    }
+
+    /**
+     * @return the GitHub token, or null for anonymous access
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * @return a log-safe name for this credential
+     */
+    public String label() {
+        return label;
+    }
+
+    int remaining() {
+        return remaining;
+    }
+
+    boolean isRevoked() {
+        return revoked;
+    }
+
+    void revoke() {
+        revoked = true;
+    }
+
+    void update(HttpHeaders headers, long now) {
+        String remainingHeader = headers.getFirst(RateLimitScheduler.REMAINING_HEADER);
+        String resetHeader = headers.getFirst(RateLimitScheduler.RESET_HEADER);
+        String retryAfterHeader = headers.getFirst(RateLimitScheduler.RETRY_AFTER_HEADER);
+        if (remainingHeader != null) {
+            remaining = Integer.parseInt(remainingHeader.trim());
+        }
+        if (resetHeader != null) {
+            resetAtMillis = Long.parseLong(resetHeader.trim()) * 1000;
+        }
+        if (retryAfterHeader != null) {
+            blockedUntilMillis = now + Long.parseLong(retryAfterHeader.trim()) * 1000;
+        }
+    }
+
+    void markDispatched(long now) {
+        refill(now);
+        credits = Math.max(0, credits - 1);
+        if (remaining > 0) {
+            remaining--;
+        }
+    }
+
+    /**
+     * Remaining calls used to rank credentials; unknown budgets rank highest.
+     */
+    long headroom(long now) {
+        return remaining < 0 || resetAtMillis <= now ? Long.MAX_VALUE : remaining;
+    }
+
+    /**
+     * Earliest time the next call may use this credential, spreading the remaining budget evenly until reset.
+     */
+    long nextDispatchAt(long now) {
+        if (revoked) {
+            return Long.MAX_VALUE;
+        }
+        long earliest = Math.max(now, blockedUntilMillis);
+        if (remaining < 0 || resetAtMillis <= now) {
+            return earliest;
+        }
+        if (remaining == 0) {
+            return Math.max(earliest, resetAtMillis);
+        }
+        refill(now);
+        if (credits >= 1) {
+            return earliest;
+        }
+        return Math.max(earliest, now + (long) Math.ceil((1 - credits) / refillRate(now)));
+    }
+
+    private void refill(long now) {
+        if (remaining > 0 && resetAtMillis > now) {
+            credits = Math.min(burst, credits + (now - refilledAtMillis) * refillRate(now));
+        } else {
+            credits = burst;
+        }
+        refilledAtMillis = now;
+    }
+
+    /**
+     * Calls per millisecond that use up the remaining budget exactly at reset.
+     */
+    private double refillRate(long now) {
+        return (double) remaining / (resetAtMillis - now);
+    }
+}
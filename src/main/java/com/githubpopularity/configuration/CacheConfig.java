@@ -0,0 +1,106 @@
+package com.githubpopularity.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.githubpopularity.cache.CachedResponseBody;
+import com.githubpopularity.client.CachedSearchResponse;
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+import com.githubpopularity.model.RepositoryResult;
+import com.githubpopularity.model.ResultSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration for the in-process cache of GitHub search results.
+ * <p>
+ * The repository cache is bounded by entry count (W-TinyLFU eviction) and expires entries after a fixed TTL.
+ * The search response cache keeps ETag/Last-Modified validators for conditional requests and is bounded
+ * by size only, so entries outlive the repository cache TTL and can be revalidated cheaply.
+ * The last good result cache is also bounded by size only; it keeps the most recent successful result per query
+ * so it can be served as stale while GitHub is unavailable.
+ * The result snapshot cache holds ranked snapshots for cursor pagination; entries expire a fixed time after
+ * they are created, so a cursor stays valid for that long no matter how often it is used.
+ * The response body cache holds gzip-compressed JSON responses and is bounded by their total compressed size.
+ */
+@Configuration
+public class CacheConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheConfig.class);
+
+    @Value("${github.cache.max-size:1000}")
+    private long maxSize;
+
+    @Value("${github.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${github.etag-cache.max-size:5000}")
+    private long etagCacheMaxSize;
+
+    @Value("${github.stale-cache.max-size:5000}")
+    private long staleCacheMaxSize;
+
+    @Value("${popularity.pagination.max-snapshot-repositories:500000}")
+    private long maxSnapshotRepositories;
+
+    @Value("${popularity.pagination.snapshot-ttl-seconds:600}")
+    private long snapshotTtlSeconds;
+
+    @Value("${popularity.response-cache.max-bytes:33554432}")
+    private long responseCacheMaxBytes;
+
+    @Bean
+    public Cache<RepositoryQuery, List<GithubRepository>> repositoryCache() {
+        logger.info("Configured repository cache with maxSize={}, ttlSeconds={}", maxSize, ttlSeconds);
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    @Bean
+    public Cache<String, CachedSearchResponse> searchResponseCache() {
+        logger.info("Configured search response cache with maxSize={}", etagCacheMaxSize);
+        return Caffeine.newBuilder()
+                .maximumSize(etagCacheMaxSize)
+                .build();
+    }
+
+    @Bean
+    public Cache<RepositoryQuery, RepositoryResult> lastGoodResultCache() {
+        logger.info("Configured last good result cache with maxSize={}", staleCacheMaxSize);
+        return Caffeine.newBuilder()
+                .maximumSize(staleCacheMaxSize)
+                .build();
+    }
+
+    @Bean
+    public Cache<String, ResultSnapshot> resultSnapshotCache() {
+        logger.info("Configured result snapshot cache with maxRepositories={}, ttlSeconds={}",
+                maxSnapshotRepositories, snapshotTtlSeconds);
+        // snapshots hold up to a thousand repositories each, so bound the repositories held rather than the snapshots
+        return Caffeine.newBuilder()
+                .maximumWeight(maxSnapshotRepositories)
+                .weigher((String id, ResultSnapshot snapshot) -> snapshot.repositories().size() + 1)
+                .expireAfterWrite(Duration.ofSeconds(snapshotTtlSeconds))
+                .build();
+    }
+
+    @Bean
+    public Cache<RepositoryQuery, CachedResponseBody> responseBodyCache() {
+        logger.info("Configured response body cache with maxBytes={}, ttlSeconds={}", responseCacheMaxBytes, ttlSeconds);
+        return Caffeine.newBuilder()
+                .maximumWeight(responseCacheMaxBytes)
+                .weigher((RepositoryQuery query, CachedResponseBody body) -> body.gzip().length)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,13 @@
+package com.githubpopularity.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled background jobs such as the hot query refresher and the synced ranking refresh.
+ * Each job is switched off by its own property, not here.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
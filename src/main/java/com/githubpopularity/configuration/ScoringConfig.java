@@ -1,11 +1,21 @@
 package com.githubpopularity.configuration;
 
+import com.githubpopularity.metrics.PopularityMetrics;
+import com.githubpopularity.service.CompositeScoringStrategy;
+import com.githubpopularity.service.FormulaScoringStrategy;
+import com.githubpopularity.service.LanguageDistribution;
+import com.githubpopularity.service.PercentileRankStrategy;
 import com.githubpopularity.service.PopularityScoringStrategy;
+import com.githubpopularity.service.ScoringFormula;
 import com.githubpopularity.service.StaticThresholdStrategy;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class ScoringConfig {
 
@@ -18,8 +28,51 @@ public class ScoringConfig {
     @Value("${popularity.static.recency-decay-days:3}")
     private int recencyDecayDays;
 
+    @Value("${popularity.scoring.parallel-threshold:8192}")
+    private int parallelThreshold;
+
+    @Value("${popularity.scoring.strategy:static}")
+    private String strategy;
+
+    @Value("${popularity.formula.base:(min(1.0, stars / 50000) * 0.6 + min(1.0, forks / 10000) * 0.3) * 100}")
+    private String formulaBase;
+
+    @Value("${popularity.formula.recency:exp(-ageDays / 3) * 10}")
+    private String formulaRecency;
+
+    @Value("${popularity.formula.max-recency:10}")
+    private double formulaMaxRecency;
+
+    @Value("${popularity.scoring.variants:static:1}")
+    private List<String> variants;
+
     @Bean
-    public PopularityScoringStrategy popularityScoringStrategy() {
-        return new StaticThresholdStrategy(maxStars, maxForks, recencyDecayDays);
+    public PopularityScoringStrategy popularityScoringStrategy(ObjectProvider<LanguageDistribution> languageDistribution,
+                                                               PopularityMetrics metrics) {
+        if (!"composite".equals(strategy)) {
+            return create(strategy, languageDistribution);
+        }
+        List<CompositeScoringStrategy.Variant> composite = new ArrayList<>();
+        for (String variant : variants) {
+            String[] parts = variant.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(
+                        "popularity.scoring.variants entries must be name:weight, got '" + variant + "'");
+            }
+            composite.add(new CompositeScoringStrategy.Variant(
+                    parts[0], create(parts[0], languageDistribution), Double.parseDouble(parts[1])));
+        }
+        return new CompositeScoringStrategy(composite, metrics);
+    }
+
+    private PopularityScoringStrategy create(String name, ObjectProvider<LanguageDistribution> languageDistribution) {
+        return switch (name) {
+            case "static" -> new StaticThresholdStrategy(maxStars, maxForks, recencyDecayDays, parallelThreshold);
+            case "percentile" -> new PercentileRankStrategy(languageDistribution.getObject(), recencyDecayDays);
+            case "formula" -> new FormulaScoringStrategy(
+                    ScoringFormula.compile(formulaBase, formulaRecency, formulaMaxRecency));
+            default -> throw new IllegalArgumentException("Scoring strategy must be 'static', 'percentile', "
+                    + "'formula' or, for popularity.scoring.strategy only, 'composite'; got '" + name + "'");
+        };
     }
 }
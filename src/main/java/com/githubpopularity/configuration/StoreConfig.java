@@ -0,0 +1,46 @@
+package com.githubpopularity.configuration;
+
+import com.githubpopularity.store.MappedFileSnapshotStore;
+import com.githubpopularity.store.SnapshotStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration for the on-disk snapshot store of fetched repositories.
+ * <p>
+ * When {@code popularity.store.enabled} is false a store that keeps nothing is used, so the rest of the
+ * application does not need to know whether persistence is on. The same applies when the file is already
+ * locked by another instance.
+ */
+@Configuration
+public class StoreConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoreConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public SnapshotStore snapshotStore(
+            @Value("${popularity.store.enabled:true}") boolean enabled,
+            @Value("${popularity.store.path:data/repository-snapshots.bin}") String path,
+            @Value("${popularity.store.batch-size:64}") int batchSize,
+            @Value("${popularity.store.queue-capacity:10000}") int queueCapacity,
+            @Value("${popularity.store.compact-threshold-mb:64}") long compactThresholdMb) {
+        if (!enabled) {
+            logger.info("Snapshot store disabled");
+            return SnapshotStore.disabled();
+        }
+        logger.info("Configured snapshot store at {} with batchSize={}, queueCapacity={}, compactThresholdMb={}",
+                path, batchSize, queueCapacity, compactThresholdMb);
+        try {
+            return new MappedFileSnapshotStore(Path.of(path), batchSize, queueCapacity,
+                    compactThresholdMb * 1024 * 1024);
+        } catch (IllegalStateException e) {
+            logger.warn("{}; continuing without persistence", e.getMessage());
+            return SnapshotStore.disabled();
+        }
+    }
+}
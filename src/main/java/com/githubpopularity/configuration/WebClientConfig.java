@@ -1,15 +1,22 @@
 package com.githubpopularity.configuration;
 
+import com.githubpopularity.client.CircuitBreaker;
+import com.githubpopularity.client.RateLimitScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.time.Duration;
+import java.util.List;
+
 /**
  * Configuration for WebClient used to communicate with the GitHub API.
+ * <p>
+ * Search responses are decoded as a stream of buffers, so no in-memory aggregation limit is configured
+ * beyond the codec defaults used for error bodies.
  */
 @Configuration
 public class WebClientConfig {
@@ -21,15 +28,37 @@ public class WebClientConfig {
             WebClient.Builder webClientBuilder,
             @Value("${github.api.base-url}") String githubApiBaseUrl) {
 
-        ExchangeStrategies strategies = ExchangeStrategies.builder()
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(2 * 1024 * 1024)) // 2MB buffer
-                .build();
-
         logger.info("Configured WebClient bean for GitHub API with base URL: {}", githubApiBaseUrl);
 
         return webClientBuilder
                 .baseUrl(githubApiBaseUrl)
-                .exchangeStrategies(strategies)
                 .build();
     }
+
+    @Bean
+    public RateLimitScheduler rateLimitScheduler(
+            @Value("${github.api.tokens:}") List<String> tokens,
+            @Value("${github.rate-limit.burst:5}") int burst,
+            @Value("${github.rate-limit.interactive-deadline-ms:2000}") long interactiveDeadlineMs,
+            @Value("${github.rate-limit.background-deadline-ms:60000}") long backgroundDeadlineMs) {
+        List<String> credentials = tokens.stream().map(String::trim).filter(token -> !token.isEmpty()).toList();
+        logger.info("Configured GitHub rate limit scheduler with {} token(s), interactiveDeadlineMs={}, backgroundDeadlineMs={}",
+                credentials.size(), interactiveDeadlineMs, backgroundDeadlineMs);
+        return new RateLimitScheduler(credentials, burst, Duration.ofMillis(interactiveDeadlineMs),
+                Duration.ofMillis(backgroundDeadlineMs));
+    }
+
+    @Bean
+    public CircuitBreaker githubCircuitBreaker(
+            @Value("${github.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${github.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${github.circuit-breaker.failure-rate-threshold:50}") double failureRateThreshold,
+            @Value("${github.circuit-breaker.slow-call-ms:5000}") long slowCallMs,
+            @Value("${github.circuit-breaker.slow-call-rate-threshold:80}") double slowCallRateThreshold,
+            @Value("${github.circuit-breaker.open-duration-ms:30000}") long openDurationMs) {
+        logger.info("Configured GitHub circuit breaker with windowSize={}, failureRateThreshold={}%, slowCallMs={}, openDurationMs={}",
+                windowSize, failureRateThreshold, slowCallMs, openDurationMs);
+        return new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold, Duration.ofMillis(slowCallMs),
+                slowCallRateThreshold, Duration.ofMillis(openDurationMs));
+    }
 }
@@ -0,0 +1,49 @@
+package com.githubpopularity.controller;
+
+import com.githubpopularity.model.BatchQueryRequest;
+import com.githubpopularity.model.BatchQueryResult;
+import com.githubpopularity.service.BatchQueryService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * REST controller for running several popularity queries in one round trip.
+ */
+@RestController
+@RequestMapping("/api/repositories")
+@Validated
+public class BatchController {
+
+    static final int MAX_QUERIES = 50;
+
+    private final BatchQueryService batchQueryService;
+
+    public BatchController(BatchQueryService batchQueryService) {
+        this.batchQueryService = batchQueryService;
+    }
+
+    /**
+     * Fetches and scores repositories for every query in the batch. Identical queries are executed once.
+     *
+     * @param queries queries to run (1 to 50)
+     * @return Mono of ResponseEntity containing one result per query in request order; failed queries carry
+     *         their own status and error message while the response itself is 200
+     */
+    @PostMapping("/popularity/batch")
+    public Mono<ResponseEntity<List<BatchQueryResult>>> getPopularRepositoriesBatch(
+            @RequestBody @NotEmpty @Size(max = MAX_QUERIES) List<@Valid BatchQueryRequest> queries) {
+
+        return batchQueryService.execute(queries.stream().map(BatchQueryRequest::toQuery).toList())
+                .map(ResponseEntity::ok);
+    }
+}
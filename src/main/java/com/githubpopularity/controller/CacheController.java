@@ -0,0 +1,33 @@
+package com.githubpopularity.controller;
+
+import com.githubpopularity.model.CacheStatistics;
+import com.githubpopularity.service.GithubRepositoryService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller exposing statistics of the repository cache.
+ * Available in both blocking and reactive API modes, as both share the same cache.
+ */
+@RestController
+@RequestMapping("/api/repositories/cache")
+public class CacheController {
+
+    private final GithubRepositoryService githubService;
+
+    public CacheController(GithubRepositoryService githubService) {
+        this.githubService = githubService;
+    }
+
+    /**
+     * Returns the hit, miss and eviction counters of the repository cache.
+     *
+     * @return ResponseEntity containing the cache statistics
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<CacheStatistics> getCacheStatistics() {
+        return ResponseEntity.ok(githubService.getCacheStatistics());
+    }
+}
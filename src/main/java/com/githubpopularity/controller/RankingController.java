@@ -0,0 +1,137 @@
+package com.githubpopularity.controller;
+
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.service.DeltaSyncService;
+import com.githubpopularity.service.TopKRankingService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * REST controller for ranking repositories by popularity score across many GitHub result pages.
+ */
+@RestController
+@RequestMapping("/api/repositories")
+@Validated
+public class RankingController {
+
+    private final TopKRankingService rankingService;
+    private final DeltaSyncService deltaSyncService;
+
+    public RankingController(TopKRankingService rankingService, DeltaSyncService deltaSyncService) {
+        this.rankingService = rankingService;
+        this.deltaSyncService = deltaSyncService;
+    }
+
+    /**
+     * Returns the K most popular repositories across the first {@code pages} GitHub result pages.
+     *
+     * @param language      programming language filter (required)
+     * @param createdAfter  fetch repositories created after this date (YYYY-MM-DD, required)
+     * @param k             number of repositories to return (default: 10)
+     * @param pages         number of GitHub result pages to scan (default: 10)
+     * @return Mono of ResponseEntity containing the ranked repositories or no content if empty
+     */
+    @GetMapping("/popularity/top")
+    public Mono<ResponseEntity<List<GithubRepository>>> getTopRepositories(
+            @RequestParam @NotBlank String language,
+            @RequestParam @NotBlank @Pattern(
+                    regexp = "^\\d{4}-\\d{2}-\\d{2}$",
+                    message = "createdAfter must be in the format YYYY-MM-DD"
+            ) String createdAfter,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(1000) int k,
+            @RequestParam(defaultValue = "10") @Min(1) int pages) {
+
+        return rankingService.rankTopK(language, createdAfter, k, pages)
+                .map(ranked -> ranked.isEmpty()
+                        ? ResponseEntity.noContent().<List<GithubRepository>>build()
+                        : ResponseEntity.ok(ranked));
+    }
+
+    /**
+     * Crawls every repository of the language, splitting the creation range to get past GitHub's
+     * 1,000-result search cap, and returns the K most popular ones.
+     *
+     * @param language      programming language filter (required)
+     * @param createdAfter  fetch repositories created after this date (YYYY-MM-DD, required)
+     * @param k             number of repositories to return (default: 10)
+     * @return Mono of ResponseEntity containing the ranked repositories or no content if empty
+     */
+    @GetMapping("/popularity/crawl")
+    public Mono<ResponseEntity<List<GithubRepository>>> getCrawlRanking(
+            @RequestParam @NotBlank String language,
+            @RequestParam @NotBlank @Pattern(
+                    regexp = "^\\d{4}-\\d{2}-\\d{2}$",
+                    message = "createdAfter must be in the format YYYY-MM-DD"
+            ) String createdAfter,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(1000) int k) {
+
+        return rankingService.rankCrawl(language, createdAfter, k)
+                .map(ranked -> ranked.isEmpty()
+                        ? ResponseEntity.noContent().<List<GithubRepository>>build()
+                        : ResponseEntity.ok(ranked));
+    }
+
+    /**
+     * Returns the K most popular repositories of a ranking kept up to date by delta syncs. The first request
+     * for a language crawls it fully; later requests only fetch repositories changed since the previous sync.
+     *
+     * @param language      programming language filter (required)
+     * @param createdAfter  fetch repositories created after this date (YYYY-MM-DD, required)
+     * @param k             number of repositories to return (default: 10)
+     * @return Mono of ResponseEntity containing the ranked repositories or no content if empty
+     */
+    @GetMapping("/popularity/synced")
+    public Mono<ResponseEntity<List<GithubRepository>>> getSyncedRanking(
+            @RequestParam @NotBlank String language,
+            @RequestParam @NotBlank @Pattern(
+                    regexp = "^\\d{4}-\\d{2}-\\d{2}$",
+                    message = "createdAfter must be in the format YYYY-MM-DD"
+            ) String createdAfter,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(1000) int k) {
+
+        return deltaSyncService.rankSynced(language, createdAfter, k)
+                .map(ranked -> ranked.isEmpty()
+                        ? ResponseEntity.noContent().<List<GithubRepository>>build()
+                        : ResponseEntity.ok(ranked));
+    }
+
+    /**
+     * Streams scored repositories as newline-delimited JSON or server-sent events, picked by the
+     * {@code Accept} header. Repositories are written as their page arrives, unranked, and the next pages are
+     * only fetched as fast as the client reads, so memory stays flat regardless of the result size.
+     *
+     * @param language      programming language filter (required)
+     * @param createdAfter  fetch repositories created after this date (YYYY-MM-DD, required)
+     * @param pages         number of GitHub result pages to stream (default: 10); ignored for a crawl
+     * @param crawl         stream every repository of the language instead of the first pages (default: false)
+     * @return Flux of scored repositories
+     */
+    @GetMapping(value = "/popularity/stream",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<GithubRepository> streamRepositories(
+            @RequestParam @NotBlank String language,
+            @RequestParam @NotBlank @Pattern(
+                    regexp = "^\\d{4}-\\d{2}-\\d{2}$",
+                    message = "createdAfter must be in the format YYYY-MM-DD"
+            ) String createdAfter,
+            @RequestParam(defaultValue = "10") @Min(1) int pages,
+            @RequestParam(defaultValue = "false") boolean crawl) {
+
+        return crawl
+                ? rankingService.streamCrawl(language, createdAfter)
+                : rankingService.streamPages(language, createdAfter, pages);
+    }
+}
@@ -0,0 +1,79 @@
+package com.githubpopularity.controller;
+
+import com.githubpopularity.metrics.StageTimings;
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.service.PopularityScoringService;
+import com.githubpopularity.service.ReactiveGithubRepositoryService;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking REST controller for fetching and scoring GitHub repositories.
+ * <p>
+ * Active when {@code popularity.api.mode=reactive}. Returns a {@link Mono}, so the request thread
+ * is released while the GitHub call is in flight and the response is written when it completes.
+ */
+@RestController
+@RequestMapping("/api/repositories")
+@Validated
+@ConditionalOnProperty(name = "popularity.api.mode", havingValue = "reactive")
+public class ReactiveRepositoryController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveRepositoryController.class);
+    private final ReactiveGithubRepositoryService githubService;
+    private final PopularityScoringService scoringService;
+
+    public ReactiveRepositoryController(ReactiveGithubRepositoryService githubService,
+                                        PopularityScoringService scoringService) {
+        this.githubService = githubService;
+        this.scoringService = scoringService;
+    }
+
+    /**
+     * Fetches repositories from GitHub, scores them using the popularity strategy,
+     * and returns the results without blocking the request thread.
+     *
+     * @param language      programming language filter (required)
+     * @param createdAfter  fetch repositories created after this date (YYYY-MM-DD, required)
+     * @param perPage       number of results per page (default: 10)
+     * @param page          page number (default: 1)
+     * @return Mono of ResponseEntity containing the list of scored repositories or no content if empty,
+     *         with a {@code Warning: 110} header if GitHub was unavailable and a stale result was served
+     */
+    @GetMapping("/popularity")
+    public Mono<ResponseEntity<List<GithubRepository>>> getPopularRepositories(
+            @RequestParam @NotBlank String language,
+            @RequestParam @NotBlank @Pattern(
+                    regexp = "^\\d{4}-\\d{2}-\\d{2}$",
+                    message = "createdAfter must be in the format YYYY-MM-DD"
+            ) String createdAfter,
+            @RequestParam(defaultValue = "10") @Min(1) int perPage,
+            @RequestParam(defaultValue = "1") @Min(1) int page) {
+
+        logger.info("Fetching repositories (reactive) for language={}, createdAfter={}, perPage={}, page={}",
+                language, createdAfter, perPage, page);
+
+        StageTimings timings = StageTimings.current();
+        return githubService.fetchResult(language, createdAfter, perPage, page)
+                .map(result -> {
+                    List<GithubRepository> scored = timings.time(StageTimings.SCORE,
+                            () -> scoringService.scoreRepositories(result.repositories()));
+                    logger.info("Repositories found: {}", scored.size());
+                    return RepositoryController.toResponse(scored, result.stale());
+                })
+                .contextWrite(context -> context.put(StageTimings.class, timings));
+    }
+}
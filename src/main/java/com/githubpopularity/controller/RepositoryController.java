@@ -1,11 +1,15 @@
 package com.githubpopularity.controller;
 
+import com.githubpopularity.metrics.StageTimings;
 import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryResult;
 import com.githubpopularity.service.GithubRepositoryService;
 import com.githubpopularity.service.PopularityScoringService;
 import jakarta.validation.constraints.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,13 +24,18 @@ import java.util.List;
  * REST controller for fetching and scoring GitHub repositories.
  * Provides an endpoint to retrieve popular repositories based on language,
  * creation date, and paging parameters.
+ * <p>
+ * Active in the default blocking mode ({@code popularity.api.mode=blocking}).
+ * See {@link ReactiveRepositoryController} for the non-blocking variant.
  */
 @RestController
 @RequestMapping("/api/repositories")
 @Validated
+@ConditionalOnProperty(name = "popularity.api.mode", havingValue = "blocking", matchIfMissing = true)
 public class RepositoryController {
 
     private static final Logger logger = LoggerFactory.getLogger(RepositoryController.class);
+    static final String STALE_WARNING = "110 - \"Response is Stale\"";
     private final GithubRepositoryService githubService;
     private final PopularityScoringService scoringService;
 
@@ -43,7 +52,8 @@ public class RepositoryController {
      * @param createdAfter  fetch repositories created after this date (YYYY-MM-DD, required)
      * @param perPage       number of results per page (default: 10)
      * @param page          page number (default: 1)
-     * @return ResponseEntity containing the list of scored repositories or no content if empty
+     * @return ResponseEntity containing the list of scored repositories or no content if empty,
+     *         with a {@code Warning: 110} header if GitHub was unavailable and a stale result was served
      */
     @GetMapping("/popularity")
     public ResponseEntity<List<GithubRepository>> getPopularRepositories(
@@ -58,11 +68,25 @@ public class RepositoryController {
         logger.info("Fetching repositories for language={}, createdAfter={}, perPage={}, page={}",
                 language, createdAfter, perPage, page);
 
-        List<GithubRepository> repositories = githubService.fetchRepositories(language, createdAfter, perPage, page);
-        List<GithubRepository> scored = scoringService.scoreRepositories(repositories);
+        RepositoryResult result = githubService.fetchResult(language, createdAfter, perPage, page);
+        List<GithubRepository> scored = StageTimings.current()
+                .time(StageTimings.SCORE, () -> scoringService.scoreRepositories(result.repositories()));
 
         logger.info("Repositories found: {}", scored.size());
 
-        return scored.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(scored);
+        return toResponse(scored, result.stale());
+    }
+
+    /**
+     * Builds the response, adding a {@code Warning: 110} header when the repositories are a stale copy.
+     */
+    static ResponseEntity<List<GithubRepository>> toResponse(List<GithubRepository> scored, boolean stale) {
+        HttpHeaders headers = new HttpHeaders();
+        if (stale) {
+            headers.set(HttpHeaders.WARNING, STALE_WARNING);
+        }
+        return scored.isEmpty()
+                ? ResponseEntity.noContent().headers(headers).build()
+                : ResponseEntity.ok().headers(headers).body(scored);
     }
 }
\ No newline at end of file
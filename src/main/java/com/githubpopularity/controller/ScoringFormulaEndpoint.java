@@ -0,0 +1,94 @@
+package com.githubpopularity.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.githubpopularity.cache.CachedResponseBody;
+import com.githubpopularity.model.RepositoryQuery;
+import com.githubpopularity.service.CompositeScoringStrategy;
+import com.githubpopularity.service.DeltaSyncService;
+import com.githubpopularity.service.FormulaScoringStrategy;
+import com.githubpopularity.service.PopularityScoringStrategy;
+import com.githubpopularity.service.ScoringFormula;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint reading and hot-reloading the scoring formula when {@code popularity.scoring.strategy=formula},
+ * or when {@code formula} is one of the composite scoring variants.
+ * <p>
+ * {@code POST /actuator/scoringformula} with {@code base}, {@code recency} and {@code maxRecency} (each optional,
+ * defaulting to the current value) compiles the new formula on the calling thread and swaps it in; requests being
+ * scored meanwhile finish with the previous formula. Cached response bodies are dropped, and when the formula
+ * computes the base scores of synced rankings, every ranking is crawled and rescored by its next sync. Invalid
+ * formulas are rejected with 400 and the current one is kept. Like every actuator endpoint, it is only reachable once listed in
+ * {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "scoringformula")
+@ConditionalOnExpression("'${popularity.scoring.strategy:static}' == 'formula' or "
+        + "('${popularity.scoring.strategy:static}' == 'composite' and '${popularity.scoring.variants:}'.contains('formula'))")
+public class ScoringFormulaEndpoint {
+
+    private final FormulaScoringStrategy strategy;
+    private final boolean ranksSyncedRankings;
+    private final DeltaSyncService deltaSyncService;
+    private final Cache<RepositoryQuery, CachedResponseBody> responseBodyCache;
+
+    public ScoringFormulaEndpoint(PopularityScoringStrategy strategy, DeltaSyncService deltaSyncService,
+                                  Cache<RepositoryQuery, CachedResponseBody> responseBodyCache) {
+        this.strategy = formulaStrategy(strategy);
+        // synced rankings are scored by the control only, see CompositeScoringStrategy
+        this.ranksSyncedRankings = strategy instanceof CompositeScoringStrategy composite
+                ? composite.variants().get(0).strategy() == this.strategy
+                : strategy == this.strategy;
+        this.deltaSyncService = deltaSyncService;
+        this.responseBodyCache = responseBodyCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> formula() {
+        return describe(strategy.formula());
+    }
+
+    @WriteOperation
+    public Map<String, Object> update(@Nullable String base, @Nullable String recency, @Nullable Double maxRecency) {
+        ScoringFormula current = strategy.formula();
+        ScoringFormula replacement;
+        try {
+            replacement = ScoringFormula.compile(
+                    base != null ? base : current.base(),
+                    recency != null ? recency : current.recency(),
+                    maxRecency != null ? maxRecency : current.maxRecency());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        strategy.update(replacement);
+        responseBodyCache.invalidateAll();
+        if (ranksSyncedRankings) {
+            deltaSyncService.requireFullResync();
+        }
+        return describe(replacement);
+    }
+
+    private static FormulaScoringStrategy formulaStrategy(PopularityScoringStrategy strategy) {
+        if (strategy instanceof CompositeScoringStrategy composite) {
+            return composite.variants().stream()
+                    .map(CompositeScoringStrategy.Variant::strategy)
+                    .filter(FormulaScoringStrategy.class::isInstance)
+                    .map(FormulaScoringStrategy.class::cast)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No formula scoring variant configured"));
+        }
+        return (FormulaScoringStrategy) strategy;
+    }
+
+    private static Map<String, Object> describe(ScoringFormula formula) {
+        return Map.of("base", formula.base(), "recency", formula.recency(), "maxRecency", formula.maxRecency());
+    }
+}
@@ -0,0 +1,78 @@
+package com.githubpopularity.controller;
+
+import com.githubpopularity.model.RepositoryPage;
+import com.githubpopularity.service.ResultSnapshotService;
+import com.githubpopularity.service.ResultSnapshotService.SnapshotPage;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller for stable, cursor-based pagination over server-side result snapshots.
+ */
+@RestController
+@RequestMapping("/api/repositories")
+@Validated
+public class SnapshotController {
+
+    private final ResultSnapshotService snapshotService;
+
+    public SnapshotController(ResultSnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    /**
+     * Ranks the repositories of a query into a snapshot and returns its first page.
+     *
+     * @param language      programming language filter (required)
+     * @param createdAfter  fetch repositories created after this date (YYYY-MM-DD, required)
+     * @param perPage       number of results per page (default: 10)
+     * @return Mono of ResponseEntity containing the first page and the cursor of the next one,
+     *         or no content if the query matched nothing
+     */
+    @GetMapping(value = "/popularity/snapshot", params = "!cursor")
+    public Mono<ResponseEntity<RepositoryPage>> getFirstPage(
+            @RequestParam @NotBlank String language,
+            @RequestParam @NotBlank @Pattern(
+                    regexp = "^\\d{4}-\\d{2}-\\d{2}$",
+                    message = "createdAfter must be in the format YYYY-MM-DD"
+            ) String createdAfter,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int perPage) {
+
+        return snapshotService.firstPage(language, createdAfter, perPage).map(SnapshotController::toResponse);
+    }
+
+    /**
+     * Returns the page of a snapshot a cursor points to, served from memory.
+     *
+     * @param cursor   cursor returned as {@code nextCursor} with the previous page
+     * @param perPage  number of results per page (default: 10)
+     * @return ResponseEntity containing the page and the cursor of the next one
+     */
+    @GetMapping(value = "/popularity/snapshot", params = "cursor")
+    public ResponseEntity<RepositoryPage> getNextPage(
+            @RequestParam @NotBlank String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int perPage) {
+
+        return toResponse(snapshotService.nextPage(cursor, perPage));
+    }
+
+    private static ResponseEntity<RepositoryPage> toResponse(SnapshotPage snapshotPage) {
+        HttpHeaders headers = new HttpHeaders();
+        if (snapshotPage.snapshot().stale()) {
+            headers.set(HttpHeaders.WARNING, RepositoryController.STALE_WARNING);
+        }
+        return snapshotPage.page().total() == 0
+                ? ResponseEntity.noContent().headers(headers).build()
+                : ResponseEntity.ok().headers(headers).body(snapshotPage.page());
+    }
+}
@@ -15,4 +15,14 @@ public class GithubApiException extends RuntimeException {
     public int getStatusCode() {
         return statusCode;
     }
+
+    /**
+     * Whether the error means GitHub is currently unable to serve us (server errors and throttling),
+     * as opposed to a problem with the request itself.
+     *
+     * @return true for 5xx, 403 and 429 status codes
+     */
+    public boolean isUpstreamUnavailable() {
+        return statusCode >= 500 || statusCode == 403 || statusCode == 429;
+    }
 }
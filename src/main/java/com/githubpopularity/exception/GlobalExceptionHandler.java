@@ -33,6 +33,17 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ApiError> handleInvalidCursor(InvalidCursorException ex, HttpServletRequest request) {
+        logger.warn("InvalidCursorException: status={}, message={}", ex.getStatusCode(), ex.getMessage());
+        return ResponseEntity.status(ex.getStatusCode()).body(new ApiError(
+                ex.getStatusCode(),
+                "Invalid Cursor",
+                request.getRequestURI(),
+                Map.of("cursor", ex.getMessage())
+        ));
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<ApiError> handleConstraintViolation(ConstraintViolationException ex, HttpServletRequest request) {
         logger.warn("ConstraintViolationException: {}", ex.getMessage());
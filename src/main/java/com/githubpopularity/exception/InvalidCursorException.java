@@ -0,0 +1,17 @@
+package com.githubpopularity.exception;
+
+/**
+ * Thrown when a pagination cursor is malformed (400) or points to a snapshot that has expired (410).
+ */
+public class InvalidCursorException extends RuntimeException {
+    private final int statusCode;
+
+    public InvalidCursorException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
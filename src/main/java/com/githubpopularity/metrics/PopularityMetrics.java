@@ -0,0 +1,128 @@
+package com.githubpopularity.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Metrics for request stages and outbound GitHub calls.
+ * <p>
+ * Stage durations are published as {@code popularity.request.stage} timers tagged with stage, language and
+ * outcome, with percentiles and a percentile histogram. The language comes from the request, so only the languages
+ * listed in {@code popularity.metrics.languages} get their own tag value; any other is tagged {@code other}, keeping
+ * the number of timers bounded. The last GitHub response status, payload size and
+ * remaining rate-limit budget are exposed as gauges. With composite scoring, the responses served by each
+ * variant and each variant's rank shift against the control are recorded under {@code popularity.scoring.variant}.
+ */
+@Component
+public class PopularityMetrics {
+
+    static final String STAGE_TIMER = "popularity.request.stage";
+    static final List<String> DEFAULT_LANGUAGES = List.of("c", "c#", "c++", "dart", "go", "html", "java",
+            "javascript", "kotlin", "php", "python", "ruby", "rust", "scala", "shell", "swift", "typescript");
+
+    private final MeterRegistry registry;
+    private final Set<String> languages;
+    private final AtomicLong lastStatus = new AtomicLong();
+    private final AtomicLong lastPayloadBytes = new AtomicLong();
+    private final AtomicLong rateLimitRemaining = new AtomicLong(-1);
+
+    public PopularityMetrics(MeterRegistry registry) {
+        this(registry, DEFAULT_LANGUAGES);
+    }
+
+    @Autowired
+    public PopularityMetrics(MeterRegistry registry,
+                             @Value("${popularity.metrics.languages:}") Collection<String> languages) {
+        this.registry = registry;
+        this.languages = (languages.isEmpty() ? DEFAULT_LANGUAGES : languages).stream()
+                .map(language -> language.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        Gauge.builder("github.api.response.status", lastStatus, AtomicLong::get)
+                .description("HTTP status of the last GitHub API response")
+                .register(registry);
+        Gauge.builder("github.api.response.payload", lastPayloadBytes, AtomicLong::get)
+                .description("Body size of the last GitHub API response")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("github.api.rate-limit.remaining", rateLimitRemaining, AtomicLong::get)
+                .description("Remaining GitHub API requests across all credentials, -1 if unknown")
+                .register(registry);
+    }
+
+    /**
+     * Records the duration of one request stage.
+     *
+     * @param stage    stage name, see {@link StageTimings}
+     * @param language language requested, or {@code null}; tagged {@code other} unless it is a known language
+     * @param outcome  request outcome (success, client_error, server_error)
+     * @param nanos    stage duration
+     */
+    public void recordStage(String stage, String language, String outcome, long nanos) {
+        Timer.builder(STAGE_TIMER)
+                .description("Time spent per stage of a popularity request")
+                .tag("stage", stage)
+                .tag("language", languageTag(language))
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(Duration.ofNanos(nanos));
+    }
+
+    /**
+     * Counts one response scored by a scoring variant.
+     */
+    public void recordScoringVariantServed(String variant) {
+        Counter.builder("popularity.scoring.variant.served")
+                .description("Responses scored by each composite scoring variant")
+                .tag("variant", variant)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Records how far a variant's ranking of one response is from the control's.
+     *
+     * @param variant   scoring variant
+     * @param meanShift mean absolute difference between the variant's and the control's rank of each repository
+     */
+    public void recordScoringVariantRankShift(String variant, double meanShift) {
+        DistributionSummary.builder("popularity.scoring.variant.rank-shift")
+                .description("Mean absolute rank difference of a scoring variant against the control, per response")
+                .tag("variant", variant)
+                .publishPercentiles(0.5, 0.95)
+                .register(registry)
+                .record(meanShift);
+    }
+
+    private String languageTag(String language) {
+        if (language == null || language.isBlank()) {
+            return "none";
+        }
+        String normalized = language.trim().toLowerCase(Locale.ROOT);
+        return languages.contains(normalized) ? normalized : "other";
+    }
+
+    public void recordGithubStatus(int status, int rateLimitRemaining) {
+        lastStatus.set(status);
+        this.rateLimitRemaining.set(rateLimitRemaining);
+    }
+
+    public void recordGithubPayload(long bytes) {
+        lastPayloadBytes.set(bytes);
+    }
+}
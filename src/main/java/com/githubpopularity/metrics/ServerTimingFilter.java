@@ -0,0 +1,86 @@
+package com.githubpopularity.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Times popularity requests stage by stage and reports the breakdown in a {@code Server-Timing} header.
+ * <p>
+ * The response body is buffered so the header can include serialization time, which is only known once the
+ * body has been written. For async (reactive mode) requests the body is written during the async dispatch,
+ * so timings are kept in a request attribute and the header is added when that dispatch completes.
+ * Every stage is also published to {@link PopularityMetrics}. Ordered ahead of the response body cache,
+ * so cache hits are timed too.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+    static final String TIMED_PATH = "/api/repositories/popularity";
+    private static final String TIMINGS_ATTRIBUTE = StageTimings.class.getName();
+
+    private final PopularityMetrics metrics;
+
+    public ServerTimingFilter(PopularityMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !TIMED_PATH.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StageTimings timings = (StageTimings) request.getAttribute(TIMINGS_ATTRIBUTE);
+        if (timings == null) {
+            timings = new StageTimings(System.nanoTime());
+            request.setAttribute(TIMINGS_ATTRIBUTE, timings);
+        }
+        ContentCachingResponseWrapper wrapper = response instanceof ContentCachingResponseWrapper cached
+                ? cached : new ContentCachingResponseWrapper(response);
+
+        StageTimings.bind(timings);
+        try {
+            chain.doFilter(request, wrapper);
+        } finally {
+            StageTimings.unbind();
+        }
+        if (isAsyncStarted(request)) {
+            return;
+        }
+
+        timings.finish(System.nanoTime());
+        publish(timings.stages(), request.getParameter("language"), outcome(wrapper.getStatus()));
+        wrapper.setHeader(SERVER_TIMING_HEADER, timings.toServerTiming());
+        wrapper.copyBodyToResponse();
+    }
+
+    private void publish(Map<String, Long> stages, String language, String outcome) {
+        stages.forEach((stage, nanos) -> metrics.recordStage(stage, language, outcome, nanos));
+    }
+
+    private static String outcome(int status) {
+        if (status >= 500) {
+            return "server_error";
+        }
+        return status >= 400 ? "client_error" : "success";
+    }
+}
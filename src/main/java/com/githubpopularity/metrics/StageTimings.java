@@ -0,0 +1,117 @@
+package com.githubpopularity.metrics;
+
+import reactor.util.context.ContextView;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Per-request breakdown of where time was spent, keyed by stage name.
+ * <p>
+ * An instance is created by {@link ServerTimingFilter} for each request and bound to the request thread.
+ * Work that runs on other threads (WebClient callbacks) finds it in the Reactor {@link reactor.util.context.Context}
+ * under {@code StageTimings.class}. Stages recorded more than once, such as decoding of consecutive body chunks,
+ * are summed. When no request is being timed, {@link #current()} returns an instance that ignores everything.
+ */
+public class StageTimings {
+
+    public static final String GITHUB = "github";
+    public static final String DECODE = "decode";
+    public static final String SCORE = "score";
+    public static final String SERIALIZE = "serialize";
+    public static final String TOTAL = "total";
+
+    private static final StageTimings NONE = new StageTimings(0) {
+        @Override
+        public void record(String stage, long nanos) {
+        }
+
+        @Override
+        public void markSerializeStart() {
+        }
+    };
+
+    private static final ThreadLocal<StageTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos;
+    private final Map<String, Long> stages = new LinkedHashMap<>();
+    private volatile long serializeStartNanos;
+
+    public StageTimings(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * @return timings bound to the current thread, or a no-op instance
+     */
+    public static StageTimings current() {
+        StageTimings timings = CURRENT.get();
+        return timings != null ? timings : NONE;
+    }
+
+    /**
+     * @return timings stored in the Reactor context, falling back to the ones bound to the current thread
+     */
+    public static StageTimings from(ContextView context) {
+        return context.getOrDefault(StageTimings.class, current());
+    }
+
+    static void bind(StageTimings timings) {
+        CURRENT.set(timings);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    public void record(String stage, long nanos) {
+        synchronized (stages) {
+            stages.merge(stage, nanos, Long::sum);
+        }
+    }
+
+    /**
+     * Runs {@code work} and records its duration under {@code stage}.
+     */
+    public <T> T time(String stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Marks the point where the response body starts being written.
+     */
+    public void markSerializeStart() {
+        serializeStartNanos = System.nanoTime();
+    }
+
+    void finish(long endNanos) {
+        if (serializeStartNanos != 0) {
+            record(SERIALIZE, endNanos - serializeStartNanos);
+        }
+        record(TOTAL, endNanos - startNanos);
+    }
+
+    Map<String, Long> stages() {
+        synchronized (stages) {
+            return new LinkedHashMap<>(stages);
+        }
+    }
+
+    /**
+     * @return value for the {@code Server-Timing} header, durations in milliseconds
+     */
+    String toServerTiming() {
+        StringJoiner header = new StringJoiner(", ");
+        stages().forEach((stage, nanos) ->
+                header.add(String.format(Locale.ROOT, "%s;dur=%.2f", stage, nanos / 1_000_000.0)));
+        return header.toString();
+    }
+}
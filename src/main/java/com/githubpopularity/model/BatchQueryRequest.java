@@ -0,0 +1,26 @@
+package com.githubpopularity.model;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+/**
+ * One query of a batch request. Omitted paging parameters take the same defaults as the single-query endpoint.
+ *
+ * @param language     programming language filter
+ * @param createdAfter earliest creation date (YYYY-MM-DD)
+ * @param perPage      number of results per page (default: 10)
+ * @param page         page number (default: 1)
+ */
+public record BatchQueryRequest(@NotBlank String language,
+                                @NotBlank @Pattern(
+                                        regexp = "^\\d{4}-\\d{2}-\\d{2}$",
+                                        message = "createdAfter must be in the format YYYY-MM-DD"
+                                ) String createdAfter,
+                                @Min(1) Integer perPage,
+                                @Min(1) Integer page) {
+
+    public RepositoryQuery toQuery() {
+        return new RepositoryQuery(language, createdAfter, perPage == null ? 10 : perPage, page == null ? 1 : page);
+    }
+}
@@ -0,0 +1,24 @@
+package com.githubpopularity.model;
+
+import java.util.List;
+
+/**
+ * Outcome of one query of a batch request: either scored repositories or an error.
+ *
+ * @param query        the query, with defaults applied
+ * @param status       HTTP status the query would have had on its own
+ * @param repositories scored repositories; empty if the query failed
+ * @param stale        true if GitHub was unavailable and the last good result was served
+ * @param error        error message if the query failed, otherwise null
+ */
+public record BatchQueryResult(RepositoryQuery query, int status, List<GithubRepository> repositories,
+                               boolean stale, String error) {
+
+    public static BatchQueryResult success(RepositoryQuery query, List<GithubRepository> repositories, boolean stale) {
+        return new BatchQueryResult(query, 200, repositories, stale, null);
+    }
+
+    public static BatchQueryResult failure(RepositoryQuery query, int status, String error) {
+        return new BatchQueryResult(query, status, List.of(), false, error);
+    }
+}
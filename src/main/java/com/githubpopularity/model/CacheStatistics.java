@@ -0,0 +1,17 @@
+package com.githubpopularity.model;
+
+/**
+ * Snapshot of the repository cache counters.
+ *
+ * @param hitCount      number of lookups served from the cache
+ * @param missCount     number of lookups that required a GitHub call
+ * @param evictionCount number of entries removed because of size or expiry
+ * @param hitRate       ratio of hits to total lookups
+ * @param size          approximate number of entries currently cached
+ */
+public record CacheStatistics(long hitCount,
+                              long missCount,
+                              long evictionCount,
+                              double hitRate,
+                              long size) {
+}
@@ -0,0 +1,13 @@
+package com.githubpopularity.model;
+
+import java.util.List;
+
+/**
+ * One page of a {@link ResultSnapshot}.
+ *
+ * @param items      repositories on this page, ordered by descending popularity score
+ * @param nextCursor cursor for the following page, or null on the last page
+ * @param total      number of repositories in the snapshot
+ */
+public record RepositoryPage(List<GithubRepository> items, String nextCursor, int total) {
+}
@@ -0,0 +1,22 @@
+package com.githubpopularity.model;
+
+/**
+ * Identifies a single repository search request.
+ * Used as the key for cached search results.
+ *
+ * @param language     programming language filter
+ * @param createdAfter earliest creation date (YYYY-MM-DD)
+ * @param perPage      number of results per page
+ * @param page         page number (1-based)
+ */
+public record RepositoryQuery(String language, String createdAfter, int perPage, int page) {
+
+    /**
+     * Builds the GitHub search query string for this request.
+     *
+     * @return search query, e.g. "language:Java created:>2023-01-01"
+     */
+    public String toSearchQuery() {
+        return String.format("language:%s created:>%s", language, createdAfter);
+    }
+}
@@ -0,0 +1,21 @@
+package com.githubpopularity.model;
+
+import java.util.List;
+
+/**
+ * Repositories returned for a query, with a flag telling whether they are a stale copy
+ * served because GitHub could not be reached.
+ *
+ * @param repositories repositories for the query
+ * @param stale        true if this is the last good result rather than a fresh one
+ */
+public record RepositoryResult(List<GithubRepository> repositories, boolean stale) {
+
+    public static RepositoryResult fresh(List<GithubRepository> repositories) {
+        return new RepositoryResult(repositories, false);
+    }
+
+    public static RepositoryResult stale(List<GithubRepository> repositories) {
+        return new RepositoryResult(repositories, true);
+    }
+}
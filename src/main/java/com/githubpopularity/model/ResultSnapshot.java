@@ -0,0 +1,15 @@
+package com.githubpopularity.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Ranked, scored result of a query held server-side so it can be paged through with cursors.
+ *
+ * @param id           opaque snapshot identifier
+ * @param repositories scored repositories ordered by descending popularity score
+ * @param stale        true if the snapshot was built from a stale result
+ * @param createdAt    time the snapshot was materialized
+ */
+public record ResultSnapshot(String id, List<GithubRepository> repositories, boolean stale, Instant createdAt) {
+}
@@ -0,0 +1,65 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.exception.GithubApiException;
+import com.githubpopularity.model.BatchQueryResult;
+import com.githubpopularity.model.RepositoryQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Service running many repository queries in one request.
+ * <p>
+ * Identical queries are executed once. Distinct queries run concurrently, bounded by
+ * {@code popularity.batch.concurrency}, through the shared repository cache. A failing query becomes
+ * an error entry in the result instead of failing the whole batch.
+ */
+@Service
+public class BatchQueryService {
+    private static final Logger logger = LoggerFactory.getLogger(BatchQueryService.class);
+
+    private final ReactiveGithubRepositoryService githubService;
+    private final PopularityScoringService scoringService;
+    private final int concurrency;
+
+    public BatchQueryService(ReactiveGithubRepositoryService githubService,
+                             PopularityScoringService scoringService,
+                             @Value("${popularity.batch.concurrency:4}") int concurrency) {
+        this.githubService = githubService;
+        this.scoringService = scoringService;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Executes a batch of queries.
+     *
+     * @param queries queries to run, possibly with duplicates
+     * @return Mono emitting one result per query, in request order
+     */
+    public Mono<List<BatchQueryResult>> execute(List<RepositoryQuery> queries) {
+        List<RepositoryQuery> distinct = List.copyOf(new LinkedHashSet<>(queries));
+        logger.info("Executing batch of {} queries ({} distinct)", queries.size(), distinct.size());
+
+        return Flux.fromIterable(distinct)
+                .flatMap(this::execute, concurrency)
+                .collectMap(BatchQueryResult::query)
+                .map(results -> queries.stream().map(results::get).toList());
+    }
+
+    private Mono<BatchQueryResult> execute(RepositoryQuery query) {
+        return githubService.fetchResult(query.language(), query.createdAfter(), query.perPage(), query.page())
+                .map(result -> BatchQueryResult.success(query,
+                        scoringService.scoreRepositories(result.repositories()), result.stale()))
+                .onErrorResume(e -> {
+                    int status = e instanceof GithubApiException apiException ? apiException.getStatusCode() : 500;
+                    logger.warn("Batch query='{}' failed (status={}): {}", query.toSearchQuery(), status, e.getMessage());
+                    return Mono.just(BatchQueryResult.failure(query, status, e.getMessage()));
+                });
+    }
+}
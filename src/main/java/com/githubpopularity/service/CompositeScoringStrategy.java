@@ -0,0 +1,204 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.metrics.PopularityMetrics;
+import com.githubpopularity.model.GithubRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Scoring strategy running several variants over the same fetched repositories, for A/B evaluation.
+ * <p>
+ * Each response ({@link #calculateResponseScores(List)}) is scored by every variant in one pass over a shared
+ * {@link RepositoryBatch}, so repository fields are read and ages computed once and nothing is fetched twice.
+ * One variant, drawn according to the configured weights, answers the response. The others are compared against
+ * the control (the first variant): their mean rank shift is recorded in {@link PopularityMetrics}, and each
+ * repository's score and rank under every variant is logged at debug level. A variant with weight 0 is scored and
+ * compared but never served.
+ * <p>
+ * Everything else, such as top-K rankings built page by page and synced rankings, uses the control only, so a
+ * single ranking never mixes scores of different variants.
+ */
+public class CompositeScoringStrategy implements PopularityScoringStrategy {
+    private static final Logger logger = LoggerFactory.getLogger(CompositeScoringStrategy.class);
+
+    /**
+     * @param name     variant name used in metrics and logs
+     * @param strategy strategy scoring the variant
+     * @param weight   relative share of responses answered by the variant
+     */
+    public record Variant(String name, PopularityScoringStrategy strategy, double weight) {
+    }
+
+    private final List<Variant> variants;
+    private final PopularityScoringStrategy control;
+    private final double[] cumulativeWeights;
+    private final PopularityMetrics metrics;
+    private final DoubleSupplier random;
+
+    public CompositeScoringStrategy(List<Variant> variants, PopularityMetrics metrics) {
+        this(variants, metrics, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    CompositeScoringStrategy(List<Variant> variants, PopularityMetrics metrics, DoubleSupplier random) {
+        if (variants.isEmpty()) {
+            throw new IllegalArgumentException("At least one scoring variant is required");
+        }
+        Set<String> names = new HashSet<>();
+        this.cumulativeWeights = new double[variants.size()];
+        double total = 0;
+        for (int i = 0; i < variants.size(); i++) {
+            Variant variant = variants.get(i);
+            if (!names.add(variant.name())) {
+                throw new IllegalArgumentException("Duplicate scoring variant '" + variant.name() + "'");
+            }
+            if (variant.weight() < 0 || Double.isNaN(variant.weight())) {
+                throw new IllegalArgumentException("Weight of scoring variant '" + variant.name() + "' is negative");
+            }
+            total += variant.weight();
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one scoring variant must have a positive weight");
+        }
+        this.variants = List.copyOf(variants);
+        this.control = variants.get(0).strategy();
+        this.metrics = metrics;
+        this.random = random;
+    }
+
+    public List<Variant> variants() {
+        return variants;
+    }
+
+    @Override
+    public GithubRepository calculateScore(GithubRepository repository) {
+        return control.calculateScore(repository);
+    }
+
+    @Override
+    public double baseScore(GithubRepository repository) {
+        return control.baseScore(repository);
+    }
+
+    /**
+     * @return the control's strategy for the run, since runs are only scored by the control
+     */
+    @Override
+    public PopularityScoringStrategy forRun() {
+        return control.forRun();
+    }
+
+    @Override
+    public double recencyScore(Instant lastUpdated, Instant now) {
+        return control.recencyScore(lastUpdated, now);
+    }
+
+    @Override
+    public double maxRecencyScore() {
+        return control.maxRecencyScore();
+    }
+
+    @Override
+    public List<GithubRepository> calculateScores(List<GithubRepository> repos) {
+        return control.calculateScores(repos);
+    }
+
+    @Override
+    public double[] calculateScores(RepositoryBatch batch) {
+        return control.calculateScores(batch);
+    }
+
+    /**
+     * Scores the response with every variant and returns the scores of the variant drawn to answer it.
+     */
+    @Override
+    public List<GithubRepository> calculateResponseScores(List<GithubRepository> repos) {
+        RepositoryBatch batch = RepositoryBatch.of(repos);
+        double[][] scores = new double[variants.size()][];
+        for (int v = 0; v < scores.length; v++) {
+            scores[v] = variants.get(v).strategy().calculateScores(batch);
+        }
+        int served = route();
+        metrics.recordScoringVariantServed(variants.get(served).name());
+        if (variants.size() > 1 && batch.size() > 0) {
+            compare(batch, scores, served);
+        }
+        return batch.withScores(scores[served]);
+    }
+
+    int route() {
+        double draw = random.getAsDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        // only reached through rounding at the top of the range; skip trailing zero-weight variants
+        int last = cumulativeWeights.length - 1;
+        while (last > 0 && variants.get(last).weight() == 0) {
+            last--;
+        }
+        return last;
+    }
+
+    private void compare(RepositoryBatch batch, double[][] scores, int served) {
+        int[][] ranks = new int[scores.length][];
+        for (int v = 0; v < scores.length; v++) {
+            ranks[v] = ranks(scores[v]);
+        }
+        for (int v = 1; v < scores.length; v++) {
+            long shift = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                shift += Math.abs(ranks[v][i] - ranks[0][i]);
+            }
+            metrics.recordScoringVariantRankShift(variants.get(v).name(), shift / (double) batch.size());
+        }
+        if (logger.isDebugEnabled()) {
+            List<GithubRepository> repos = batch.repositories();
+            for (int i = 0; i < batch.size(); i++) {
+                StringJoiner line = new StringJoiner(", ");
+                for (int v = 0; v < scores.length; v++) {
+                    line.add(String.format("%s=%.2f (#%d)", variants.get(v).name(), scores[v][i], ranks[v][i]));
+                }
+                logger.debug("Variant scores for repository {}, served by {}: {}",
+                        repos.get(i).fullName(), variants.get(served).name(), line);
+            }
+        }
+    }
+
+    /**
+     * @return 1-based rank of each score, ties sharing the best rank
+     */
+    static int[] ranks(double[] scores) {
+        double[] sorted = scores.clone();
+        Arrays.sort(sorted);
+        int[] ranks = new int[scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            ranks[i] = scores.length - upperBound(sorted, scores[i]) + 1;
+        }
+        return ranks;
+    }
+
+    private static int upperBound(double[] sorted, double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Double.compare(sorted[mid], value) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
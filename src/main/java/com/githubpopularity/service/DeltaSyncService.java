@@ -0,0 +1,292 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.client.ReactiveGithubApiClient;
+import com.githubpopularity.client.RequestPriority;
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.store.OffHeapRepositoryStore;
+import com.githubpopularity.store.RepositoryStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Service keeping full-language rankings fresh with incremental delta syncs.
+ * <p>
+ * The first sync of a {@code (language, createdAfter)} pair crawls every repository via {@link ShardedCrawlService}.
+ * Later syncs only search for repositories with {@code pushed:>} (or {@code updated:>}, see
+ * {@code popularity.sync.qualifier}) the previous sync time, minus a small overlap for clock skew and indexing lag,
+ * and merge them into the {@link SyncedRanking}, re-scoring only the repositories that changed. Rankings hold base
+ * scores and apply recency when read, so they need no rescoring as they age. Each sync scores against
+ * {@link PopularityScoringStrategy#forRun()} taken when it starts. A delta that
+ * fills all reachable search pages could be missing changes, so it falls back to a full crawl, as does a ranking
+ * whose last crawl is older than {@code popularity.sync.full-resync-hours} (repositories that were deleted or
+ * renamed never show up in a delta).
+ * <p>
+ * Known rankings are synced in the background every {@code popularity.sync.interval-ms}; requests are served from
+ * the stored ranking and only sync it themselves on first use, when its last sync is older than
+ * {@code popularity.sync.max-age-ms}, e.g. because background syncs keep failing, or when a scoring change
+ * requires a full resync. A background run is skipped while the previous one is still syncing. Once
+ * {@code popularity.sync.max-rankings} rankings are tracked, a new one evicts the least recently read ranking that
+ * is not syncing and releases its store. Rankings are held on the
+ * heap, or in an {@link OffHeapRepositoryStore} when {@code popularity.sync.store} is {@code off-heap}; full crawls
+ * stream straight into a new store.
+ */
+@Service
+public class DeltaSyncService {
+    private static final Logger logger = LoggerFactory.getLogger(DeltaSyncService.class);
+
+    static final int PAGE_SIZE = ShardedCrawlService.PAGE_SIZE;
+    static final int MAX_PAGES = ShardedCrawlService.SEARCH_RESULT_CAP / PAGE_SIZE;
+
+    private final ReactiveGithubApiClient githubApiClient;
+    private final ShardedCrawlService crawlService;
+    private final PopularityScoringStrategy scoringStrategy;
+    private final String qualifier;
+    private final Duration overlap;
+    private final Duration fullResyncInterval;
+    private final int maxRankings;
+    private final Duration maxAge;
+    private final Supplier<RepositoryStore> stores;
+    private final Clock clock;
+    private final Map<RankingKey, SyncedRanking> rankings = new ConcurrentHashMap<>();
+    private final Map<RankingKey, Mono<SyncedRanking>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong scoringGeneration = new AtomicLong();
+    private final AtomicBoolean syncingAll = new AtomicBoolean();
+
+    @Autowired
+    public DeltaSyncService(ReactiveGithubApiClient githubApiClient,
+                            ShardedCrawlService crawlService,
+                            PopularityScoringStrategy scoringStrategy,
+                            @Value("${popularity.sync.qualifier:pushed}") String qualifier,
+                            @Value("${popularity.sync.overlap-seconds:60}") long overlapSeconds,
+                            @Value("${popularity.sync.full-resync-hours:24}") long fullResyncHours,
+                            @Value("${popularity.sync.max-rankings:50}") int maxRankings,
+                            @Value("${popularity.sync.max-age-ms:600000}") long maxAgeMs,
+                            @Value("${popularity.sync.store:heap}") String store) {
+        this(githubApiClient, crawlService, scoringStrategy, qualifier, Duration.ofSeconds(overlapSeconds),
+                Duration.ofHours(fullResyncHours), maxRankings, Duration.ofMillis(maxAgeMs), stores(store),
+                Clock.systemUTC());
+    }
+
+    DeltaSyncService(ReactiveGithubApiClient githubApiClient, ShardedCrawlService crawlService,
+                     PopularityScoringStrategy scoringStrategy, String qualifier, Duration overlap,
+                     Duration fullResyncInterval, int maxRankings, Duration maxAge, Supplier<RepositoryStore> stores,
+                     Clock clock) {
+        if (!qualifier.equals("pushed") && !qualifier.equals("updated")) {
+            throw new IllegalArgumentException("popularity.sync.qualifier must be 'pushed' or 'updated'");
+        }
+        this.githubApiClient = githubApiClient;
+        this.crawlService = crawlService;
+        this.scoringStrategy = scoringStrategy;
+        this.qualifier = qualifier;
+        this.overlap = overlap;
+        this.fullResyncInterval = fullResyncInterval;
+        this.maxRankings = maxRankings;
+        this.maxAge = maxAge;
+        this.stores = stores;
+        this.clock = clock;
+    }
+
+    private static Supplier<RepositoryStore> stores(String store) {
+        return switch (store) {
+            case "heap" -> RepositoryStore::onHeap;
+            case "off-heap" -> OffHeapRepositoryStore::new;
+            default -> throw new IllegalArgumentException("popularity.sync.store must be 'heap' or 'off-heap'");
+        };
+    }
+
+    /**
+     * Returns the K most popular repositories of a language from its stored ranking, leaving updates to the
+     * background sync. The ranking is synced first if it is new or was last synced more than
+     * {@code popularity.sync.max-age-ms} ago, or again if it was evicted before it could be read.
+     *
+     * @param language     programming language to filter by
+     * @param createdAfter only repositories created after this date (YYYY-MM-DD)
+     * @param k            number of repositories to return
+     * @return Mono emitting the top K repositories ordered by descending popularity score
+     */
+    public Mono<List<GithubRepository>> rankSynced(String language, String createdAfter, int k) {
+        return Mono.defer(() -> {
+                    SyncedRanking stored = rankings.get(new RankingKey(language, createdAfter));
+                    return stored != null && isFresh(stored, clock.instant())
+                            ? Mono.just(stored)
+                            : sync(language, createdAfter);
+                })
+                .flatMap(ranking -> Mono.justOrEmpty(ranking.read(k, scoringStrategy, clock.instant())))
+                .switchIfEmpty(Mono.defer(() -> rankSynced(language, createdAfter, k)));
+    }
+
+    private boolean isFresh(SyncedRanking ranking, Instant now) {
+        Instant watermark = ranking.getWatermark();
+        return watermark != null && ranking.getLastFullSync() != null && watermark.plus(maxAge).isAfter(now);
+    }
+
+    /**
+     * Requires every ranking to be crawled and rescored by its next sync, for when the scoring strategy has changed
+     * the base scores it computes. Until then, requests sync a ranking themselves rather than serve base scores of
+     * the previous strategy; syncs already running when this is called are rescored again.
+     */
+    public void requireFullResync() {
+        scoringGeneration.incrementAndGet();
+        rankings.values().forEach(SyncedRanking::requireFullSync);
+        logger.info("Scoring changed, {} rankings will be crawled again on their next sync", rankings.size());
+    }
+
+    /**
+     * Syncs the ranking of a language, crawling it on first use. Concurrent syncs of the same ranking
+     * share one GitHub round trip. Tracking a new ranking beyond {@code popularity.sync.max-rankings} evicts the
+     * least recently read one.
+     *
+     * @param language     programming language to filter by
+     * @param createdAfter only repositories created after this date (YYYY-MM-DD)
+     * @return Mono emitting the updated ranking
+     */
+    public Mono<SyncedRanking> sync(String language, String createdAfter) {
+        RankingKey key = new RankingKey(language, createdAfter);
+        return Mono.defer(() -> {
+            if (!rankings.containsKey(key) && rankings.size() >= maxRankings && !evictLeastRecentlyRead()) {
+                return Mono.error(new IllegalStateException(
+                        "All " + maxRankings + " synced rankings are syncing, cannot track another"));
+            }
+            return inFlight.computeIfAbsent(key, this::syncRanking);
+        });
+    }
+
+    private boolean evictLeastRecentlyRead() {
+        return rankings.entrySet().stream()
+                .filter(entry -> !inFlight.containsKey(entry.getKey()))
+                .min(Comparator.comparing(entry -> entry.getValue().getLastRead(),
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .filter(entry -> rankings.remove(entry.getKey(), entry.getValue()))
+                .map(entry -> {
+                    entry.getValue().release();
+                    logger.info("Evicted ranking language={}, createdAfter={}, last read {}",
+                            entry.getKey().language(), entry.getKey().createdAfter(), entry.getValue().getLastRead());
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /**
+     * Starts delta-syncing every known ranking in the background, without waiting for the syncs, so the shared
+     * scheduler thread stays free for other jobs. Skipped while the previous run is still syncing.
+     */
+    @Scheduled(fixedDelayString = "${popularity.sync.interval-ms:300000}",
+            initialDelayString = "${popularity.sync.interval-ms:300000}")
+    public void syncAll() {
+        if (rankings.isEmpty()) {
+            return;
+        }
+        if (!syncingAll.compareAndSet(false, true)) {
+            logger.info("Previous sync of all rankings is still running, skipping this one");
+            return;
+        }
+        logger.debug("Syncing {} rankings", rankings.size());
+        Flux.fromIterable(List.copyOf(rankings.keySet()))
+                // a ranking evicted since the run started is not crawled back in
+                .filter(rankings::containsKey)
+                .concatMap(key -> sync(key.language(), key.createdAfter())
+                        .onErrorResume(e -> {
+                            logger.warn("Could not sync ranking language={}, createdAfter={}: {}",
+                                    key.language(), key.createdAfter(), e.getMessage());
+                            return Mono.empty();
+                        }))
+                .doFinally(signal -> syncingAll.set(false))
+                .subscribe();
+    }
+
+    private Mono<SyncedRanking> syncRanking(RankingKey key) {
+        SyncedRanking ranking = rankings.computeIfAbsent(key, ignored -> new SyncedRanking(stores.get()));
+        Instant syncedAt = clock.instant().truncatedTo(ChronoUnit.SECONDS);
+        long generation = scoringGeneration.get();
+        PopularityScoringStrategy run = scoringStrategy.forRun();
+        Mono<SyncedRanking> sync = needsFullSync(ranking, syncedAt)
+                ? fullSync(key, ranking, syncedAt, run)
+                : deltaSync(key, ranking, syncedAt, run);
+        return sync
+                .doOnNext(synced -> {
+                    if (generation != scoringGeneration.get()) {
+                        synced.requireFullSync();
+                    }
+                })
+                .doOnError(e -> {
+                    if (ranking.getWatermark() == null) {
+                        rankings.remove(key, ranking);
+                    }
+                })
+                .doFinally(signal -> inFlight.remove(key))
+                .cache();
+    }
+
+    private boolean needsFullSync(SyncedRanking ranking, Instant now) {
+        Instant lastFullSync = ranking.getLastFullSync();
+        return lastFullSync == null || !lastFullSync.plus(fullResyncInterval).isAfter(now);
+    }
+
+    private Mono<SyncedRanking> fullSync(RankingKey key, SyncedRanking ranking, Instant syncedAt,
+                                         PopularityScoringStrategy run) {
+        return crawlService.crawl(key.language(), key.createdAfter())
+                .map(repo -> withBaseScore(repo, run))
+                .reduceWith(stores, (store, repo) -> {
+                    store.put(repo);
+                    return store;
+                })
+                .map(scored -> {
+                    ranking.replaceAll(scored, syncedAt);
+                    logger.info("Full sync of language={}, createdAfter={} ranked {} repositories",
+                            key.language(), key.createdAfter(), scored.size());
+                    return ranking;
+                });
+    }
+
+    private Mono<SyncedRanking> deltaSync(RankingKey key, SyncedRanking ranking, Instant syncedAt,
+                                          PopularityScoringStrategy run) {
+        String query = key.toDeltaQuery(qualifier, ranking.getWatermark().minus(overlap));
+        return Flux.range(1, MAX_PAGES)
+                .concatMap(page -> githubApiClient.searchRepositories(query, PAGE_SIZE, page).collectList())
+                .takeUntil(page -> page.size() < PAGE_SIZE)
+                .collectList()
+                .contextWrite(Context.of(RequestPriority.class, RequestPriority.BACKGROUND))
+                .flatMap(pages -> {
+                    if (pages.size() == MAX_PAGES && pages.get(MAX_PAGES - 1).size() == PAGE_SIZE) {
+                        logger.info("Delta for language={}, createdAfter={} exceeds the search cap, running a full sync",
+                                key.language(), key.createdAfter());
+                        return fullSync(key, ranking, syncedAt, run);
+                    }
+                    List<GithubRepository> changed = pages.stream().flatMap(List::stream).toList();
+                    int updated = ranking.merge(changed, repo -> withBaseScore(repo, run), syncedAt);
+                    logger.info("Delta sync of language={}, createdAfter={} fetched {} pages, re-scored {} of {} repositories",
+                            key.language(), key.createdAfter(), pages.size(), updated, changed.size());
+                    return Mono.just(ranking);
+                });
+    }
+
+    private static GithubRepository withBaseScore(GithubRepository repo, PopularityScoringStrategy run) {
+        return repo.withScore(run.baseScore(repo));
+    }
+
+    record RankingKey(String language, String createdAfter) {
+
+        String toDeltaQuery(String qualifier, Instant since) {
+            return String.format("language:%s created:>%s %s:>%s", language, createdAfter, qualifier, since);
+        }
+    }
+}
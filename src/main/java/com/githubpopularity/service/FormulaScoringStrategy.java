@@ -0,0 +1,112 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.model.GithubRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Popularity scoring strategy evaluating a {@link ScoringFormula} defined in configuration.
+ * <p>
+ * The formula can be replaced at runtime with {@link #update(ScoringFormula)}. Replacements are compiled by the
+ * caller before the swap, and each score or batch reads the current formula once, so in-flight scoring is never
+ * paused and never mixes two formulas; crawls and syncs keep the formula they started with. Base scores already
+ * stored in synced rankings and cached response bodies are rescored by the caller, see {@code ScoringFormulaEndpoint}.
+ */
+public class FormulaScoringStrategy implements PopularityScoringStrategy {
+    private static final Logger logger = LoggerFactory.getLogger(FormulaScoringStrategy.class);
+
+    private final AtomicReference<ScoringFormula> formula;
+
+    public FormulaScoringStrategy(ScoringFormula formula) {
+        this.formula = new AtomicReference<>(formula);
+    }
+
+    /**
+     * @return the formula currently used for scoring
+     */
+    public ScoringFormula formula() {
+        return formula.get();
+    }
+
+    /**
+     * Replaces the formula for all subsequent scoring.
+     *
+     * @param replacement compiled formula
+     * @return the formula replaced
+     */
+    public ScoringFormula update(ScoringFormula replacement) {
+        ScoringFormula previous = formula.getAndSet(replacement);
+        logger.info("Scoring formula replaced: {} -> {}", previous, replacement);
+        return previous;
+    }
+
+    @Override
+    public GithubRepository calculateScore(GithubRepository repo) {
+        ScoringFormula current = formula.get();
+        ScoringInputs inputs = inputs(repo, Instant.now());
+        double score = current.base(inputs) + current.recency(inputs);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Calculated formula score for repository {}: {}", repo.fullName(), score);
+        }
+        return repo.withScore(score);
+    }
+
+    @Override
+    public double baseScore(GithubRepository repo) {
+        return formula.get().base(new ScoringInputs().set(repo.stars(), repo.forks(), 0, repo.language()));
+    }
+
+    /**
+     * @return a strategy fixed to the current formula
+     */
+    @Override
+    public PopularityScoringStrategy forRun() {
+        return new FormulaScoringStrategy(formula.get());
+    }
+
+    @Override
+    public double recencyScore(Instant lastUpdated, Instant now) {
+        long ageDays = Duration.between(lastUpdated, now).toDays();
+        return formula.get().recency(new ScoringInputs().set(0, 0, ageDays, null));
+    }
+
+    @Override
+    public double maxRecencyScore() {
+        return formula.get().maxRecency();
+    }
+
+    @Override
+    public List<GithubRepository> calculateScores(List<GithubRepository> repos) {
+        RepositoryBatch batch = RepositoryBatch.of(repos);
+        return batch.withScores(calculateScores(batch));
+    }
+
+    /**
+     * Scores a batch with one formula and one reused {@link ScoringInputs}.
+     */
+    @Override
+    public double[] calculateScores(RepositoryBatch batch) {
+        ScoringFormula current = formula.get();
+        ScoringInputs inputs = new ScoringInputs();
+        List<GithubRepository> repos = batch.repositories();
+        int[] stars = batch.stars();
+        int[] forks = batch.forks();
+        long[] ageDays = batch.ageDays();
+        double[] scores = new double[batch.size()];
+        for (int i = 0; i < scores.length; i++) {
+            inputs.set(stars[i], forks[i], ageDays[i], repos.get(i).language());
+            scores[i] = current.base(inputs) + current.recency(inputs);
+        }
+        return scores;
+    }
+
+    private static ScoringInputs inputs(GithubRepository repo, Instant now) {
+        long ageDays = Duration.between(repo.lastUpdated(), now).toDays();
+        return new ScoringInputs().set(repo.stars(), repo.forks(), ageDays, repo.language());
+    }
+}
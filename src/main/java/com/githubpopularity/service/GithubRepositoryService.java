@@ -1,6 +1,8 @@
 package com.githubpopularity.service;
 
+import com.githubpopularity.model.CacheStatistics;
 import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryResult;
 
 import java.util.List;
 
@@ -19,4 +21,23 @@ public interface GithubRepositoryService {
      * @return list of repositories
      */
     List<GithubRepository> fetchRepositories(String language, String createdAfter, int perPage, int page);
+
+    /**
+     * Fetches repositories like {@link #fetchRepositories}, falling back to the last good result,
+     * marked as stale, while GitHub is unavailable.
+     *
+     * @param language     programming language to filter by
+     * @param createdAfter earliest creation date (ISO format, e.g., "2023-01-01")
+     * @param perPage      number of results per page
+     * @param page         page number (1-based)
+     * @return repositories and whether they are stale
+     */
+    RepositoryResult fetchResult(String language, String createdAfter, int perPage, int page);
+
+    /**
+     * Returns the hit, miss and eviction counters of the repository cache.
+     *
+     * @return cache statistics snapshot
+     */
+    CacheStatistics getCacheStatistics();
 }
@@ -1,33 +1,48 @@
 package com.githubpopularity.service;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.githubpopularity.cache.RepositoryPool;
 import com.githubpopularity.client.GithubApiClient;
-import com.githubpopularity.dto.GithubRepositoryItem;
 import com.githubpopularity.exception.GithubApiException;
+import com.githubpopularity.model.CacheStatistics;
 import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+import com.githubpopularity.model.RepositoryResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.ExchangeStrategies;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Service implementation for fetching GitHub repositories using the public API.
- * Converts API responses into domain model {@link GithubRepository} objects.
+ * The client decodes API responses directly into domain model {@link GithubRepository} objects.
+ * <p>
+ * Results are cached per {@link RepositoryQuery}. Concurrent misses for the same query
+ * share a single GitHub call, as the cache computes each key at most once at a time.
+ * Every request is counted by {@link HotQueryTracker} so hot queries can be refreshed ahead of expiry.
+ * While GitHub is unavailable, the last good result for a query is served as stale by {@link StaleResultFallback}.
  */
 @Service
 public class GithubRepositoryServiceImpl implements GithubRepositoryService {
     private static final Logger logger = LoggerFactory.getLogger(GithubRepositoryServiceImpl.class);
     private final GithubApiClient githubApiClient;
+    private final Cache<RepositoryQuery, List<GithubRepository>> repositoryCache;
+    private final StaleResultFallback staleResultFallback;
+    private final HotQueryTracker hotQueryTracker;
+    private final RepositoryPool repositoryPool;
 
-    public GithubRepositoryServiceImpl(GithubApiClient githubApiClient) {
+    public GithubRepositoryServiceImpl(GithubApiClient githubApiClient,
+                                       Cache<RepositoryQuery, List<GithubRepository>> repositoryCache,
+                                       StaleResultFallback staleResultFallback,
+                                       HotQueryTracker hotQueryTracker,
+                                       RepositoryPool repositoryPool) {
         this.githubApiClient = githubApiClient;
+        this.repositoryCache = repositoryCache;
+        this.staleResultFallback = staleResultFallback;
+        this.hotQueryTracker = hotQueryTracker;
+        this.repositoryPool = repositoryPool;
     }
 
     /**
@@ -42,38 +57,57 @@ public class GithubRepositoryServiceImpl implements GithubRepositoryService {
      */
     @Override
     public List<GithubRepository> fetchRepositories(String language, String createdAfter, int perPage, int page) {
-        String query = String.format("language:%s created:>%s", language, createdAfter);
-        logger.debug("Fetching repositories with query='{}'", query);
-
-        List<GithubRepositoryItem> items = githubApiClient.fetchRepositories(query, perPage, page);
+        return fetchResult(language, createdAfter, perPage, page).repositories();
+    }
 
-        if (items.isEmpty()) {
-            logger.warn("No repositories returned from GitHub for query='{}'", query);
-            return List.of();
+    /**
+     * Fetches repositories like {@link #fetchRepositories}, serving the last good result marked as stale
+     * when GitHub is unavailable.
+     *
+     * @throws GithubApiException if GitHub fails and no earlier result is known for the query
+     */
+    @Override
+    public RepositoryResult fetchResult(String language, String createdAfter, int perPage, int page) {
+        RepositoryQuery query = new RepositoryQuery(language, createdAfter, perPage, page);
+        hotQueryTracker.record(query);
+        try {
+            return RepositoryResult.fresh(repositoryCache.get(query, this::loadRepositories));
+        } catch (GithubApiException e) {
+            return staleResultFallback.recover(query, e).orElseThrow(() -> e);
         }
-
-        logger.info("Mapping {} repositories into domain model", items.size());
-
-        return items.stream()
-                .map(this::mapToRepository)
-                .collect(Collectors.toList());
     }
 
-    private GithubRepository mapToRepository(GithubRepositoryItem item) {
-        return new GithubRepository(
-                item.name(),
-                item.fullName(),
-                item.description(),
-                item.stars(),
-                item.forks(),
-                item.lastUpdated(),
-                item.language(),
-                0.0
+    /**
+     * Returns a snapshot of the repository cache counters.
+     *
+     * @return current hit, miss and eviction counts
+     */
+    @Override
+    public CacheStatistics getCacheStatistics() {
+        CacheStats stats = repositoryCache.stats();
+        return new CacheStatistics(
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate(),
+                repositoryCache.estimatedSize()
         );
     }
 
-    private static class GithubSearchResponse {
-        @JsonProperty("items")
-        public List<GithubRepositoryItem> items;
+    private List<GithubRepository> loadRepositories(RepositoryQuery repositoryQuery) {
+        String query = repositoryQuery.toSearchQuery();
+        logger.debug("Fetching repositories with query='{}'", query);
+
+        List<GithubRepository> repositories = repositoryPool.intern(githubApiClient.fetchRepositories(
+                query, repositoryQuery.perPage(), repositoryQuery.page()));
+
+        staleResultFallback.remember(repositoryQuery, repositories);
+        if (repositories.isEmpty()) {
+            logger.warn("No repositories returned from GitHub for query='{}'", query);
+            return List.of();
+        }
+
+        logger.info("Fetched {} repositories for query='{}'", repositories.size(), query);
+        return repositories;
     }
 }
@@ -0,0 +1,141 @@
+package com.githubpopularity.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.githubpopularity.client.RequestPriority;
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps the hottest queries in the repository cache so user requests for them are served from memory.
+ * <p>
+ * At a fixed cadence the top {@code popularity.refresh.top-n} queries reported by {@link HotQueryTracker}
+ * are re-fetched if their cache entry is missing or would expire before the next run. Refreshes are sent
+ * with {@link RequestPriority#BACKGROUND} priority and bounded concurrency, so they only use rate-limit
+ * budget that interactive requests do not need.
+ * <p>
+ * Queries listed in {@code popularity.refresh.warm-queries} (as {@code language:createdAfter}) are fetched at
+ * startup. This runs as an {@link ApplicationRunner}, which completes before the application reports
+ * itself ready to accept traffic.
+ */
+@Component
+@ConditionalOnProperty(name = "popularity.refresh.enabled", havingValue = "true", matchIfMissing = true)
+public class HotQueryRefresher implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(HotQueryRefresher.class);
+
+    static final int DEFAULT_PER_PAGE = 10;
+
+    private final ReactiveGithubRepositoryService githubService;
+    private final HotQueryTracker hotQueryTracker;
+    private final Cache<RepositoryQuery, List<GithubRepository>> repositoryCache;
+    private final int topN;
+    private final int concurrency;
+    private final Duration interval;
+    private final List<String> warmQueries;
+    private final Duration warmTimeout;
+
+    public HotQueryRefresher(ReactiveGithubRepositoryService githubService,
+                             HotQueryTracker hotQueryTracker,
+                             Cache<RepositoryQuery, List<GithubRepository>> repositoryCache,
+                             @Value("${popularity.refresh.top-n:20}") int topN,
+                             @Value("${popularity.refresh.concurrency:2}") int concurrency,
+                             @Value("${popularity.refresh.interval-ms:60000}") long intervalMs,
+                             @Value("${popularity.refresh.warm-queries:}") List<String> warmQueries,
+                             @Value("${popularity.refresh.warm-timeout-ms:30000}") long warmTimeoutMs) {
+        this.githubService = githubService;
+        this.hotQueryTracker = hotQueryTracker;
+        this.repositoryCache = repositoryCache;
+        this.topN = topN;
+        this.concurrency = concurrency;
+        this.interval = Duration.ofMillis(intervalMs);
+        this.warmQueries = warmQueries;
+        this.warmTimeout = Duration.ofMillis(warmTimeoutMs);
+    }
+
+    /**
+     * Warms the configured queries and seeds them as hot.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        List<RepositoryQuery> queries = warmQueries.stream()
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .map(HotQueryRefresher::parseWarmQuery)
+                .flatMap(Optional::stream)
+                .toList();
+        if (queries.isEmpty()) {
+            return;
+        }
+        queries.forEach(hotQueryTracker::record);
+        logger.info("Warming {} queries before accepting traffic", queries.size());
+        try {
+            refresh(queries).block(warmTimeout);
+        } catch (IllegalStateException e) {
+            logger.warn("Warm-up did not finish within {}, continuing startup", warmTimeout);
+        }
+    }
+
+    /**
+     * Refreshes hot queries that are missing from the cache or due to expire before the next run,
+     * then decays the popularity counts.
+     */
+    @Scheduled(fixedDelayString = "${popularity.refresh.interval-ms:60000}",
+            initialDelayString = "${popularity.refresh.interval-ms:60000}")
+    public void refreshHotQueries() {
+        List<RepositoryQuery> due = hotQueryTracker.hottest(topN).stream()
+                .filter(this::isDueForRefresh)
+                .toList();
+        hotQueryTracker.decay();
+        if (due.isEmpty()) {
+            return;
+        }
+        logger.debug("Refreshing {} hot queries", due.size());
+        refresh(due).block();
+    }
+
+    boolean isDueForRefresh(RepositoryQuery query) {
+        Optional<Policy.FixedExpiration<RepositoryQuery, List<GithubRepository>>> expiration =
+                repositoryCache.policy().expireAfterWrite();
+        if (expiration.isEmpty()) {
+            return repositoryCache.getIfPresent(query) == null;
+        }
+        return expiration.get().ageOf(query)
+                .map(age -> age.plus(interval.multipliedBy(2)).compareTo(expiration.get().getExpiresAfter()) >= 0)
+                .orElse(true);
+    }
+
+    private Mono<Void> refresh(List<RepositoryQuery> queries) {
+        return Flux.fromIterable(queries)
+                .flatMap(query -> githubService.refresh(query)
+                        .onErrorResume(e -> {
+                            logger.warn("Could not refresh query='{}': {}", query.toSearchQuery(), e.getMessage());
+                            return Mono.empty();
+                        }), concurrency)
+                .contextWrite(context -> context.put(RequestPriority.class, RequestPriority.BACKGROUND))
+                .then();
+    }
+
+    static Optional<RepositoryQuery> parseWarmQuery(String entry) {
+        int separator = entry.lastIndexOf(':');
+        if (separator <= 0 || separator == entry.length() - 1) {
+            logger.warn("Ignoring warm query '{}', expected language:createdAfter", entry);
+            return Optional.empty();
+        }
+        return Optional.of(new RepositoryQuery(entry.substring(0, separator), entry.substring(separator + 1),
+                DEFAULT_PER_PAGE, 1));
+    }
+}
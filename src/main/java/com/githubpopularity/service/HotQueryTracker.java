@@ -0,0 +1,69 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.model.RepositoryQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often each query is requested so the hottest ones can be kept precomputed.
+ * <p>
+ * Counts are halved on every {@link #decay()}, so popularity follows recent traffic, and queries whose count
+ * drops to zero are forgotten. At most {@code maxTracked} queries are counted; new queries are ignored
+ * while the table is full until a decay frees space.
+ */
+@Component
+public class HotQueryTracker {
+
+    private final int maxTracked;
+    private final Map<RepositoryQuery, LongAdder> hits = new ConcurrentHashMap<>();
+
+    public HotQueryTracker(@Value("${popularity.refresh.max-tracked:1000}") int maxTracked) {
+        this.maxTracked = maxTracked;
+    }
+
+    /**
+     * Records one request for the query.
+     */
+    public void record(RepositoryQuery query) {
+        LongAdder counter = hits.get(query);
+        if (counter == null) {
+            if (hits.size() >= maxTracked) {
+                return;
+            }
+            counter = hits.computeIfAbsent(query, key -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * @param n maximum number of queries to return
+     * @return the most requested queries, hottest first
+     */
+    public List<RepositoryQuery> hottest(int n) {
+        return hits.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<RepositoryQuery, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(n)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Halves every count and forgets queries that are no longer requested.
+     */
+    public void decay() {
+        hits.entrySet().removeIf(entry -> {
+            LongAdder counter = entry.getValue();
+            long halved = counter.sumThenReset() / 2;
+            counter.add(halved);
+            return halved == 0;
+        });
+    }
+}
@@ -0,0 +1,127 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.client.FetchedRepositoryListener;
+import com.githubpopularity.model.GithubRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Distribution of stars and forks per language, learned from every repository fetched from GitHub.
+ * <p>
+ * Each language keeps one {@link QuantileSketch} for stars and one for forks, so memory is constant per
+ * language; at most {@code popularity.percentile.max-languages} languages are tracked. A global sketch
+ * covering all languages is used for languages with fewer than {@code popularity.percentile.min-samples}
+ * observations.
+ * <p>
+ * Only installed when percentile scoring is configured, on its own or as a composite variant, so other strategies
+ * do not pay for updating the sketches on every fetch. Scoring runs use a {@link #snapshot()}.
+ */
+@Component
+@ConditionalOnExpression("'${popularity.scoring.strategy:static}' == 'percentile' "
+        + "or ('${popularity.scoring.strategy:static}' == 'composite' "
+        + "and '${popularity.scoring.variants:static:1}'.matches('(.*,)?\\s*percentile:.*'))")
+public class LanguageDistribution implements FetchedRepositoryListener {
+
+    static final double RELATIVE_ACCURACY = 0.01;
+
+    private final Map<String, Sketches> byLanguage = new ConcurrentHashMap<>();
+    private final Sketches global;
+    private final int maxLanguages;
+    private final long minSamples;
+
+    @Autowired
+    public LanguageDistribution(@Value("${popularity.percentile.max-languages:200}") int maxLanguages,
+                                @Value("${popularity.percentile.min-samples:100}") long minSamples) {
+        this(maxLanguages, minSamples, new Sketches());
+    }
+
+    private LanguageDistribution(int maxLanguages, long minSamples, Sketches global) {
+        this.maxLanguages = maxLanguages;
+        this.minSamples = minSamples;
+        this.global = global;
+    }
+
+    /**
+     * @return a copy of the distribution observed so far; it is not registered for fetches, so it stays as it is
+     */
+    public LanguageDistribution snapshot() {
+        LanguageDistribution snapshot = new LanguageDistribution(maxLanguages, minSamples, global.copy());
+        byLanguage.forEach((language, sketches) -> snapshot.byLanguage.put(language, sketches.copy()));
+        return snapshot;
+    }
+
+    @Override
+    public void onFetched(GithubRepository repository) {
+        global.add(repository);
+        String language = key(repository.language());
+        if (language == null) {
+            return;
+        }
+        Sketches sketches = byLanguage.get(language);
+        if (sketches == null) {
+            if (byLanguage.size() >= maxLanguages) {
+                return;
+            }
+            sketches = byLanguage.computeIfAbsent(language, ignored -> new Sketches());
+        }
+        sketches.add(repository);
+    }
+
+    /**
+     * @return percentile rank of the stars count among repositories of the language, between 0 and 1
+     */
+    public double starsRank(String language, int stars) {
+        return sketchesFor(language).stars().rank(stars);
+    }
+
+    /**
+     * @return percentile rank of the forks count among repositories of the language, between 0 and 1
+     */
+    public double forksRank(String language, int forks) {
+        return sketchesFor(language).forks().rank(forks);
+    }
+
+    /**
+     * @return number of repositories observed for the language
+     */
+    public long samples(String language) {
+        Sketches sketches = lookup(language);
+        return sketches == null ? 0 : sketches.stars().count();
+    }
+
+    private Sketches sketchesFor(String language) {
+        Sketches sketches = lookup(language);
+        return sketches != null && sketches.stars().count() >= minSamples ? sketches : global;
+    }
+
+    private Sketches lookup(String language) {
+        String key = key(language);
+        return key == null ? null : byLanguage.get(key);
+    }
+
+    private static String key(String language) {
+        return language == null || language.isBlank() ? null : language.toLowerCase(Locale.ROOT);
+    }
+
+    private record Sketches(QuantileSketch stars, QuantileSketch forks) {
+
+        Sketches() {
+            this(new QuantileSketch(RELATIVE_ACCURACY), new QuantileSketch(RELATIVE_ACCURACY));
+        }
+
+        void add(GithubRepository repository) {
+            stars.add(repository.stars());
+            forks.add(repository.forks());
+        }
+
+        Sketches copy() {
+            return new Sketches(stars.copy(), forks.copy());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.model.GithubRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Popularity scoring strategy based on where a repository stands among repositories of its language.
+ * <p>
+ * Stars and forks are scored by their percentile rank in the {@link LanguageDistribution} learned from fetched
+ * repositories, instead of being normalized against fixed maximums. Scores therefore spread over the whole range
+ * for every language rather than clustering near zero, and do not saturate for very popular repositories.
+ * Recency decays exponentially as in {@link StaticThresholdStrategy}, with the same weights: 60% stars,
+ * 30% forks, 10% recency.
+ * <p>
+ * The base score follows the learned distribution, so it drifts slowly as more repositories are observed. Crawls
+ * and syncs score against a {@link #forRun() snapshot} taken when they start, so repositories fetched by the run
+ * itself do not shift the scores of the ones ranked before them.
+ */
+public class PercentileRankStrategy implements PopularityScoringStrategy {
+    private static final Logger logger = LoggerFactory.getLogger(PercentileRankStrategy.class);
+
+    private final LanguageDistribution distribution;
+    private final int recencyDecayDays;
+
+    public PercentileRankStrategy(LanguageDistribution distribution, int recencyDecayDays) {
+        this.distribution = distribution;
+        this.recencyDecayDays = recencyDecayDays;
+    }
+
+    @Override
+    public GithubRepository calculateScore(GithubRepository repo) {
+        double score = baseScore(repo) + recencyScore(repo.lastUpdated(), Instant.now());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Calculated percentile score for repository {}: {}", repo.fullName(), score);
+        }
+        return repo.withScore(score);
+    }
+
+    @Override
+    public double baseScore(GithubRepository repo) {
+        double starsRank = distribution.starsRank(repo.language(), repo.stars());
+        double forksRank = distribution.forksRank(repo.language(), repo.forks());
+        return (starsRank * 0.6 + forksRank * 0.3) * 100;
+    }
+
+    /**
+     * @return a strategy scoring against a snapshot of the distribution as observed so far
+     */
+    @Override
+    public PopularityScoringStrategy forRun() {
+        return new PercentileRankStrategy(distribution.snapshot(), recencyDecayDays);
+    }
+
+    @Override
+    public double recencyScore(Instant lastUpdated, Instant now) {
+        long daysSinceUpdate = Duration.between(lastUpdated, now).toDays();
+        return Math.exp(-daysSinceUpdate / (double) recencyDecayDays) * StaticThresholdStrategy.RECENCY_WEIGHT;
+    }
+
+    @Override
+    public double maxRecencyScore() {
+        return StaticThresholdStrategy.RECENCY_WEIGHT;
+    }
+}
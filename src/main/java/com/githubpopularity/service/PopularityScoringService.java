@@ -19,12 +19,22 @@ public class PopularityScoringService {
     }
 
     /**
-     * Scores a list of repositories using the configured scoring strategy.
+     * Scores the repositories of one response using the configured scoring strategy.
      *
      * @param repos list of {@link GithubRepository} to score
      * @return list of repositories with calculated popularity scores
      */
     public List<GithubRepository> scoreRepositories(List<GithubRepository> repos) {
-        return scoringStrategy.calculateScores(repos);
+        return scoringStrategy.calculateResponseScores(repos);
+    }
+
+    /**
+     * Scores a columnar batch of repositories without creating scored records.
+     *
+     * @param batch repositories to score
+     * @return scores aligned with the batch order
+     */
+    public double[] scoreBatch(RepositoryBatch batch) {
+        return scoringStrategy.calculateScores(batch);
     }
 }
@@ -1,11 +1,17 @@
 package com.githubpopularity.service;
 
 import com.githubpopularity.model.GithubRepository;
+
+import java.time.Instant;
 import java.util.List;
 
 /**
  * Strategy interface for calculating popularity scores for GitHub repositories.
  * Implementations define how a repository's score is computed.
+ * <p>
+ * A score may be split into a time-invariant {@link #baseScore(GithubRepository) base score} and a
+ * {@link #recencyScore(Instant, Instant) recency score} that depends on the clock. Stored rankings keep only the
+ * base score and add the recency score when read, so they stay correct as time passes without rescoring.
  */
 public interface PopularityScoringStrategy {
     /**
@@ -16,6 +22,46 @@ public interface PopularityScoringStrategy {
      */
     GithubRepository calculateScore(GithubRepository repository);
 
+    /**
+     * Time-invariant part of the popularity score. Defaults to the full score, for strategies that
+     * do not separate out a recency term.
+     *
+     * @param repository the repository to score
+     * @return base score; the popularity score is this plus {@link #recencyScore(Instant, Instant)}
+     */
+    default double baseScore(GithubRepository repository) {
+        return calculateScore(repository).popularityScore();
+    }
+
+    /**
+     * Strategy to score one crawl, sync or multi-page ranking with, so that every repository of the run is scored
+     * the same way. Defaults to this strategy; strategies that learn from fetched repositories return a copy
+     * frozen at the time of the call.
+     *
+     * @return strategy to use for the whole run
+     */
+    default PopularityScoringStrategy forRun() {
+        return this;
+    }
+
+    /**
+     * Clock-dependent part of the popularity score.
+     *
+     * @param lastUpdated time the repository was last updated
+     * @param now         time to score against
+     * @return recency score, between 0 and {@link #maxRecencyScore()}
+     */
+    default double recencyScore(Instant lastUpdated, Instant now) {
+        return 0;
+    }
+
+    /**
+     * @return upper bound of {@link #recencyScore(Instant, Instant)}
+     */
+    default double maxRecencyScore() {
+        return 0;
+    }
+
     /**
      * Calculate popularity scores for a list of repositories.
      * Uses {@link #calculateScore(GithubRepository)} for each repository.
@@ -28,4 +74,33 @@ public interface PopularityScoringStrategy {
                 .map(this::calculateScore)
                 .toList();
     }
-}
\ No newline at end of file
+
+    /**
+     * Calculate popularity scores for the repositories of one response.
+     * Uses {@link #calculateScores(List)} unless a strategy evaluating several variants chooses which
+     * variant answers each response.
+     *
+     * @param repos repositories returned together
+     * @return list of scored repositories
+     */
+    default List<GithubRepository> calculateResponseScores(List<GithubRepository> repos) {
+        return calculateScores(repos);
+    }
+
+    /**
+     * Calculate popularity scores for a columnar batch of repositories.
+     * Uses {@link #calculateScore(GithubRepository)} for each repository unless overridden
+     * with an allocation-free implementation.
+     *
+     * @param batch repositories to score
+     * @return scores aligned with the batch order
+     */
+    default double[] calculateScores(RepositoryBatch batch) {
+        List<GithubRepository> repos = batch.repositories();
+        double[] scores = new double[repos.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = calculateScore(repos.get(i)).popularityScore();
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,121 @@
+package com.githubpopularity.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Streaming, mergeable sketch of a distribution of non-negative counts such as stars or forks.
+ * <p>
+ * Values are counted in logarithmic buckets whose bounds grow by a factor of {@code (1 + a) / (1 - a)}, so every
+ * value is represented within relative accuracy {@code a}, in the manner of DDSketch. The number of buckets is
+ * fixed by the accuracy and {@link Integer#MAX_VALUE}, so memory is constant however many values are added.
+ * Bucket counts are kept in a Fenwick tree, making both {@link #add(long)} and {@link #rank(long)}
+ * O(log buckets). Sketches with the same accuracy merge by adding counts.
+ * <p>
+ * Updates are lock-free; a rank read concurrently with updates may miss the updates still in progress.
+ */
+public final class QuantileSketch {
+
+    private final double relativeAccuracy;
+    private final double logGamma;
+    private final int buckets;
+    private final AtomicLongArray tree;
+
+    /**
+     * @param relativeAccuracy relative accuracy of bucket bounds, e.g. 0.01 for 1%
+     */
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("relativeAccuracy must be between 0 and 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+        // bucket 0 holds zeros, bucket i > 0 holds values in (gamma^(i-2), gamma^(i-1)]
+        this.buckets = bucketOf(Integer.MAX_VALUE) + 1;
+        this.tree = new AtomicLongArray(buckets + 1);
+    }
+
+    /**
+     * Adds one occurrence of a value. Negative values count as zero, values above {@link Integer#MAX_VALUE}
+     * as that maximum.
+     */
+    public void add(long value) {
+        add(bucketOf(value), 1);
+    }
+
+    /**
+     * Estimates the percentile rank of a value: the share of added values below it, counting values in the
+     * same bucket as half below.
+     *
+     * @return rank between 0 and 1; 0 if the sketch is empty
+     */
+    public double rank(long value) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        int bucket = bucketOf(value);
+        long below = prefixSum(bucket);
+        long same = prefixSum(bucket + 1) - below;
+        return (below + same / 2.0) / total;
+    }
+
+    /**
+     * @return number of values added
+     */
+    public long count() {
+        return prefixSum(buckets);
+    }
+
+    /**
+     * @return an independent sketch holding the values added so far
+     */
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(relativeAccuracy);
+        for (int i = 1; i <= buckets; i++) {
+            copy.tree.set(i, tree.get(i));
+        }
+        return copy;
+    }
+
+    /**
+     * Adds all values of another sketch to this one.
+     *
+     * @throws IllegalArgumentException if the sketches have different accuracies
+     */
+    public void merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracies");
+        }
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            long count = other.prefixSum(bucket + 1) - other.prefixSum(bucket);
+            if (count != 0) {
+                add(bucket, count);
+            }
+        }
+    }
+
+    int bucketOf(long value) {
+        if (value <= 0) {
+            return 0;
+        }
+        long clamped = Math.min(value, Integer.MAX_VALUE);
+        return (int) Math.ceil(Math.log(clamped) / logGamma) + 1;
+    }
+
+    private void add(int bucket, long count) {
+        for (int i = bucket + 1; i <= buckets; i += i & -i) {
+            tree.addAndGet(i, count);
+        }
+    }
+
+    /**
+     * @return total count of buckets {@code [0, bucketEnd)}
+     */
+    private long prefixSum(int bucketEnd) {
+        long sum = 0;
+        for (int i = bucketEnd; i > 0; i -= i & -i) {
+            sum += tree.get(i);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,45 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+import com.githubpopularity.model.RepositoryResult;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking variant of {@link GithubRepositoryService}.
+ */
+public interface ReactiveGithubRepositoryService {
+
+    /**
+     * Fetches repositories from GitHub using language and creation date filters, with pagination.
+     *
+     * @param language     programming language to filter by
+     * @param createdAfter earliest creation date (ISO format, e.g., "2023-01-01")
+     * @param perPage      number of results per page
+     * @param page         page number (1-based)
+     * @return Mono emitting the list of repositories; the list is empty if none are found
+     */
+    Mono<List<GithubRepository>> fetchRepositories(String language, String createdAfter, int perPage, int page);
+
+    /**
+     * Fetches repositories like {@link #fetchRepositories}, falling back to the last good result,
+     * marked as stale, while GitHub is unavailable.
+     *
+     * @param language     programming language to filter by
+     * @param createdAfter earliest creation date (ISO format, e.g., "2023-01-01")
+     * @param perPage      number of results per page
+     * @param page         page number (1-based)
+     * @return Mono emitting the repositories and whether they are stale
+     */
+    Mono<RepositoryResult> fetchResult(String language, String createdAfter, int perPage, int page);
+
+    /**
+     * Re-fetches a query from GitHub regardless of what is cached and stores the result.
+     *
+     * @param query query to refresh
+     * @return Mono emitting the fetched repositories
+     */
+    Mono<List<GithubRepository>> refresh(RepositoryQuery query);
+}
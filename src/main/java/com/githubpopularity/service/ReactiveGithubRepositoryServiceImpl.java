@@ -0,0 +1,98 @@
+package com.githubpopularity.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.githubpopularity.cache.RepositoryPool;
+import com.githubpopularity.client.ReactiveGithubApiClient;
+import com.githubpopularity.exception.GithubApiException;
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+import com.githubpopularity.model.RepositoryResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Non-blocking service implementation for fetching GitHub repositories.
+ * <p>
+ * Shares the repository cache with {@link GithubRepositoryServiceImpl}. Concurrent misses for the
+ * same query subscribe to a single in-flight GitHub call instead of each issuing their own.
+ * Every request is counted by {@link HotQueryTracker} so hot queries can be refreshed ahead of expiry.
+ * While GitHub is unavailable, the last good result for a query is served as stale by {@link StaleResultFallback}.
+ */
+@Service
+public class ReactiveGithubRepositoryServiceImpl implements ReactiveGithubRepositoryService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveGithubRepositoryServiceImpl.class);
+
+    private final ReactiveGithubApiClient githubApiClient;
+    private final Cache<RepositoryQuery, List<GithubRepository>> repositoryCache;
+    private final StaleResultFallback staleResultFallback;
+    private final HotQueryTracker hotQueryTracker;
+    private final RepositoryPool repositoryPool;
+    private final Map<RepositoryQuery, Mono<List<GithubRepository>>> inFlight = new ConcurrentHashMap<>();
+
+    public ReactiveGithubRepositoryServiceImpl(ReactiveGithubApiClient githubApiClient,
+                                               Cache<RepositoryQuery, List<GithubRepository>> repositoryCache,
+                                               StaleResultFallback staleResultFallback,
+                                               HotQueryTracker hotQueryTracker,
+                                               RepositoryPool repositoryPool) {
+        this.githubApiClient = githubApiClient;
+        this.repositoryCache = repositoryCache;
+        this.staleResultFallback = staleResultFallback;
+        this.hotQueryTracker = hotQueryTracker;
+        this.repositoryPool = repositoryPool;
+    }
+
+    @Override
+    public Mono<List<GithubRepository>> fetchRepositories(String language, String createdAfter, int perPage, int page) {
+        return fetchResult(language, createdAfter, perPage, page).map(RepositoryResult::repositories);
+    }
+
+    @Override
+    public Mono<RepositoryResult> fetchResult(String language, String createdAfter, int perPage, int page) {
+        RepositoryQuery query = new RepositoryQuery(language, createdAfter, perPage, page);
+        hotQueryTracker.record(query);
+        return Mono.defer(() -> {
+                    List<GithubRepository> cached = repositoryCache.getIfPresent(query);
+                    if (cached != null) {
+                        return Mono.just(cached);
+                    }
+                    return inFlight.computeIfAbsent(query, this::loadRepositories);
+                })
+                .map(RepositoryResult::fresh)
+                .onErrorResume(GithubApiException.class, e -> staleResultFallback.recover(query, e)
+                        .map(Mono::just)
+                        .orElseGet(() -> Mono.error(e)));
+    }
+
+    @Override
+    public Mono<List<GithubRepository>> refresh(RepositoryQuery query) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(query, this::loadRepositories));
+    }
+
+    private Mono<List<GithubRepository>> loadRepositories(RepositoryQuery repositoryQuery) {
+        String query = repositoryQuery.toSearchQuery();
+        logger.debug("Fetching repositories with query='{}'", query);
+
+        return githubApiClient.searchRepositories(query, repositoryQuery.perPage(), repositoryQuery.page())
+                .collectList()
+                .map(repositoryPool::intern)
+                .doOnNext(repositories -> {
+                    if (repositories.isEmpty()) {
+                        logger.warn("No repositories returned from GitHub for query='{}'", query);
+                    } else {
+                        logger.info("Fetched {} repositories for query='{}'", repositories.size(), query);
+                    }
+                })
+                .doOnNext(repositories -> {
+                    repositoryCache.put(repositoryQuery, repositories);
+                    staleResultFallback.remember(repositoryQuery, repositories);
+                })
+                .doFinally(signal -> inFlight.remove(repositoryQuery))
+                .cache();
+    }
+}
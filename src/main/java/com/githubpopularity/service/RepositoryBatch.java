@@ -0,0 +1,113 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.model.GithubRepository;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Columnar view of a batch of repositories for bulk scoring.
+ * <p>
+ * Stars, forks and age in days are copied into primitive arrays once, using a single clock
+ * snapshot for the whole batch, so scoring loops run without per-repository allocation or clock reads.
+ * The records are read from the source list once and kept, so scores can be attached to them without reading
+ * the list again; lists backed by the repository pool materialize a record on every read.
+ */
+public final class RepositoryBatch {
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final List<GithubRepository> repositories;
+    private final int[] stars;
+    private final int[] forks;
+    private final long[] ageDays;
+
+    private RepositoryBatch(List<GithubRepository> repositories, int[] stars, int[] forks, long[] ageDays) {
+        this.repositories = repositories;
+        this.stars = stars;
+        this.forks = forks;
+        this.ageDays = ageDays;
+    }
+
+    /**
+     * Builds a batch from the given repositories using the current time.
+     *
+     * @param repositories repositories to score
+     * @return columnar batch
+     */
+    public static RepositoryBatch of(List<GithubRepository> repositories) {
+        return of(repositories, Instant.now());
+    }
+
+    /**
+     * Builds a batch from the given repositories, measuring age against {@code now}.
+     *
+     * @param repositories repositories to score
+     * @param now          clock snapshot used for every repository in the batch
+     * @return columnar batch
+     */
+    public static RepositoryBatch of(List<GithubRepository> repositories, Instant now) {
+        int size = repositories.size();
+        GithubRepository[] records = new GithubRepository[size];
+        int[] stars = new int[size];
+        int[] forks = new int[size];
+        long[] ageDays = new long[size];
+        long nowSeconds = now.getEpochSecond();
+        int nowNanos = now.getNano();
+        for (int i = 0; i < size; i++) {
+            GithubRepository repo = repositories.get(i);
+            records[i] = repo;
+            stars[i] = repo.stars();
+            forks[i] = repo.forks();
+            ageDays[i] = daysBetween(repo.lastUpdated(), nowSeconds, nowNanos);
+        }
+        return new RepositoryBatch(Collections.unmodifiableList(Arrays.asList(records)), stars, forks, ageDays);
+    }
+
+    /**
+     * Whole days between {@code from} and the snapshot, truncated like {@code Duration.between(from, now).toDays()}.
+     */
+    private static long daysBetween(Instant from, long nowSeconds, int nowNanos) {
+        long seconds = nowSeconds - from.getEpochSecond();
+        if (nowNanos < from.getNano()) {
+            seconds--;
+        }
+        return seconds / SECONDS_PER_DAY;
+    }
+
+    public int size() {
+        return stars.length;
+    }
+
+    public List<GithubRepository> repositories() {
+        return repositories;
+    }
+
+    public int[] stars() {
+        return stars;
+    }
+
+    public int[] forks() {
+        return forks;
+    }
+
+    public long[] ageDays() {
+        return ageDays;
+    }
+
+    /**
+     * Attaches scores to the records of the batch.
+     *
+     * @param scores scores aligned with this batch
+     * @return new records carrying the given scores
+     */
+    public List<GithubRepository> withScores(double[] scores) {
+        GithubRepository[] scored = new GithubRepository[scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            scored[i] = repositories.get(i).withScore(scores[i]);
+        }
+        return List.of(scored);
+    }
+}
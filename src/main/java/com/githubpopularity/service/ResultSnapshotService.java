@@ -0,0 +1,153 @@
+package com.githubpopularity.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.githubpopularity.exception.InvalidCursorException;
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryPage;
+import com.githubpopularity.model.RepositoryResult;
+import com.githubpopularity.model.ResultSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Service for paging through ranked results with cursors instead of GitHub page numbers.
+ * <p>
+ * The first request for a query fetches up to {@code popularity.pagination.snapshot-size} repositories (at most the
+ * 1,000 GitHub search returns, as with page numbers), in one GitHub call per 100, the pages after the first
+ * concurrently and only if the first one was full. The repositories are scored and ranked once and keeps the ranking as a {@link ResultSnapshot} for
+ * {@code popularity.pagination.snapshot-ttl-seconds}. Pages are slices of that snapshot addressed by an opaque
+ * cursor, so following pages are served from memory and never overlap or skip items while the live ranking shifts.
+ */
+@Service
+public class ResultSnapshotService {
+    private static final Logger logger = LoggerFactory.getLogger(ResultSnapshotService.class);
+
+    static final int GITHUB_MAX_PER_PAGE = 100;
+
+    private final ReactiveGithubRepositoryService githubService;
+    private final PopularityScoringService scoringService;
+    private final Cache<String, ResultSnapshot> resultSnapshotCache;
+    private final int snapshotSize;
+    private final int concurrency;
+
+    public ResultSnapshotService(ReactiveGithubRepositoryService githubService,
+                                 PopularityScoringService scoringService,
+                                 Cache<String, ResultSnapshot> resultSnapshotCache,
+                                 @Value("${popularity.pagination.snapshot-size:1000}") int snapshotSize,
+                                 @Value("${popularity.ranking.concurrency:4}") int concurrency) {
+        this.githubService = githubService;
+        this.scoringService = scoringService;
+        this.resultSnapshotCache = resultSnapshotCache;
+        this.snapshotSize = Math.min(snapshotSize, ShardedCrawlService.SEARCH_RESULT_CAP);
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Materializes a snapshot for the query and returns its first page.
+     *
+     * @param language     programming language to filter by
+     * @param createdAfter only repositories created after this date (YYYY-MM-DD)
+     * @param perPage      number of repositories per page
+     * @return Mono emitting the snapshot and its first page
+     */
+    public Mono<SnapshotPage> firstPage(String language, String createdAfter, int perPage) {
+        int githubPerPage = Math.min(snapshotSize, GITHUB_MAX_PER_PAGE);
+        int githubPages = (snapshotSize + githubPerPage - 1) / githubPerPage;
+        return githubService.fetchResult(language, createdAfter, githubPerPage, 1)
+                .flatMap(first -> githubPages == 1 || first.repositories().size() < githubPerPage
+                        ? Mono.just(List.of(first))
+                        : Flux.range(2, githubPages - 1)
+                                .flatMapSequential(page ->
+                                        githubService.fetchResult(language, createdAfter, githubPerPage, page), concurrency)
+                                .startWith(first)
+                                .collectList())
+                .map(results -> {
+                    // results can shift between pages while they are fetched; keep the first copy of a repository
+                    Map<String, GithubRepository> fetched = new LinkedHashMap<>();
+                    for (RepositoryResult result : results) {
+                        result.repositories().forEach(repo -> fetched.putIfAbsent(repo.fullName(), repo));
+                    }
+                    boolean stale = results.stream().anyMatch(RepositoryResult::stale);
+                    List<GithubRepository> ranked = new ArrayList<>(
+                            scoringService.scoreRepositories(new ArrayList<>(fetched.values())));
+                    ranked.sort(TopKAccumulator.BY_SCORE.reversed());
+                    ResultSnapshot snapshot = new ResultSnapshot(UUID.randomUUID().toString(), List.copyOf(ranked),
+                            stale, Instant.now());
+                    resultSnapshotCache.put(snapshot.id(), snapshot);
+                    logger.debug("Created snapshot {} with {} repositories for language={}, createdAfter={}",
+                            snapshot.id(), ranked.size(), language, createdAfter);
+                    return new SnapshotPage(snapshot, page(snapshot, 0, perPage));
+                });
+    }
+
+    /**
+     * Returns the page a cursor points to.
+     *
+     * @param cursor  cursor returned with a previous page
+     * @param perPage number of repositories per page
+     * @return the snapshot and the requested page
+     * @throws InvalidCursorException if the cursor is malformed (400) or its snapshot has expired (410)
+     */
+    public SnapshotPage nextPage(String cursor, int perPage) {
+        Cursor decoded = Cursor.decode(cursor);
+        ResultSnapshot snapshot = resultSnapshotCache.getIfPresent(decoded.snapshotId());
+        if (snapshot == null) {
+            throw new InvalidCursorException(410, "Snapshot expired, start again without a cursor");
+        }
+        if (decoded.offset() > snapshot.repositories().size()) {
+            throw new InvalidCursorException(400, "Cursor is out of range");
+        }
+        return new SnapshotPage(snapshot, page(snapshot, decoded.offset(), perPage));
+    }
+
+    private static RepositoryPage page(ResultSnapshot snapshot, int offset, int perPage) {
+        List<GithubRepository> repositories = snapshot.repositories();
+        int end = Math.min(repositories.size(), offset + perPage);
+        String nextCursor = end < repositories.size() ? new Cursor(snapshot.id(), end).encode() : null;
+        return new RepositoryPage(repositories.subList(offset, end), nextCursor, repositories.size());
+    }
+
+    /**
+     * A page together with the snapshot it was cut from.
+     */
+    public record SnapshotPage(ResultSnapshot snapshot, RepositoryPage page) {
+    }
+
+    /**
+     * Position in a snapshot, encoded as URL-safe Base64 of {@code snapshotId:offset}.
+     */
+    record Cursor(String snapshotId, int offset) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((snapshotId + ":" + offset).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf(':');
+                int offset = Integer.parseInt(decoded.substring(separator + 1));
+                if (separator <= 0 || offset < 0) {
+                    throw new IllegalArgumentException();
+                }
+                return new Cursor(decoded.substring(0, separator), offset);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidCursorException(400, "Malformed cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.githubpopularity.service;
+
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionException;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+
+/**
+ * Popularity formula defined in configuration, compiled to bytecode once.
+ * <p>
+ * A formula is a pair of SpEL expressions over {@link ScoringInputs}: a base expression (stars, forks, language)
+ * and a recency expression (age in days) capped at {@code maxRecency}, mirroring the split of
+ * {@link PopularityScoringStrategy}. Both are parsed once, evaluated once against sample inputs to resolve their
+ * types, and compiled by the SpEL compiler into generated classes, so scoring runs as plain bytecode the JIT can
+ * inline rather than walking the expression tree. Expressions the compiler cannot handle are rejected instead of
+ * silently falling back to interpretation.
+ * <p>
+ * Compiled expressions are also evaluated against edge inputs (no stars, no forks, no language, age 0 and extreme
+ * counts) and rejected if they fail or give an infinite or NaN result there, as {@code log(stars)} or
+ * {@code forks / stars} would. Any non-finite result that still occurs while scoring counts as 0, so a single
+ * repository cannot poison a ranking.
+ * <p>
+ * Expressions are evaluated in a {@link SimpleEvaluationContext}: they can read the inputs and call their
+ * functions, but cannot reference types, beans or constructors.
+ */
+public final class ScoringFormula {
+
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.OFF, ScoringFormula.class.getClassLoader()));
+    private static final EvaluationContext CONTEXT = SimpleEvaluationContext.forReadOnlyDataBinding()
+            .withInstanceMethods()
+            .build();
+    private static final ScoringInputs[] EDGE_INPUTS = {
+            new ScoringInputs().set(0, 0, 0, null),
+            new ScoringInputs().set(0, 0, 0, "Java"),
+            new ScoringInputs().set(1, 0, 1, "Java"),
+            new ScoringInputs().set(0, 1, 1, null),
+            new ScoringInputs().set(Integer.MAX_VALUE, Integer.MAX_VALUE, 36_500, "Java"),
+    };
+
+    private final String base;
+    private final String recency;
+    private final double maxRecency;
+    private final Expression baseExpression;
+    private final Expression recencyExpression;
+
+    private ScoringFormula(String base, String recency, double maxRecency) {
+        this.base = base;
+        this.recency = recency;
+        this.maxRecency = maxRecency;
+        this.baseExpression = compile("base", base);
+        this.recencyExpression = compile("recency", recency);
+    }
+
+    /**
+     * Parses and compiles a formula.
+     *
+     * @param base       expression for the time-invariant score
+     * @param recency    expression for the recency score, usually a function of {@code ageDays}
+     * @param maxRecency upper bound of the recency score; results are clamped to {@code [0, maxRecency]}
+     * @return compiled formula
+     * @throws IllegalArgumentException if an expression is invalid, cannot be compiled, or gives a non-finite
+     *                                  result for edge inputs
+     */
+    public static ScoringFormula compile(String base, String recency, double maxRecency) {
+        if (maxRecency < 0 || Double.isNaN(maxRecency)) {
+            throw new IllegalArgumentException("maxRecency must not be negative");
+        }
+        return new ScoringFormula(base, recency, maxRecency);
+    }
+
+    /**
+     * @return the base score of the inputs
+     */
+    public double base(ScoringInputs inputs) {
+        return evaluate(baseExpression, inputs);
+    }
+
+    /**
+     * @return the recency score of the inputs, between 0 and {@link #maxRecency()}
+     */
+    public double recency(ScoringInputs inputs) {
+        return Math.max(0, Math.min(maxRecency, evaluate(recencyExpression, inputs)));
+    }
+
+    public String base() {
+        return base;
+    }
+
+    public String recency() {
+        return recency;
+    }
+
+    public double maxRecency() {
+        return maxRecency;
+    }
+
+    private static double evaluate(Expression expression, ScoringInputs inputs) {
+        // compiled expressions return a boxed number; unboxing here skips the context's type conversion
+        double value = ((Number) expression.getValue(CONTEXT, inputs)).doubleValue();
+        return Double.isFinite(value) ? value : 0;
+    }
+
+    private static Expression compile(String name, String source) {
+        if (source == null || source.isBlank()) {
+            throw new IllegalArgumentException("The " + name + " expression must not be blank");
+        }
+        SpelExpression expression;
+        try {
+            expression = PARSER.parseRaw(source);
+            // the compiler needs the types seen by one interpreted evaluation
+            Object sample = expression.getValue(CONTEXT, new ScoringInputs().set(100, 10, 1, "Java"));
+            if (!(sample instanceof Number)) {
+                throw new IllegalArgumentException("The " + name + " expression '" + source + "' must be numeric");
+            }
+        } catch (ExpressionException e) {
+            throw new IllegalArgumentException("Invalid " + name + " expression '" + source + "': " + e.getMessage(), e);
+        }
+        if (!expression.compileExpression()) {
+            throw new IllegalArgumentException("The " + name + " expression '" + source + "' cannot be compiled;"
+                    + " pass decimal literals (1.0, not 1) to functions and use select(condition, a, b) instead of ?:");
+        }
+        checkEdgeInputs(name, source, expression);
+        return expression;
+    }
+
+    private static void checkEdgeInputs(String name, String source, Expression expression) {
+        for (ScoringInputs inputs : EDGE_INPUTS) {
+            Object value;
+            try {
+                value = expression.getValue(CONTEXT, inputs);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("The " + name + " expression '" + source + "' fails for "
+                        + describe(inputs) + ": " + e.getMessage(), e);
+            }
+            if (!(value instanceof Number number) || !Double.isFinite(number.doubleValue())) {
+                throw new IllegalArgumentException("The " + name + " expression '" + source + "' gives " + value
+                        + " for " + describe(inputs) + "; scores must be finite");
+            }
+        }
+    }
+
+    private static String describe(ScoringInputs inputs) {
+        return "stars=" + (long) inputs.getStars() + ", forks=" + (long) inputs.getForks()
+                + ", ageDays=" + (long) inputs.getAgeDays() + ", language='" + inputs.getLanguage() + "'";
+    }
+
+    @Override
+    public String toString() {
+        return "ScoringFormula[base=" + base + ", recency=" + recency + ", maxRecency=" + maxRecency + "]";
+    }
+}
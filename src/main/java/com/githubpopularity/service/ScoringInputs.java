@@ -0,0 +1,82 @@
+package com.githubpopularity.service;
+
+/**
+ * Root object of a {@link ScoringFormula}: the repository fields a formula can read, and the math functions it
+ * can call.
+ * <p>
+ * Numeric fields are doubles, so {@code stars / 50000} divides in floating point. Instances are mutable and
+ * reused across the repositories of a batch; they must not be shared between threads.
+ */
+public final class ScoringInputs {
+
+    private double stars;
+    private double forks;
+    private double ageDays;
+    private String language;
+
+    ScoringInputs set(int stars, int forks, long ageDays, String language) {
+        this.stars = stars;
+        this.forks = forks;
+        this.ageDays = ageDays;
+        this.language = language;
+        return this;
+    }
+
+    public double getStars() {
+        return stars;
+    }
+
+    public double getForks() {
+        return forks;
+    }
+
+    /**
+     * @return whole days since the repository was last updated
+     */
+    public double getAgeDays() {
+        return ageDays;
+    }
+
+    /**
+     * @return primary language, or an empty string if GitHub reports none
+     */
+    public String getLanguage() {
+        return language == null ? "" : language;
+    }
+
+    public double exp(double value) {
+        return Math.exp(value);
+    }
+
+    public double log(double value) {
+        return Math.log(value);
+    }
+
+    public double log1p(double value) {
+        return Math.log1p(value);
+    }
+
+    public double sqrt(double value) {
+        return Math.sqrt(value);
+    }
+
+    public double pow(double base, double exponent) {
+        return Math.pow(base, exponent);
+    }
+
+    public double min(double a, double b) {
+        return Math.min(a, b);
+    }
+
+    public double max(double a, double b) {
+        return Math.max(a, b);
+    }
+
+    /**
+     * Conditional that evaluates both branches, so it compiles even when one branch is never taken while the
+     * formula is being compiled, unlike the {@code ?:} operator.
+     */
+    public double select(boolean condition, double ifTrue, double ifFalse) {
+        return condition ? ifTrue : ifFalse;
+    }
+}
@@ -0,0 +1,116 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.client.ReactiveGithubApiClient;
+import com.githubpopularity.client.RequestPriority;
+import com.githubpopularity.model.GithubRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Service crawling every repository of a language beyond GitHub's 1,000-result search cap.
+ * <p>
+ * The {@code created:} range is split recursively until each sub-range reports a {@code total_count}
+ * that fits under the cap. Shards are then fetched in parallel as background work under the rate-limit
+ * budget, and the results are merged into a single stream deduplicated by {@code fullName}.
+ */
+@Service
+public class ShardedCrawlService {
+    private static final Logger logger = LoggerFactory.getLogger(ShardedCrawlService.class);
+
+    static final int SEARCH_RESULT_CAP = 1000;
+    static final int PAGE_SIZE = 100;
+
+    private final ReactiveGithubApiClient githubApiClient;
+    private final int concurrency;
+
+    public ShardedCrawlService(ReactiveGithubApiClient githubApiClient,
+                               @Value("${popularity.crawl.concurrency:4}") int concurrency) {
+        this.githubApiClient = githubApiClient;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Crawls all repositories of a language created after the given date.
+     *
+     * @param language     programming language to filter by
+     * @param createdAfter only repositories created after this date (YYYY-MM-DD)
+     * @return Flux emitting each matching repository once, unscored
+     */
+    public Flux<GithubRepository> crawl(String language, String createdAfter) {
+        Instant from = LocalDate.parse(createdAfter).plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        return crawl(language, from, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    Flux<GithubRepository> crawl(String language, Instant from, Instant to) {
+        logger.info("Crawling repositories for language={} created between {} and {}", language, from, to);
+        return shard(language, new CreatedRange(from, to))
+                .flatMap(shard -> fetchShard(language, shard), concurrency)
+                .distinct(GithubRepository::fullName)
+                .contextWrite(Context.of(RequestPriority.class, RequestPriority.BACKGROUND));
+    }
+
+    private Flux<Shard> shard(String language, CreatedRange range) {
+        return githubApiClient.countRepositories(range.toQuery(language))
+                .flatMapMany(count -> {
+                    if (count == 0) {
+                        return Flux.empty();
+                    }
+                    if (count <= SEARCH_RESULT_CAP || !range.isSplittable()) {
+                        if (count > SEARCH_RESULT_CAP) {
+                            logger.warn("Range {}..{} has {} repositories and cannot be split further; only {} are reachable",
+                                    range.from(), range.to(), count, SEARCH_RESULT_CAP);
+                        }
+                        logger.debug("Shard {}..{} holds {} repositories", range.from(), range.to(), count);
+                        return Flux.just(new Shard(range, count));
+                    }
+                    return Flux.just(range.lower(), range.upper())
+                            .flatMap(half -> shard(language, half), 2);
+                });
+    }
+
+    private Flux<GithubRepository> fetchShard(String language, Shard shard) {
+        int pages = (int) Math.ceil(Math.min(shard.count(), SEARCH_RESULT_CAP) / (double) PAGE_SIZE);
+        String query = shard.range().toQuery(language);
+        return Flux.range(1, pages)
+                .flatMap(page -> githubApiClient.searchRepositories(query, PAGE_SIZE, page), concurrency);
+    }
+
+    /**
+     * Inclusive range of creation instants with second precision.
+     */
+    record CreatedRange(Instant from, Instant to) {
+
+        String toQuery(String language) {
+            return String.format("language:%s created:%s..%s", language, from, to);
+        }
+
+        boolean isSplittable() {
+            return to.isAfter(from);
+        }
+
+        CreatedRange lower() {
+            return new CreatedRange(from, midpoint());
+        }
+
+        CreatedRange upper() {
+            return new CreatedRange(midpoint().plusSeconds(1), to);
+        }
+
+        private Instant midpoint() {
+            return from.plusSeconds(Duration.between(from, to).getSeconds() / 2);
+        }
+    }
+
+    private record Shard(CreatedRange range, long count) {
+    }
+}
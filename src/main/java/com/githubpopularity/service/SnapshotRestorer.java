@@ -0,0 +1,74 @@
+package com.githubpopularity.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.githubpopularity.cache.RepositoryPool;
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+import com.githubpopularity.model.RepositoryResult;
+import com.githubpopularity.store.Snapshot;
+import com.githubpopularity.store.SnapshotStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Loads the working set from the {@link SnapshotStore} at startup, before warm-up and before the application
+ * reports itself ready.
+ * <p>
+ * The most recent {@code popularity.store.restore-limit} snapshots become last good results. Snapshots younger
+ * than the repository cache TTL are also put in the repository cache, so they are served without a GitHub call.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SnapshotRestorer implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotRestorer.class);
+
+    private final SnapshotStore snapshotStore;
+    private final Cache<RepositoryQuery, List<GithubRepository>> repositoryCache;
+    private final Cache<RepositoryQuery, RepositoryResult> lastGoodResultCache;
+    private final RepositoryPool repositoryPool;
+    private final int restoreLimit;
+
+    public SnapshotRestorer(SnapshotStore snapshotStore,
+                            Cache<RepositoryQuery, List<GithubRepository>> repositoryCache,
+                            Cache<RepositoryQuery, RepositoryResult> lastGoodResultCache,
+                            RepositoryPool repositoryPool,
+                            @Value("${popularity.store.restore-limit:1000}") int restoreLimit) {
+        this.snapshotStore = snapshotStore;
+        this.repositoryCache = repositoryCache;
+        this.lastGoodResultCache = lastGoodResultCache;
+        this.repositoryPool = repositoryPool;
+        this.restoreLimit = restoreLimit;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.nanoTime();
+        Instant freshAfter = repositoryCache.policy().expireAfterWrite()
+                .map(expiration -> Instant.now().minus(expiration.getExpiresAfter()))
+                .orElse(Instant.MAX);
+        List<Snapshot> snapshots = snapshotStore.latest(restoreLimit);
+        int fresh = 0;
+        for (Snapshot snapshot : snapshots) {
+            List<GithubRepository> repositories = repositoryPool.intern(snapshot.repositories());
+            lastGoodResultCache.put(snapshot.query(), RepositoryResult.stale(repositories));
+            if (snapshot.writtenAt().isAfter(freshAfter)) {
+                repositoryCache.put(snapshot.query(), repositories);
+                fresh++;
+            }
+        }
+        if (!snapshots.isEmpty()) {
+            logger.info("Restored {} snapshots ({} still fresh) in {} ms", snapshots.size(), fresh,
+                    Duration.ofNanos(System.nanoTime() - started).toMillis());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.githubpopularity.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.githubpopularity.cache.RepositoryPool;
+import com.githubpopularity.client.CircuitBreaker;
+import com.githubpopularity.client.ReactiveGithubApiClient;
+import com.githubpopularity.client.RequestPriority;
+import com.githubpopularity.exception.GithubApiException;
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+import com.githubpopularity.model.RepositoryResult;
+import com.githubpopularity.store.SnapshotStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stale-while-revalidate support for repository queries.
+ * <p>
+ * Keeps the last good result of every query in memory and in the {@link SnapshotStore}, which holds far more
+ * queries than fit in the cache. When GitHub is unavailable (server errors, throttling or an open
+ * {@link CircuitBreaker}) that result is served marked as stale, and the query is queued for revalidation.
+ * Queued queries are refreshed in the background, one at a time, as soon as the circuit breaker half-opens
+ * or closes; the first refresh doubles as the breaker's trial call.
+ */
+@Component
+public class StaleResultFallback {
+    private static final Logger logger = LoggerFactory.getLogger(StaleResultFallback.class);
+
+    private final ReactiveGithubApiClient githubApiClient;
+    private final Cache<RepositoryQuery, List<GithubRepository>> repositoryCache;
+    private final Cache<RepositoryQuery, RepositoryResult> lastGoodResultCache;
+    private final SnapshotStore snapshotStore;
+    private final RepositoryPool repositoryPool;
+    private final Set<RepositoryQuery> pendingRefresh = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    public StaleResultFallback(ReactiveGithubApiClient githubApiClient,
+                               CircuitBreaker githubCircuitBreaker,
+                               Cache<RepositoryQuery, List<GithubRepository>> repositoryCache,
+                               Cache<RepositoryQuery, RepositoryResult> lastGoodResultCache,
+                               SnapshotStore snapshotStore,
+                               RepositoryPool repositoryPool) {
+        this.githubApiClient = githubApiClient;
+        this.repositoryCache = repositoryCache;
+        this.lastGoodResultCache = lastGoodResultCache;
+        this.snapshotStore = snapshotStore;
+        this.repositoryPool = repositoryPool;
+        githubCircuitBreaker.addListener(state -> {
+            if (state != CircuitBreaker.State.OPEN) {
+                refreshPending();
+            }
+        });
+    }
+
+    /**
+     * Records a successful result as the last good result for its query and queues it for persistence.
+     */
+    public void remember(RepositoryQuery query, List<GithubRepository> repositories) {
+        lastGoodResultCache.put(query, RepositoryResult.stale(repositories));
+        snapshotStore.append(query, repositories);
+        pendingRefresh.remove(query);
+    }
+
+    /**
+     * Looks up a stale result to serve in place of a failed call.
+     *
+     * @param query query that failed
+     * @param error failure returned by the GitHub client
+     * @return the last good result marked as stale, or empty if the error is not an outage or nothing is known
+     */
+    public Optional<RepositoryResult> recover(RepositoryQuery query, GithubApiException error) {
+        if (!error.isUpstreamUnavailable()) {
+            return Optional.empty();
+        }
+        RepositoryResult lastGood = lastGoodResultCache.get(query, key -> snapshotStore.read(key)
+                .map(snapshot -> RepositoryResult.stale(repositoryPool.intern(snapshot.repositories())))
+                .orElse(null));
+        if (lastGood == null) {
+            return Optional.empty();
+        }
+        logger.warn("Serving stale repositories for query='{}' after GitHub error (status={}): {}",
+                query.toSearchQuery(), error.getStatusCode(), error.getMessage());
+        pendingRefresh.add(query);
+        return Optional.of(lastGood);
+    }
+
+    /**
+     * Refreshes queued queries in the background, sequentially so a recovering GitHub is not flooded.
+     * Queries that fail again stay queued for the next half-open.
+     */
+    void refreshPending() {
+        if (pendingRefresh.isEmpty() || !refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        logger.info("Refreshing {} stale queries", pendingRefresh.size());
+        Flux.fromIterable(List.copyOf(pendingRefresh))
+                .concatMap(this::refresh)
+                .contextWrite(context -> context.put(RequestPriority.class, RequestPriority.BACKGROUND))
+                .doFinally(signal -> refreshing.set(false))
+                .subscribe();
+    }
+
+    private Mono<List<GithubRepository>> refresh(RepositoryQuery query) {
+        return githubApiClient.searchRepositories(query.toSearchQuery(), query.perPage(), query.page())
+                .collectList()
+                .map(repositoryPool::intern)
+                .doOnNext(repositories -> {
+                    repositoryCache.put(query, repositories);
+                    remember(query, repositories);
+                    logger.info("Refreshed stale query='{}' with {} repositories", query.toSearchQuery(), repositories.size());
+                })
+                .onErrorResume(GithubApiException.class, e -> {
+                    logger.debug("Stale query='{}' not refreshed: {}", query.toSearchQuery(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
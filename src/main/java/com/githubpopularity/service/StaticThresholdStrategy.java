@@ -3,6 +3,9 @@ package com.githubpopularity.service;
 import com.githubpopularity.model.GithubRepository;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,18 +14,33 @@ import org.slf4j.LoggerFactory;
  * <p>
  * Calculates a popularity score for a GitHub repository using stars, forks, and recency.
  * Stars and forks are normalized against configurable maximums, and recency decays exponentially.
+ * The score is the sum of a time-invariant {@link #baseScore(GithubRepository) base score} (stars and forks)
+ * and a {@link #recencyScore(Instant, Instant) recency score} of at most {@value #RECENCY_WEIGHT}, so stored
+ * base scores can be re-ranked against the current clock without rescoring.
+ * <p>
+ * Batches are scored over primitive columns with a single clock snapshot; batches larger than the
+ * parallel threshold are split across cores with fork/join.
  */
 public class StaticThresholdStrategy implements PopularityScoringStrategy {
     private static final Logger logger = LoggerFactory.getLogger(StaticThresholdStrategy.class);
 
+    static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+    static final double RECENCY_WEIGHT = 10.0;
+
     private final int maxStars;
     private final int maxForks;
     private final int recencyDecayDays;
+    private final int parallelThreshold;
 
     public StaticThresholdStrategy(int maxStars, int maxForks, int recencyDecayDays) {
+        this(maxStars, maxForks, recencyDecayDays, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public StaticThresholdStrategy(int maxStars, int maxForks, int recencyDecayDays, int parallelThreshold) {
         this.maxStars = maxStars;
         this.maxForks = maxForks;
         this.recencyDecayDays = recencyDecayDays;
+        this.parallelThreshold = parallelThreshold;
     }
 
     /**
@@ -33,22 +51,108 @@ public class StaticThresholdStrategy implements PopularityScoringStrategy {
      */
     @Override
     public GithubRepository calculateScore(GithubRepository repo) {
-        logger.debug("Calculating popularity score for repository: {}", repo.fullName());
-        double starsScore = calculateNormalizedScore(repo.stars(), maxStars);
-        double forksScore = calculateNormalizedScore(repo.forks(), maxForks);
-        double recencyScore = calculateRecencyScore(repo.lastUpdated());
-
-        double score = (starsScore * 0.6 + forksScore * 0.3 + recencyScore * 0.1) * 100;
-        logger.debug("Score details - stars: {}, forks: {}, recency: {}, final: {}", starsScore, forksScore, recencyScore, score);
+        double score = baseScore(repo) + recencyScore(repo.lastUpdated(), Instant.now());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Calculated popularity score for repository {}: {}", repo.fullName(), score);
+        }
         return repo.withScore(score);
     }
 
+    @Override
+    public double baseScore(GithubRepository repo) {
+        return baseScore(repo.stars(), repo.forks());
+    }
+
+    @Override
+    public double recencyScore(Instant lastUpdated, Instant now) {
+        return recencyScore(Duration.between(lastUpdated, now).toDays());
+    }
+
+    @Override
+    public double maxRecencyScore() {
+        return RECENCY_WEIGHT;
+    }
+
+    /**
+     * Calculates popularity scores for a list of repositories using one clock snapshot.
+     *
+     * @param repos list of repositories to score
+     * @return list of scored repositories
+     */
+    @Override
+    public List<GithubRepository> calculateScores(List<GithubRepository> repos) {
+        RepositoryBatch batch = RepositoryBatch.of(repos);
+        return batch.withScores(calculateScores(batch));
+    }
+
+    /**
+     * Calculates popularity scores over the columns of a batch.
+     *
+     * @param batch repositories to score
+     * @return scores aligned with the batch order
+     */
+    @Override
+    public double[] calculateScores(RepositoryBatch batch) {
+        double[] scores = new double[batch.size()];
+        if (batch.size() > parallelThreshold) {
+            ForkJoinPool.commonPool().invoke(new ScoreTask(batch, scores, 0, batch.size()));
+        } else {
+            scoreRange(batch, scores, 0, batch.size());
+        }
+        return scores;
+    }
+
+    private void scoreRange(RepositoryBatch batch, double[] scores, int from, int to) {
+        int[] stars = batch.stars();
+        int[] forks = batch.forks();
+        long[] ageDays = batch.ageDays();
+        for (int i = from; i < to; i++) {
+            scores[i] = score(stars[i], forks[i], ageDays[i]);
+        }
+    }
+
+    private double score(int stars, int forks, long daysSinceUpdate) {
+        return baseScore(stars, forks) + recencyScore(daysSinceUpdate);
+    }
+
+    private double baseScore(int stars, int forks) {
+        double starsScore = calculateNormalizedScore(stars, maxStars);
+        double forksScore = calculateNormalizedScore(forks, maxForks);
+        return (starsScore * 0.6 + forksScore * 0.3) * 100;
+    }
+
+    private double recencyScore(long daysSinceUpdate) {
+        return Math.exp(-daysSinceUpdate / (double) recencyDecayDays) * RECENCY_WEIGHT;
+    }
+
     private double calculateNormalizedScore(int value, int max) {
         return Math.min(1.0, (double) value / max);
     }
 
-    private double calculateRecencyScore(Instant lastUpdated) {
-        long daysSinceUpdate = Duration.between(lastUpdated, Instant.now()).toDays();
-        return Math.exp(-daysSinceUpdate / (double) recencyDecayDays);
+    /**
+     * Splits a batch range in halves until it fits under the parallel threshold.
+     */
+    private final class ScoreTask extends RecursiveAction {
+        private final RepositoryBatch batch;
+        private final double[] scores;
+        private final int from;
+        private final int to;
+
+        ScoreTask(RepositoryBatch batch, double[] scores, int from, int to) {
+            this.batch = batch;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= parallelThreshold) {
+                scoreRange(batch, scores, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScoreTask(batch, scores, from, mid), new ScoreTask(batch, scores, mid, to));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,182 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.store.RepositoryStore;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Every known repository of one language, kept ordered by base score and updated in place by delta syncs.
+ * <p>
+ * Repositories are held in a {@link RepositoryStore}, indexed by {@code fullName} and iterable by score: on the heap
+ * by default, or off-heap for crawl-scale languages (see {@code popularity.sync.store}). A merged repository is only
+ * re-scored when its stars, forks or {@code lastUpdated} differ from the stored copy.
+ * <p>
+ * Stored repositories carry their time-invariant {@link PopularityScoringStrategy#baseScore base score}; the
+ * recency score is added when the top K are read, so the ranking never goes stale as time passes. Since the
+ * recency score is bounded, the read walks the store in base score order and stops once no remaining repository
+ * can reach the top K.
+ * Thread-safe; merges and reads are serialized on the instance.
+ */
+public class SyncedRanking {
+
+    private RepositoryStore repositories;
+    private Instant watermark;
+    private Instant lastFullSync;
+    private Instant lastRead;
+    private boolean released;
+
+    public SyncedRanking() {
+        this(RepositoryStore.onHeap());
+    }
+
+    /**
+     * @param repositories empty store to hold the ranked repositories
+     */
+    public SyncedRanking(RepositoryStore repositories) {
+        this.repositories = repositories;
+    }
+
+    /**
+     * Replaces the ranking with the result of a full crawl.
+     *
+     * @param scored   every repository of the language, carrying base scores
+     * @param syncedAt time the crawl started; becomes the watermark for the next delta sync
+     */
+    public synchronized void replaceAll(Collection<GithubRepository> scored, Instant syncedAt) {
+        repositories.clear();
+        for (GithubRepository repo : scored) {
+            repositories.put(repo);
+        }
+        watermark = syncedAt;
+        lastFullSync = syncedAt;
+    }
+
+    /**
+     * Replaces the ranking with a store filled by a full crawl, so the crawl need not be collected in memory first.
+     * The previous store is dropped and must not be used anymore.
+     *
+     * @param scored   store holding every repository of the language, carrying base scores
+     * @param syncedAt time the crawl started; becomes the watermark for the next delta sync
+     */
+    public synchronized void replaceAll(RepositoryStore scored, Instant syncedAt) {
+        repositories.clear();
+        repositories = scored;
+        watermark = syncedAt;
+        lastFullSync = syncedAt;
+    }
+
+    /**
+     * Merges repositories reported as changed since the watermark.
+     *
+     * @param changed  unscored repositories returned by the delta search
+     * @param scorer   sets the base score of a repository; only called for new or changed repositories
+     * @param syncedAt time the delta search started; becomes the new watermark
+     * @return number of repositories that were added or re-scored
+     */
+    public synchronized int merge(Collection<GithubRepository> changed, UnaryOperator<GithubRepository> scorer,
+                                  Instant syncedAt) {
+        int updated = 0;
+        for (GithubRepository repo : changed) {
+            GithubRepository existing = repositories.get(repo.fullName());
+            if (existing != null && !hasChanged(existing, repo)) {
+                continue;
+            }
+            repositories.put(scorer.apply(repo));
+            updated++;
+        }
+        watermark = syncedAt;
+        return updated;
+    }
+
+    /**
+     * Ranks the stored repositories against the given time.
+     *
+     * @param k        number of repositories to return
+     * @param strategy strategy that computed the base scores
+     * @param now      time to evaluate recency against
+     * @return the K highest-scoring repositories ordered by descending popularity score
+     */
+    public synchronized List<GithubRepository> top(int k, PopularityScoringStrategy strategy, Instant now) {
+        TopKAccumulator accumulator = new TopKAccumulator(k);
+        double maxRecency = strategy.maxRecencyScore();
+        for (Iterator<GithubRepository> byScore = repositories.byScore(); byScore.hasNext(); ) {
+            GithubRepository repo = byScore.next();
+            if (repo.popularityScore() + maxRecency < accumulator.threshold()) {
+                break;
+            }
+            accumulator.offer(repo.withScore(repo.popularityScore() + strategy.recencyScore(repo.lastUpdated(), now)));
+        }
+        return accumulator.toSortedList();
+    }
+
+    /**
+     * Ranks the stored repositories for a request and records the read, which keeps the ranking from being
+     * evicted as least recently read.
+     *
+     * @param k        number of repositories to return
+     * @param strategy strategy that computed the base scores
+     * @param now      time to evaluate recency against; becomes the last read time
+     * @return the K highest-scoring repositories ordered by descending popularity score, or empty if the ranking
+     * was released
+     */
+    public synchronized Optional<List<GithubRepository>> read(int k, PopularityScoringStrategy strategy, Instant now) {
+        if (released) {
+            return Optional.empty();
+        }
+        lastRead = now;
+        return Optional.of(top(k, strategy, now));
+    }
+
+    /**
+     * @return time of the last {@link #read}, or null if never read
+     */
+    public synchronized Instant getLastRead() {
+        return lastRead;
+    }
+
+    /**
+     * Clears the store of an evicted ranking, releasing its memory. Later reads return nothing.
+     */
+    public synchronized void release() {
+        released = true;
+        repositories.clear();
+    }
+
+    public synchronized int size() {
+        return repositories.size();
+    }
+
+    /**
+     * @return start time of the last successful sync, or null if never synced
+     */
+    public synchronized Instant getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * @return start time of the last full crawl, or null if never crawled
+     */
+    public synchronized Instant getLastFullSync() {
+        return lastFullSync;
+    }
+
+    /**
+     * Forgets the last full crawl, so the next sync crawls the language again and rescores every repository.
+     */
+    public synchronized void requireFullSync() {
+        lastFullSync = null;
+    }
+
+    static boolean hasChanged(GithubRepository stored, GithubRepository fetched) {
+        return stored.stars() != fetched.stars()
+                || stored.forks() != fetched.forks()
+                || !Objects.equals(stored.lastUpdated(), fetched.lastUpdated());
+    }
+}
@@ -0,0 +1,77 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.model.GithubRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Keeps the K highest-scoring repositories seen so far.
+ * <p>
+ * Backed by a min-heap of at most K entries, so memory stays O(K) regardless of how many
+ * repositories are offered. Repositories are deduplicated by {@code fullName}.
+ * Not thread-safe; intended to be used as a reduction state.
+ */
+public class TopKAccumulator {
+
+    static final Comparator<GithubRepository> BY_SCORE = Comparator
+            .comparingDouble(GithubRepository::popularityScore)
+            .thenComparing(GithubRepository::fullName, Comparator.reverseOrder());
+
+    private final int k;
+    private final PriorityQueue<GithubRepository> heap;
+    private final Set<String> members;
+
+    public TopKAccumulator(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1");
+        }
+        this.k = k;
+        this.heap = new PriorityQueue<>(k, BY_SCORE);
+        this.members = new HashSet<>();
+    }
+
+    /**
+     * Offers a scored repository to the ranking.
+     *
+     * @param repo the scored repository
+     * @return true if the repository is currently among the top K
+     */
+    public boolean offer(GithubRepository repo) {
+        if (members.contains(repo.fullName())) {
+            return false;
+        }
+        if (heap.size() < k) {
+            heap.add(repo);
+            members.add(repo.fullName());
+            return true;
+        }
+        if (BY_SCORE.compare(repo, heap.peek()) <= 0) {
+            return false;
+        }
+        members.remove(heap.poll().fullName());
+        heap.add(repo);
+        members.add(repo.fullName());
+        return true;
+    }
+
+    /**
+     * @return score a repository must beat to enter the ranking; negative infinity until K are retained
+     */
+    public double threshold() {
+        return heap.size() < k ? Double.NEGATIVE_INFINITY : heap.peek().popularityScore();
+    }
+
+    /**
+     * @return the retained repositories ordered by descending popularity score
+     */
+    public List<GithubRepository> toSortedList() {
+        List<GithubRepository> result = new ArrayList<>(heap);
+        result.sort(BY_SCORE.reversed());
+        return result;
+    }
+}
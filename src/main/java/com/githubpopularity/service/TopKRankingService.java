@@ -0,0 +1,125 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.model.GithubRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Service ranking repositories across many GitHub result pages.
+ * <p>
+ * Pages are fetched concurrently (bounded by {@code popularity.ranking.concurrency}) and each
+ * repository is scored as soon as its page arrives. Only the best K repositories are kept,
+ * so the ranking is a true top-K by popularity score rather than GitHub's star order for one page.
+ * A crawl ranking covers every repository of a language via {@link ShardedCrawlService}. Each ranking or stream is
+ * scored with the {@link PopularityScoringStrategy#forRun() strategy for a run} taken when it is subscribed.
+ * <p>
+ * For exports too large to rank and serialize in one piece, the same sources can be streamed: repositories are
+ * emitted scored as their page arrives, unranked, with demand from the client bounding how many pages are fetched
+ * ahead.
+ */
+@Service
+public class TopKRankingService {
+    private static final Logger logger = LoggerFactory.getLogger(TopKRankingService.class);
+
+    private final ReactiveGithubRepositoryService githubService;
+    private final ShardedCrawlService crawlService;
+    private final PopularityScoringStrategy scoringStrategy;
+    private final int concurrency;
+    private final int pageSize;
+    private final int maxPages;
+
+    public TopKRankingService(ReactiveGithubRepositoryService githubService,
+                              ShardedCrawlService crawlService,
+                              PopularityScoringStrategy scoringStrategy,
+                              @Value("${popularity.ranking.concurrency:4}") int concurrency,
+                              @Value("${popularity.ranking.page-size:100}") int pageSize,
+                              @Value("${popularity.ranking.max-pages:10}") int maxPages) {
+        this.githubService = githubService;
+        this.crawlService = crawlService;
+        this.scoringStrategy = scoringStrategy;
+        this.concurrency = concurrency;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+    }
+
+    /**
+     * Fetches up to {@code pages} result pages and returns the K most popular repositories.
+     *
+     * @param language     programming language to filter by
+     * @param createdAfter earliest creation date (YYYY-MM-DD)
+     * @param k            number of repositories to return
+     * @param pages        number of GitHub result pages to scan; capped at {@code popularity.ranking.max-pages}
+     * @return Mono emitting the top K repositories ordered by descending popularity score
+     */
+    public Mono<List<GithubRepository>> rankTopK(String language, String createdAfter, int k, int pages) {
+        int pageCount = Math.min(pages, maxPages);
+        logger.info("Ranking top {} repositories for language={}, createdAfter={} across {} pages",
+                k, language, createdAfter, pageCount);
+
+        return rank(Flux.range(1, pageCount)
+                .flatMap(page -> githubService.fetchRepositories(language, createdAfter, pageSize, page), concurrency)
+                .flatMapIterable(repositories -> repositories), k);
+    }
+
+    /**
+     * Crawls every repository of a language and returns the K most popular ones.
+     *
+     * @param language     programming language to filter by
+     * @param createdAfter earliest creation date (YYYY-MM-DD)
+     * @param k            number of repositories to return
+     * @return Mono emitting the top K repositories ordered by descending popularity score
+     */
+    public Mono<List<GithubRepository>> rankCrawl(String language, String createdAfter, int k) {
+        logger.info("Ranking top {} repositories for language={}, createdAfter={} across a full crawl",
+                k, language, createdAfter);
+        return rank(crawlService.crawl(language, createdAfter), k);
+    }
+
+    /**
+     * Streams scored repositories from up to {@code pages} result pages, in GitHub page order.
+     *
+     * @param language     programming language to filter by
+     * @param createdAfter earliest creation date (YYYY-MM-DD)
+     * @param pages        number of GitHub result pages to scan; capped at {@code popularity.ranking.max-pages}
+     * @return Flux emitting each repository scored, as soon as its page is fetched
+     */
+    public Flux<GithubRepository> streamPages(String language, String createdAfter, int pages) {
+        int pageCount = Math.min(pages, maxPages);
+        logger.info("Streaming repositories for language={}, createdAfter={} across {} pages",
+                language, createdAfter, pageCount);
+        return Flux.defer(() -> Flux.range(1, pageCount)
+                .flatMapSequential(page -> githubService.fetchRepositories(language, createdAfter, pageSize, page),
+                        concurrency, 1)
+                .concatMapIterable(scoringStrategy.forRun()::calculateScores, 1));
+    }
+
+    /**
+     * Streams every repository of a language, scored, as the crawl fetches it.
+     *
+     * @param language     programming language to filter by
+     * @param createdAfter earliest creation date (YYYY-MM-DD)
+     * @return Flux emitting each repository once, scored
+     */
+    public Flux<GithubRepository> streamCrawl(String language, String createdAfter) {
+        logger.info("Streaming repositories for language={}, createdAfter={} across a full crawl",
+                language, createdAfter);
+        return Flux.defer(() -> crawlService.crawl(language, createdAfter)
+                .map(scoringStrategy.forRun()::calculateScore));
+    }
+
+    private Mono<List<GithubRepository>> rank(Flux<GithubRepository> repositories, int k) {
+        return Mono.defer(() -> repositories
+                .map(scoringStrategy.forRun()::calculateScore)
+                .reduceWith(() -> new TopKAccumulator(k), (accumulator, repo) -> {
+                    accumulator.offer(repo);
+                    return accumulator;
+                })
+                .map(TopKAccumulator::toSortedList));
+    }
+}
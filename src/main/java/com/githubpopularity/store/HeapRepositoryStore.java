@@ -0,0 +1,53 @@
+package com.githubpopularity.store;
+
+import com.githubpopularity.model.GithubRepository;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * {@link RepositoryStore} holding repository records on the heap, in a hash map by full name and a sorted set
+ * by descending score, ties broken by full name. Every operation is O(log n).
+ */
+class HeapRepositoryStore implements RepositoryStore {
+
+    private static final Comparator<GithubRepository> BY_SCORE_DESCENDING = Comparator
+            .comparingDouble(GithubRepository::popularityScore).reversed()
+            .thenComparing(GithubRepository::fullName);
+
+    private final Map<String, GithubRepository> byFullName = new HashMap<>();
+    private final TreeSet<GithubRepository> byScore = new TreeSet<>(BY_SCORE_DESCENDING);
+
+    @Override
+    public void put(GithubRepository repository) {
+        GithubRepository previous = byFullName.put(repository.fullName(), repository);
+        if (previous != null) {
+            byScore.remove(previous);
+        }
+        byScore.add(repository);
+    }
+
+    @Override
+    public GithubRepository get(String fullName) {
+        return byFullName.get(fullName);
+    }
+
+    @Override
+    public Iterator<GithubRepository> byScore() {
+        return byScore.iterator();
+    }
+
+    @Override
+    public int size() {
+        return byFullName.size();
+    }
+
+    @Override
+    public void clear() {
+        byFullName.clear();
+        byScore.clear();
+    }
+}
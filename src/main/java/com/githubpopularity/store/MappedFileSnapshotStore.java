@@ -0,0 +1,431 @@
+package com.githubpopularity.store;
+
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * {@link SnapshotStore} backed by a single append-only file.
+ * <p>
+ * The file starts with a magic number and format version, followed by records of
+ * {@code [int payloadLength][int crc32][payload]} (payload layout in {@link SnapshotCodec}).
+ * On open the file is scanned through read-only memory mappings and an in-memory index from query to the offset
+ * of its latest record is built; repositories stay on disk, so history is bounded by disk space rather than heap.
+ * A torn or corrupt tail left by a crash is truncated. The file is locked while open.
+ * <p>
+ * Appends are queued and written by a single background thread in batches, one write and one {@code force}
+ * per batch. When the queue is full new snapshots are dropped rather than blocking the caller.
+ * <p>
+ * Superseded records are dead weight, both on disk and for the scan on open. Once the file exceeds the compaction
+ * threshold and more than half of it is dead, the writer thread copies the latest record of each query to a new
+ * file and atomically moves it over the old one. Reads continue against the old file while it is copied.
+ */
+public class MappedFileSnapshotStore implements SnapshotStore {
+    private static final Logger logger = LoggerFactory.getLogger(MappedFileSnapshotStore.class);
+
+    static final int MAGIC = 0x47505331;
+    static final short VERSION = 1;
+    static final int FILE_HEADER_BYTES = Integer.BYTES + Short.BYTES;
+    static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
+    private static final long MAP_WINDOW_BYTES = 256L * 1024 * 1024;
+    private static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+    private static final long POLL_INTERVAL_MILLIS = 100;
+    private static final double MAX_DEAD_SHARE = 0.5;
+    static final long DEFAULT_COMPACT_THRESHOLD_BYTES = 64L * 1024 * 1024;
+
+    private final Path path;
+    private final int batchSize;
+    private final long compactThresholdBytes;
+    private final BlockingQueue<Snapshot> pending;
+    private final Map<RepositoryQuery, IndexEntry> index = new ConcurrentHashMap<>();
+    // guards the swap of file and index on compaction; reads hold it so they never mix the two
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final Thread writer;
+    private volatile FileChannel channel;
+    private volatile boolean closed;
+    private long end;
+    private long liveBytes;
+
+    /**
+     * Opens (or creates) the store file and indexes its records.
+     *
+     * @param path          file to store snapshots in
+     * @param batchSize     maximum number of snapshots written per batch
+     * @param queueCapacity maximum number of snapshots waiting to be written
+     */
+    public MappedFileSnapshotStore(Path path, int batchSize, int queueCapacity) {
+        this(path, batchSize, queueCapacity, DEFAULT_COMPACT_THRESHOLD_BYTES);
+    }
+
+    /**
+     * Opens (or creates) the store file and indexes its records.
+     *
+     * @param path                  file to store snapshots in
+     * @param batchSize             maximum number of snapshots written per batch
+     * @param queueCapacity         maximum number of snapshots waiting to be written
+     * @param compactThresholdBytes file size below which superseded records are never compacted away
+     */
+    public MappedFileSnapshotStore(Path path, int batchSize, int queueCapacity, long compactThresholdBytes) {
+        this.path = path;
+        this.batchSize = batchSize;
+        this.compactThresholdBytes = compactThresholdBytes;
+        this.pending = new LinkedBlockingQueue<>(queueCapacity);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = open(path);
+            long started = System.nanoTime();
+            this.end = load();
+            logger.info("Opened snapshot store {} with {} queries ({} bytes) in {} ms", path, index.size(), end,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open snapshot store " + path, e);
+        }
+        this.writer = new Thread(this::writeLoop, "snapshot-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void append(RepositoryQuery query, List<GithubRepository> repositories) {
+        if (closed) {
+            return;
+        }
+        if (!pending.offer(new Snapshot(query, Instant.now(), repositories))) {
+            logger.warn("Snapshot queue full, dropping snapshot for query='{}'", query.toSearchQuery());
+        }
+    }
+
+    @Override
+    public Optional<Snapshot> read(RepositoryQuery query) {
+        swapLock.readLock().lock();
+        try {
+            IndexEntry entry = index.get(query);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            ByteBuffer payload = ByteBuffer.allocate(entry.length());
+            if (!readFully(channel, payload, entry.offset())) {
+                return Optional.empty();
+            }
+            return Optional.of(SnapshotCodec.decode(payload.flip()));
+        } catch (IOException e) {
+            logger.warn("Could not read snapshot for query='{}': {}", query.toSearchQuery(), e.getMessage());
+            return Optional.empty();
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return size of the store file in bytes
+     */
+    long fileSize() {
+        swapLock.readLock().lock();
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Snapshot> latest(int limit) {
+        return index.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<RepositoryQuery, IndexEntry> entry) ->
+                        entry.getValue().writtenAtMillis()).reversed())
+                .limit(limit)
+                .map(entry -> read(entry.getKey()))
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.warn("Could not close snapshot store: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Opens a file and takes an exclusive lock on it, so two instances never append to the same file.
+     */
+    private static FileChannel open(Path file) throws IOException {
+        FileChannel opened = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = opened.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            opened.close();
+            throw new IllegalStateException("Snapshot store " + file + " is in use by another instance");
+        }
+        return opened;
+    }
+
+    /**
+     * Scans the file, building the index, and returns the offset where the next record goes.
+     */
+    private long load() throws IOException {
+        long size = channel.size();
+        if (size < FILE_HEADER_BYTES) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(MAGIC).putShort(VERSION).flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            return FILE_HEADER_BYTES;
+        }
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        channel.read(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getShort() != VERSION) {
+            throw new IOException("Not a snapshot store file or unsupported version");
+        }
+
+        long position = FILE_HEADER_BYTES;
+        CRC32 crc = new CRC32();
+        while (position < size) {
+            long windowSize = Math.min(MAP_WINDOW_BYTES, size - position);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+            int consumed = indexWindow(window, position, crc);
+            if (consumed == 0) {
+                break;
+            }
+            position += consumed;
+        }
+        if (position < size) {
+            logger.warn("Truncating {} bytes of incomplete or corrupt snapshot data", size - position);
+            channel.truncate(position);
+        }
+        return position;
+    }
+
+    /**
+     * Indexes every complete record in a mapped window.
+     *
+     * @return number of bytes consumed; 0 if the first record is incomplete or corrupt
+     */
+    private int indexWindow(MappedByteBuffer window, long windowStart, CRC32 crc) {
+        int offset = 0;
+        while (window.remaining() - offset >= RECORD_HEADER_BYTES) {
+            int length = window.getInt(offset);
+            int checksum = window.getInt(offset + Integer.BYTES);
+            int payloadStart = offset + RECORD_HEADER_BYTES;
+            if (length <= 0 || length > MAX_RECORD_BYTES || window.limit() - payloadStart < length) {
+                break;
+            }
+            ByteBuffer payload = window.slice(payloadStart, length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            Snapshot header = SnapshotCodec.decodeHeader(payload);
+            indexRecord(header.query(), new IndexEntry(windowStart + payloadStart, length,
+                    header.writtenAt().toEpochMilli()));
+            offset = payloadStart + length;
+        }
+        return offset;
+    }
+
+    /**
+     * Writer thread body. Polls instead of being interrupted on close, as an interrupt during a write
+     * would close the channel.
+     */
+    private void writeLoop() {
+        List<Snapshot> batch = new ArrayList<>(batchSize);
+        compactIfMostlyDead();
+        while (true) {
+            boolean draining = closed;
+            try {
+                Snapshot first = pending.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    pending.drainTo(batch, batchSize - 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (batch.isEmpty()) {
+                if (draining) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                write(batch);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not write {} snapshots: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+            compactIfMostlyDead();
+        }
+    }
+
+    private void write(List<Snapshot> batch) throws IOException {
+        List<byte[]> payloads = new ArrayList<>(batch.size());
+        int total = 0;
+        for (Snapshot snapshot : batch) {
+            byte[] payload = SnapshotCodec.encode(snapshot);
+            payloads.add(payload);
+            total += RECORD_HEADER_BYTES + payload.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        CRC32 crc = new CRC32();
+        for (byte[] payload : payloads) {
+            crc.reset();
+            crc.update(payload);
+            buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        }
+        buffer.flip();
+        long start = end;
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, start + buffer.position());
+        }
+        channel.force(false);
+
+        long offset = start;
+        for (int i = 0; i < batch.size(); i++) {
+            Snapshot snapshot = batch.get(i);
+            int length = payloads.get(i).length;
+            indexRecord(snapshot.query(), new IndexEntry(offset + RECORD_HEADER_BYTES, length,
+                    snapshot.writtenAt().toEpochMilli()));
+            offset += RECORD_HEADER_BYTES + length;
+        }
+        end = offset;
+    }
+
+    private void indexRecord(RepositoryQuery query, IndexEntry entry) {
+        IndexEntry previous = index.put(query, entry);
+        liveBytes += RECORD_HEADER_BYTES + entry.length();
+        if (previous != null) {
+            liveBytes -= RECORD_HEADER_BYTES + previous.length();
+        }
+    }
+
+    private void compactIfMostlyDead() {
+        long dead = end - FILE_HEADER_BYTES - liveBytes;
+        if (end < compactThresholdBytes || dead <= end * MAX_DEAD_SHARE) {
+            return;
+        }
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not compact snapshot store {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Rewrites the file with only the latest record of each query. Runs on the writer thread, so no record is
+     * appended meanwhile.
+     */
+    private void compact() throws IOException {
+        long started = System.nanoTime();
+        long previousSize = end;
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        FileChannel target = open(compacted);
+        Map<RepositoryQuery, IndexEntry> moved = new HashMap<>();
+        long position;
+        try {
+            target.truncate(0);
+            target.write(ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(MAGIC).putShort(VERSION).flip(), 0);
+            position = FILE_HEADER_BYTES;
+            List<Map.Entry<RepositoryQuery, IndexEntry>> live = new ArrayList<>(index.entrySet());
+            // copy in file order, so the old file is read sequentially
+            live.sort(Comparator.comparingLong(entry -> entry.getValue().offset()));
+            for (Map.Entry<RepositoryQuery, IndexEntry> entry : live) {
+                IndexEntry source = entry.getValue();
+                ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + source.length());
+                if (!readFully(channel, record, source.offset() - RECORD_HEADER_BYTES)) {
+                    throw new IOException("Snapshot store ended before the record of " + entry.getKey().toSearchQuery());
+                }
+                record.flip();
+                while (record.hasRemaining()) {
+                    target.write(record, position + record.position());
+                }
+                moved.put(entry.getKey(), new IndexEntry(position + RECORD_HEADER_BYTES, source.length(),
+                        source.writtenAtMillis()));
+                position += RECORD_HEADER_BYTES + source.length();
+            }
+            target.force(true);
+            Files.move(compacted, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            target.close();
+            Files.deleteIfExists(compacted);
+            throw e;
+        }
+
+        FileChannel previous;
+        swapLock.writeLock().lock();
+        try {
+            previous = channel;
+            channel = target;
+            index.clear();
+            index.putAll(moved);
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        previous.close();
+        end = position;
+        liveBytes = position - FILE_HEADER_BYTES;
+        logger.info("Compacted snapshot store {} from {} to {} bytes in {} ms", path, previousSize, end,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Location of the latest record of a query.
+     */
+    private record IndexEntry(long offset, int length, long writtenAtMillis) {
+    }
+}
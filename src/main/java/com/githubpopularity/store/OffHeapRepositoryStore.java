@@ -0,0 +1,519 @@
+package com.githubpopularity.store;
+
+import com.githubpopularity.model.GithubRepository;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link RepositoryStore} keeping repository records outside the Java heap, in direct {@link ByteBuffer}s, so a
+ * store of millions of repositories adds almost nothing to the heap or to garbage collection work.
+ * <p>
+ * Each repository is a fixed-width record of {@value #RECORD_SIZE} bytes (score, stars, forks, last update,
+ * flags and the address of its strings), allocated in chunks that never move. Its full name, name, description
+ * and language are appended to a string area as one block of length-prefixed UTF-8 values. Replacing a repository
+ * keeps its block if the strings are unchanged and otherwise orphans it; the string area is compacted once orphaned
+ * bytes outweigh live ones.
+ * <p>
+ * Full names are indexed by an off-heap open-addressing hash table of {@code hash << 32 | record + 1} entries, kept
+ * at most half full. The score order is an off-heap array of record numbers, brought up to date when next iterated:
+ * records added or re-scored since are sorted on their own and merged into the previous order, which costs
+ * O(n + m log m) for m changes instead of a full sort.
+ * <p>
+ * Records are materialized into {@link GithubRepository} instances when read. Nothing is allocated until the first
+ * repository is stored; the memory is released when the store is cleared or garbage collected, subject to
+ * {@code -XX:MaxDirectMemorySize}.
+ */
+public class OffHeapRepositoryStore implements RepositoryStore {
+
+    static final int RECORD_SIZE = 48;
+    private static final int SCORE = 0;
+    private static final int STARS = 8;
+    private static final int FORKS = 12;
+    private static final int UPDATED_SECONDS = 16;
+    private static final int UPDATED_NANOS = 24;
+    private static final int FLAGS = 28;
+    private static final int STRINGS = 32;
+    private static final int STRINGS_LENGTH = 40;
+
+    private static final int DIRTY = 1;
+    private static final int NULL_STRING = -1;
+    private static final long NO_UPDATE = Long.MIN_VALUE;
+
+    private static final int RECORD_CHUNK_SHIFT = 12;
+    private static final int RECORDS_PER_CHUNK = 1 << RECORD_CHUNK_SHIFT;
+    private static final int MIN_STRING_CHUNK = 1 << 16;
+    private static final int MAX_STRING_CHUNK = 1 << 22;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private ByteBuffer[] records;
+    private ByteBuffer[] strings;
+    private LongBuffer index;
+    // record numbers by descending score as of the last iteration, and scratch space for merging into
+    private IntBuffer order;
+    private IntBuffer spare;
+    private int ordered;
+    private int dirty;
+    private int size;
+    private long liveBytes;
+    private long deadBytes;
+    private int modifications;
+    private byte[] scratch = new byte[256];
+
+    @Override
+    public void put(GithubRepository repository) {
+        if (records == null) {
+            allocate();
+        }
+        int blockLength = encode(repository);
+        int hash = hash(repository.fullName());
+        int record = find(hash);
+        if (record < 0) {
+            record = size++;
+            if (record >>> RECORD_CHUNK_SHIFT == records.length) {
+                records = Arrays.copyOf(records, records.length * 2);
+            }
+            if (records[record >>> RECORD_CHUNK_SHIFT] == null) {
+                records[record >>> RECORD_CHUNK_SHIFT] = direct(RECORDS_PER_CHUNK * RECORD_SIZE);
+            }
+            index(hash, record);
+            writeStrings(record, blockLength);
+            markDirty(record);
+        } else {
+            if (!sameStrings(record, blockLength)) {
+                deadBytes += stringsLength(record);
+                liveBytes -= stringsLength(record);
+                writeStrings(record, blockLength);
+            }
+            if (Double.compare(score(record), repository.popularityScore()) != 0) {
+                markDirty(record);
+            }
+        }
+        ByteBuffer chunk = chunk(record);
+        int offset = offset(record);
+        Instant lastUpdated = repository.lastUpdated();
+        chunk.putDouble(offset + SCORE, repository.popularityScore());
+        chunk.putInt(offset + STARS, repository.stars());
+        chunk.putInt(offset + FORKS, repository.forks());
+        chunk.putLong(offset + UPDATED_SECONDS, lastUpdated == null ? NO_UPDATE : lastUpdated.getEpochSecond());
+        chunk.putInt(offset + UPDATED_NANOS, lastUpdated == null ? 0 : lastUpdated.getNano());
+        modifications++;
+        if (deadBytes > liveBytes && deadBytes > MAX_STRING_CHUNK) {
+            compact();
+        }
+    }
+
+    @Override
+    public GithubRepository get(String fullName) {
+        if (records == null) {
+            return null;
+        }
+        byte[] key = fullName == null ? null : fullName.getBytes(StandardCharsets.UTF_8);
+        int keyLength = key == null ? NULL_STRING : key.length;
+        if (key != null) {
+            ensureScratch(Integer.BYTES + keyLength);
+            System.arraycopy(key, 0, scratch, Integer.BYTES, keyLength);
+        }
+        scratch().putInt(0, keyLength);
+        int record = find(hash(fullName));
+        return record < 0 ? null : read(record);
+    }
+
+    @Override
+    public Iterator<GithubRepository> byScore() {
+        if (dirty > 0) {
+            reorder();
+        }
+        int expectedModifications = modifications;
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < ordered;
+            }
+
+            @Override
+            public GithubRepository next() {
+                if (modifications != expectedModifications) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next >= ordered) {
+                    throw new NoSuchElementException();
+                }
+                return read(order.get(next++));
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        records = null;
+        strings = null;
+        index = null;
+        order = null;
+        spare = null;
+        ordered = 0;
+        dirty = 0;
+        size = 0;
+        liveBytes = 0;
+        deadBytes = 0;
+        modifications++;
+    }
+
+    /**
+     * @return bytes of direct memory currently allocated by the store
+     */
+    public long offHeapBytes() {
+        if (records == null) {
+            return 0;
+        }
+        long bytes = (long) index.capacity() * Long.BYTES + (long) (order.capacity() + spare.capacity()) * Integer.BYTES;
+        for (ByteBuffer chunk : records) {
+            bytes += chunk == null ? 0 : chunk.capacity();
+        }
+        for (ByteBuffer chunk : strings) {
+            bytes += chunk == null ? 0 : chunk.capacity();
+        }
+        return bytes;
+    }
+
+    private void allocate() {
+        records = new ByteBuffer[16];
+        strings = new ByteBuffer[16];
+        index = direct(INITIAL_CAPACITY * 2 * Long.BYTES).asLongBuffer();
+        order = direct(INITIAL_CAPACITY * Integer.BYTES).asIntBuffer();
+        spare = direct(INITIAL_CAPACITY * Integer.BYTES).asIntBuffer();
+    }
+
+    private static ByteBuffer direct(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    private static ByteBuffer chunkOf(ByteBuffer[] chunks, long address) {
+        return chunks[(int) (address >>> 32)];
+    }
+
+    private ByteBuffer chunk(int record) {
+        return records[record >>> RECORD_CHUNK_SHIFT];
+    }
+
+    private static int offset(int record) {
+        return (record & (RECORDS_PER_CHUNK - 1)) * RECORD_SIZE;
+    }
+
+    private double score(int record) {
+        return chunk(record).getDouble(offset(record) + SCORE);
+    }
+
+    private int stringsLength(int record) {
+        return chunk(record).getInt(offset(record) + STRINGS_LENGTH);
+    }
+
+    private void markDirty(int record) {
+        ByteBuffer chunk = chunk(record);
+        int flags = chunk.getInt(offset(record) + FLAGS);
+        if ((flags & DIRTY) == 0) {
+            chunk.putInt(offset(record) + FLAGS, flags | DIRTY);
+            dirty++;
+        }
+    }
+
+    // --- string area
+
+    /**
+     * Encodes the strings of a repository into {@link #scratch} as one block, full name first.
+     *
+     * @return length of the block
+     */
+    private int encode(GithubRepository repository) {
+        int length = 0;
+        length = encode(repository.fullName(), length);
+        length = encode(repository.name(), length);
+        length = encode(repository.description(), length);
+        return encode(repository.language(), length);
+    }
+
+    private int encode(String value, int position) {
+        byte[] bytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        int length = bytes == null ? NULL_STRING : bytes.length;
+        ensureScratch(position + Integer.BYTES + Math.max(length, 0));
+        scratch().putInt(position, length);
+        if (bytes != null) {
+            System.arraycopy(bytes, 0, scratch, position + Integer.BYTES, length);
+        }
+        return position + Integer.BYTES + Math.max(length, 0);
+    }
+
+    private void ensureScratch(int length) {
+        if (scratch.length < length) {
+            scratch = Arrays.copyOf(scratch, Math.max(length, scratch.length * 2));
+        }
+    }
+
+    /**
+     * @return view of {@link #scratch} in the byte order of the stored blocks
+     */
+    private ByteBuffer scratch() {
+        return ByteBuffer.wrap(scratch).order(ByteOrder.nativeOrder());
+    }
+
+    private boolean sameStrings(int record, int blockLength) {
+        if (stringsLength(record) != blockLength) {
+            return false;
+        }
+        long address = chunk(record).getLong(offset(record) + STRINGS);
+        ByteBuffer chunk = chunkOf(strings, address);
+        int position = (int) address;
+        for (int i = 0; i < blockLength; i++) {
+            if (chunk.get(position + i) != scratch[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void writeStrings(int record, int blockLength) {
+        long address = append(scratch, blockLength, liveBytes);
+        chunk(record).putLong(offset(record) + STRINGS, address);
+        chunk(record).putInt(offset(record) + STRINGS_LENGTH, blockLength);
+        liveBytes += blockLength;
+    }
+
+    /**
+     * Appends bytes to the last chunk of the string area, starting a new chunk if they do not fit. New chunks grow
+     * with the data, so small stores stay small.
+     *
+     * @param expected bytes the string area is expected to hold, sizing a new chunk
+     * @return address of the bytes, the chunk number in the high and the position in the low 32 bits
+     */
+    private long append(byte[] bytes, int length, long expected) {
+        int last = lastStringChunk();
+        if (last < 0 || strings[last].remaining() < length) {
+            last++;
+            if (last == strings.length) {
+                strings = Arrays.copyOf(strings, strings.length * 2);
+            }
+            long preferred = Math.min(MAX_STRING_CHUNK, Math.max(MIN_STRING_CHUNK, expected));
+            strings[last] = direct((int) Math.max(preferred, length));
+        }
+        ByteBuffer chunk = strings[last];
+        long address = (long) last << 32 | chunk.position();
+        chunk.put(bytes, 0, length);
+        return address;
+    }
+
+    private int lastStringChunk() {
+        int last = strings.length - 1;
+        while (last >= 0 && strings[last] == null) {
+            last--;
+        }
+        return last;
+    }
+
+    /**
+     * Copies the live string blocks into a fresh string area, dropping orphaned ones.
+     */
+    private void compact() {
+        ByteBuffer[] previous = strings;
+        strings = new ByteBuffer[16];
+        for (int record = 0; record < size; record++) {
+            int length = stringsLength(record);
+            long address = chunk(record).getLong(offset(record) + STRINGS);
+            ensureScratch(length);
+            chunkOf(previous, address).get((int) address, scratch, 0, length);
+            chunk(record).putLong(offset(record) + STRINGS, append(scratch, length, liveBytes));
+        }
+        deadBytes = 0;
+    }
+
+    private GithubRepository read(int record) {
+        ByteBuffer chunk = chunk(record);
+        int offset = offset(record);
+        long address = chunk.getLong(offset + STRINGS);
+        ByteBuffer block = chunkOf(strings, address);
+        int position = (int) address;
+        String[] values = new String[4];
+        for (int i = 0; i < values.length; i++) {
+            int length = block.getInt(position);
+            position += Integer.BYTES;
+            if (length != NULL_STRING) {
+                ensureScratch(length);
+                block.get(position, scratch, 0, length);
+                values[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+                position += length;
+            }
+        }
+        long seconds = chunk.getLong(offset + UPDATED_SECONDS);
+        Instant lastUpdated = seconds == NO_UPDATE ? null
+                : Instant.ofEpochSecond(seconds, chunk.getInt(offset + UPDATED_NANOS));
+        return new GithubRepository(values[1], values[0], values[2], chunk.getInt(offset + STARS),
+                chunk.getInt(offset + FORKS), lastUpdated, values[3], chunk.getDouble(offset + SCORE));
+    }
+
+    // --- full name index
+
+    private static int hash(String fullName) {
+        int h = (fullName == null ? 0 : fullName.hashCode()) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Looks up the record whose full name equals the one at the start of {@link #scratch}.
+     *
+     * @return the record number, or -1 if absent
+     */
+    private int find(int hash) {
+        int mask = index.capacity() - 1;
+        for (int bucket = hash & mask; ; bucket = (bucket + 1) & mask) {
+            long entry = index.get(bucket);
+            if (entry == 0) {
+                return -1;
+            }
+            int record = (int) entry - 1;
+            if ((int) (entry >>> 32) == hash && sameFullName(record)) {
+                return record;
+            }
+        }
+    }
+
+    private boolean sameFullName(int record) {
+        long address = chunk(record).getLong(offset(record) + STRINGS);
+        ByteBuffer chunk = chunkOf(strings, address);
+        int position = (int) address;
+        int length = chunk.getInt(position);
+        if (length != scratch().getInt(0)) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (chunk.get(position + Integer.BYTES + i) != scratch[Integer.BYTES + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void index(int hash, int record) {
+        if ((long) size * 2 > index.capacity()) {
+            LongBuffer previous = index;
+            index = direct(previous.capacity() * 2 * Long.BYTES).asLongBuffer();
+            for (int bucket = 0; bucket < previous.capacity(); bucket++) {
+                long entry = previous.get(bucket);
+                if (entry != 0) {
+                    place(entry);
+                }
+            }
+        }
+        place((long) hash << 32 | (record + 1));
+    }
+
+    private void place(long entry) {
+        int mask = index.capacity() - 1;
+        int bucket = (int) (entry >>> 32) & mask;
+        while (index.get(bucket) != 0) {
+            bucket = (bucket + 1) & mask;
+        }
+        index.put(bucket, entry);
+    }
+
+    // --- score order
+
+    /**
+     * Brings the score order up to date: drops re-scored records from the previous order, sorts them together with
+     * new records, and merges both runs.
+     */
+    private void reorder() {
+        if (order.capacity() < size) {
+            int capacity = Math.max(size, order.capacity() * 2);
+            IntBuffer grown = direct(capacity * Integer.BYTES).asIntBuffer();
+            for (int i = 0; i < ordered; i++) {
+                grown.put(i, order.get(i));
+            }
+            order = grown;
+            spare = direct(capacity * Integer.BYTES).asIntBuffer();
+        }
+        int clean = 0;
+        for (int i = 0; i < ordered; i++) {
+            int record = order.get(i);
+            if ((chunk(record).getInt(offset(record) + FLAGS) & DIRTY) == 0) {
+                order.put(clean++, record);
+            }
+        }
+        int end = clean;
+        for (int record = 0; record < size && end - clean < dirty; record++) {
+            ByteBuffer chunk = chunk(record);
+            int flags = chunk.getInt(offset(record) + FLAGS);
+            if ((flags & DIRTY) != 0) {
+                chunk.putInt(offset(record) + FLAGS, flags & ~DIRTY);
+                order.put(end++, record);
+            }
+        }
+        sort(order, clean, end);
+        if (clean > 0 && end > clean) {
+            int left = 0;
+            int right = clean;
+            for (int i = 0; i < end; i++) {
+                boolean takeLeft = right == end
+                        || left < clean && score(order.get(left)) >= score(order.get(right));
+                spare.put(i, order.get(takeLeft ? left++ : right++));
+            }
+            IntBuffer merged = spare;
+            spare = order;
+            order = merged;
+        }
+        ordered = end;
+        dirty = 0;
+    }
+
+    /**
+     * Heap-sorts a range of record numbers by descending score.
+     */
+    private void sort(IntBuffer records, int from, int to) {
+        int length = to - from;
+        for (int root = length / 2 - 1; root >= 0; root--) {
+            siftDown(records, from, root, length);
+        }
+        for (int last = length - 1; last > 0; last--) {
+            int top = records.get(from);
+            records.put(from, records.get(from + last));
+            records.put(from + last, top);
+            siftDown(records, from, 0, last);
+        }
+    }
+
+    /**
+     * Restores a min-heap by score, so repeatedly moving its root to the end leaves the range in descending order.
+     */
+    private void siftDown(IntBuffer records, int from, int root, int length) {
+        int record = records.get(from + root);
+        double score = score(record);
+        while (true) {
+            int child = 2 * root + 1;
+            if (child >= length) {
+                break;
+            }
+            if (child + 1 < length && score(records.get(from + child + 1)) < score(records.get(from + child))) {
+                child++;
+            }
+            if (score(records.get(from + child)) >= score) {
+                break;
+            }
+            records.put(from + root, records.get(from + child));
+            root = child;
+        }
+        records.put(from + root, record);
+    }
+}
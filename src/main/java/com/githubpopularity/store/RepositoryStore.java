@@ -0,0 +1,46 @@
+package com.githubpopularity.store;
+
+import com.githubpopularity.model.GithubRepository;
+
+import java.util.Iterator;
+
+/**
+ * Mutable set of scored repositories, indexed by full name and iterable by descending popularity score.
+ * <p>
+ * Implementations are not thread-safe; callers serialize access, and must not modify a store while iterating it.
+ */
+public interface RepositoryStore {
+
+    /**
+     * Adds a repository, replacing the one with the same full name if present.
+     *
+     * @param repository repository carrying its popularity score
+     */
+    void put(GithubRepository repository);
+
+    /**
+     * @param fullName full name of the repository, e.g. {@code owner/name}
+     * @return the stored repository with its score, or null if absent
+     */
+    GithubRepository get(String fullName);
+
+    /**
+     * @return iterator over the stored repositories by descending popularity score; order among equal scores
+     * is unspecified
+     */
+    Iterator<GithubRepository> byScore();
+
+    int size();
+
+    /**
+     * Removes every repository.
+     */
+    void clear();
+
+    /**
+     * @return a store keeping repositories as objects on the heap
+     */
+    static RepositoryStore onHeap() {
+        return new HeapRepositoryStore();
+    }
+}
@@ -0,0 +1,17 @@
+package com.githubpopularity.store;
+
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repositories fetched for a query at a point in time.
+ *
+ * @param query        query the repositories were fetched for
+ * @param writtenAt    time the snapshot was taken
+ * @param repositories repositories returned by GitHub
+ */
+public record Snapshot(RepositoryQuery query, Instant writtenAt, List<GithubRepository> repositories) {
+}
@@ -0,0 +1,108 @@
+package com.githubpopularity.store;
+
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary layout of a snapshot record payload.
+ * <p>
+ * Fields are written big-endian in declaration order. Strings are an {@code int} byte length followed by UTF-8
+ * bytes, with length -1 for {@code null}; a missing {@code lastUpdated} is written as {@link Long#MIN_VALUE} seconds.
+ * The query is decoded on its own so the file can be indexed without materializing repositories.
+ */
+final class SnapshotCodec {
+
+    private static final int NULL_LENGTH = -1;
+    private static final long NULL_INSTANT = Long.MIN_VALUE;
+
+    private SnapshotCodec() {
+    }
+
+    static byte[] encode(Snapshot snapshot) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + snapshot.repositories().size() * 128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(snapshot.writtenAt().toEpochMilli());
+            RepositoryQuery query = snapshot.query();
+            writeString(out, query.language());
+            writeString(out, query.createdAfter());
+            out.writeInt(query.perPage());
+            out.writeInt(query.page());
+            out.writeInt(snapshot.repositories().size());
+            for (GithubRepository repository : snapshot.repositories()) {
+                writeString(out, repository.name());
+                writeString(out, repository.fullName());
+                writeString(out, repository.description());
+                out.writeInt(repository.stars());
+                out.writeInt(repository.forks());
+                Instant lastUpdated = repository.lastUpdated();
+                out.writeLong(lastUpdated == null ? NULL_INSTANT : lastUpdated.getEpochSecond());
+                out.writeInt(lastUpdated == null ? 0 : lastUpdated.getNano());
+                writeString(out, repository.language());
+                out.writeDouble(repository.popularityScore());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes the header of a payload: write time and query. Leaves the buffer positioned at the repositories.
+     */
+    static Snapshot decodeHeader(ByteBuffer payload) {
+        Instant writtenAt = Instant.ofEpochMilli(payload.getLong());
+        RepositoryQuery query = new RepositoryQuery(readString(payload), readString(payload),
+                payload.getInt(), payload.getInt());
+        return new Snapshot(query, writtenAt, List.of());
+    }
+
+    static Snapshot decode(ByteBuffer payload) {
+        Snapshot header = decodeHeader(payload);
+        int count = payload.getInt();
+        List<GithubRepository> repositories = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = readString(payload);
+            String fullName = readString(payload);
+            String description = readString(payload);
+            int stars = payload.getInt();
+            int forks = payload.getInt();
+            long seconds = payload.getLong();
+            int nanos = payload.getInt();
+            String language = readString(payload);
+            double score = payload.getDouble();
+            Instant lastUpdated = seconds == NULL_INSTANT ? null : Instant.ofEpochSecond(seconds, nanos);
+            repositories.add(new GithubRepository(name, fullName, description, stars, forks, lastUpdated, language, score));
+        }
+        return new Snapshot(header.query(), header.writtenAt(), List.copyOf(repositories));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,70 @@
+package com.githubpopularity.store;
+
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Durable store of repository snapshots, keyed by query.
+ * <p>
+ * Only the latest snapshot of each query is returned, but implementations may keep older ones on disk.
+ */
+public interface SnapshotStore extends AutoCloseable {
+
+    /**
+     * Queues a snapshot for writing. Must not block the caller on I/O.
+     *
+     * @param query        query the repositories were fetched for
+     * @param repositories repositories returned by GitHub
+     */
+    void append(RepositoryQuery query, List<GithubRepository> repositories);
+
+    /**
+     * Reads the latest snapshot of a query.
+     *
+     * @param query query to look up
+     * @return the latest snapshot, or empty if none was stored
+     */
+    Optional<Snapshot> read(RepositoryQuery query);
+
+    /**
+     * Reads the most recently written snapshots, newest first, one per query.
+     *
+     * @param limit maximum number of snapshots to return
+     * @return latest snapshots
+     */
+    List<Snapshot> latest(int limit);
+
+    /**
+     * Writes pending snapshots and releases the underlying file.
+     */
+    @Override
+    void close();
+
+    /**
+     * @return a store that keeps nothing, used when persistence is disabled
+     */
+    static SnapshotStore disabled() {
+        return new SnapshotStore() {
+            @Override
+            public void append(RepositoryQuery query, List<GithubRepository> repositories) {
+            }
+
+            @Override
+            public Optional<Snapshot> read(RepositoryQuery query) {
+                return Optional.empty();
+            }
+
+            @Override
+            public List<Snapshot> latest(int limit) {
+                return List.of();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
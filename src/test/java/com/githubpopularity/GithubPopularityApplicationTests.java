@@ -3,7 +3,7 @@ package com.githubpopularity;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "popularity.store.enabled=false")
 class GithubPopularityApplicationTests {
 
 	@Test
@@ -0,0 +1,136 @@
+package com.githubpopularity.cache;
+
+import com.githubpopularity.model.GithubRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryPoolTest {
+
+    private static final Instant UPDATED = Instant.parse("2025-10-05T00:00:00Z");
+
+    private final RepositoryPool pool = new RepositoryPool(true);
+
+    private static GithubRepository repo(String name, int stars, Instant updated) {
+        return new GithubRepository(name, "owner/" + name, "about " + name, stars, stars / 10, updated,
+                new String("Java"), 0.0);
+    }
+
+    @Test
+    void internedListsEqualTheirSourceAndShareEntries() {
+        List<GithubRepository> first = List.of(repo("a", 10, UPDATED), repo("b", 20, null));
+        List<GithubRepository> second = List.of(repo("b", 20, null), repo("c", 30, UPDATED));
+
+        List<GithubRepository> pooledFirst = pool.intern(first);
+        List<GithubRepository> pooledSecond = pool.intern(second);
+
+        assertEquals(first, pooledFirst);
+        assertEquals(second, pooledSecond);
+        assertEquals(3, pool.size());
+        assertSame(pooledFirst.get(0).language(), pooledSecond.get(1).language());
+        assertSame(pooledFirst, pool.intern(pooledFirst));
+    }
+
+    @Test
+    void listsKeepTheStateTheyWereInternedWith() {
+        List<GithubRepository> cached = pool.intern(List.of(repo("a", 10, UPDATED)));
+
+        List<GithubRepository> newer = pool.intern(List.of(repo("a", 50, UPDATED.plusSeconds(60))));
+        List<GithubRepository> older = pool.intern(List.of(repo("a", 5, UPDATED.minusSeconds(60))));
+
+        assertEquals(List.of(repo("a", 10, UPDATED)), cached);
+        assertEquals(List.of(repo("a", 50, UPDATED.plusSeconds(60))), newer);
+        assertEquals(List.of(repo("a", 5, UPDATED.minusSeconds(60))), older);
+        assertEquals(1, pool.size());
+        // equal copies share the latest entry, not the older one
+        PooledRepositoryList again = (PooledRepositoryList) pool.intern(List.of(repo("a", 50, UPDATED.plusSeconds(60))));
+        assertEquals(((PooledRepositoryList) newer).slots()[0], again.slots()[0]);
+    }
+
+    @Test
+    void releasingASupersededEntryKeepsTheLatestIndexed() {
+        PooledRepositoryList first = (PooledRepositoryList) pool.intern(List.of(repo("a", 10, UPDATED)));
+        PooledRepositoryList latest = (PooledRepositoryList) pool.intern(List.of(repo("a", 20, UPDATED.plusSeconds(1))));
+
+        pool.release(first.slots());
+
+        assertEquals(1, pool.size());
+        assertEquals(latest.slots()[0],
+                ((PooledRepositoryList) pool.intern(List.of(repo("a", 20, UPDATED.plusSeconds(1))))).slots()[0]);
+    }
+
+    @Test
+    void keepsNamesThatDoNotMatchTheFullName() {
+        GithubRepository renamed = new GithubRepository("other", "owner/a", null, 1, 0, UPDATED, null, 0.0);
+        GithubRepository unnamed = new GithubRepository(null, "owner/b", null, 1, 0, UPDATED.plusNanos(1), null, 0.0);
+
+        assertEquals(List.of(renamed, unnamed), pool.intern(List.of(renamed, unnamed)));
+    }
+
+    @Test
+    void releasedSlotsAreFreedAndReused() {
+        PooledRepositoryList released = (PooledRepositoryList) pool.intern(List.of(repo("a", 1, UPDATED)));
+        List<GithubRepository> kept = pool.intern(List.of(repo("a", 1, UPDATED), repo("b", 2, UPDATED)));
+
+        pool.release(released.slots());
+        assertEquals(2, pool.size());
+        pool.release(((PooledRepositoryList) kept).slots());
+        assertEquals(0, pool.size());
+
+        PooledRepositoryList reused = (PooledRepositoryList) pool.intern(List.of(repo("c", 3, UPDATED)));
+        assertTrue(reused.slots()[0] < 2);
+        assertEquals("owner/c", reused.get(0).fullName());
+    }
+
+    @Test
+    void indexStaysConsistentAcrossManyReleases() {
+        Random random = new Random(3);
+        List<PooledRepositoryList> lists = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            lists.add((PooledRepositoryList) pool.intern(List.of(repo("r" + i, i, UPDATED))));
+        }
+        List<PooledRepositoryList> kept = new ArrayList<>();
+        for (PooledRepositoryList list : lists) {
+            if (random.nextBoolean()) {
+                pool.release(list.slots());
+            } else {
+                kept.add(list);
+            }
+        }
+
+        assertEquals(kept.size(), pool.size());
+        for (PooledRepositoryList list : kept) {
+            GithubRepository repository = list.get(0);
+            assertEquals(list.slots()[0], ((PooledRepositoryList) pool.intern(List.of(repository))).slots()[0]);
+        }
+        assertEquals(kept.size(), pool.size());
+    }
+
+    @Test
+    void garbageCollectedListsReleaseTheirEntries() throws InterruptedException {
+        List<GithubRepository> repositories = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            repositories.add(repo("r" + i, i, UPDATED));
+        }
+        pool.intern(repositories);
+        assertEquals(1000, pool.size());
+
+        for (int attempt = 0; attempt < 50 && pool.size() > 0; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    void disabledPoolReturnsListsUnchanged() {
+        List<GithubRepository> repositories = List.of(repo("a", 1, UPDATED));
+
+        assertSame(repositories, new RepositoryPool(false).intern(repositories));
+    }
+}
@@ -0,0 +1,137 @@
+package com.githubpopularity.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+import com.githubpopularity.service.HotQueryTracker;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseBodyCacheFilterTest {
+
+    private static final String BODY = "[{\"name\":\"repo1\",\"popularityScore\":42.0}]";
+
+    private static final RepositoryQuery QUERY = new RepositoryQuery("Java", "2023-01-01", 10, 1);
+
+    private Cache<RepositoryQuery, CachedResponseBody> cache;
+    private Cache<RepositoryQuery, List<GithubRepository>> repositoryCache;
+    private HotQueryTracker tracker;
+    private ResponseBodyCacheFilter filter;
+    private AtomicInteger controllerCalls;
+
+    @BeforeEach
+    void setUp() {
+        cache = Caffeine.newBuilder().build();
+        repositoryCache = Caffeine.newBuilder().build();
+        tracker = new HotQueryTracker(100);
+        filter = new ResponseBodyCacheFilter(cache, repositoryCache, tracker);
+        controllerCalls = new AtomicInteger();
+    }
+
+    private MockHttpServletRequest request(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", ResponseBodyCacheFilter.CACHED_PATH);
+        request.setParameter("language", "Java");
+        request.setParameter("createdAfter", "2023-01-01");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return request;
+    }
+
+    private MockHttpServletResponse execute(MockHttpServletRequest request, int status, String warning) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res)
+                    throws IOException {
+                controllerCalls.incrementAndGet();
+                // the controller loads the query into the repository cache, as the service would
+                repositoryCache.get(QUERY, query -> new ArrayList<>());
+                res.setStatus(status);
+                if (warning != null) {
+                    res.setHeader(HttpHeaders.WARNING, warning);
+                }
+                res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                res.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+            }
+        }));
+        return response;
+    }
+
+    @Test
+    void servesCachedBodyCompressedWithoutCallingController() throws Exception {
+        MockHttpServletResponse miss = execute(request("gzip"), 200, null);
+        MockHttpServletResponse hit = execute(request("gzip, deflate"), 200, null);
+
+        assertEquals(1, controllerCalls.get());
+        assertEquals(BODY, miss.getContentAsString());
+        assertEquals("gzip", hit.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(BODY, new String(ResponseBodyCacheFilter.decompress(hit.getContentAsByteArray()),
+                StandardCharsets.UTF_8));
+        assertEquals(1, tracker.hottest(1).size());
+    }
+
+    @Test
+    void inflatesCachedBodyForClientsWithoutGzip() throws Exception {
+        execute(request(null), 200, null);
+        MockHttpServletResponse hit = execute(request("gzip;q=0"), 200, null);
+
+        assertEquals(1, controllerCalls.get());
+        assertNull(hit.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(BODY, hit.getContentAsString());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, hit.getContentType());
+    }
+
+    @Test
+    void doesNotCacheStaleOrFailedResponses() throws Exception {
+        execute(request("gzip"), 200, "110 - \"Response is Stale\"");
+        execute(request("gzip"), 503, null);
+        execute(request("gzip"), 200, null);
+
+        assertEquals(3, controllerCalls.get());
+        assertEquals(1, cache.estimatedSize());
+    }
+
+    @Test
+    void bodiesAreRetiredWithTheRepositoryCacheEntryTheyWereBuiltFrom() throws Exception {
+        execute(request("gzip"), 200, null);
+        execute(request("gzip"), 200, null);
+        assertEquals(1, controllerCalls.get());
+
+        // a hot refresh replaces the entry
+        repositoryCache.put(QUERY, new ArrayList<>());
+        execute(request("gzip"), 200, null);
+        assertEquals(2, controllerCalls.get());
+        execute(request("gzip"), 200, null);
+        assertEquals(2, controllerCalls.get());
+
+        // the entry expires or is evicted
+        repositoryCache.invalidate(QUERY);
+        execute(request("gzip"), 200, null);
+        assertEquals(3, controllerCalls.get());
+    }
+
+    @Test
+    void compressedEntriesAreSmallerThanTheBody() throws Exception {
+        byte[] body = BODY.repeat(100).getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(ResponseBodyCacheFilter.compress(body).length < body.length / 10);
+    }
+}
@@ -0,0 +1,137 @@
+package com.githubpopularity.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+
+    private static CircuitBreaker breaker(Duration openDuration) {
+        return new CircuitBreaker(10, 4, 50, Duration.ofSeconds(1), 50, openDuration);
+    }
+
+    private static void call(CircuitBreaker breaker, boolean failure, long elapsedNanos) {
+        CircuitBreaker.Permit permit = breaker.tryAcquire();
+        assertNotNull(permit);
+        breaker.onResult(permit, failure, elapsedNanos);
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        CircuitBreaker breaker = breaker(Duration.ofSeconds(30));
+
+        for (int i = 0; i < 3; i++) {
+            call(breaker, true, FAST);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void opensOnFailureRateAndRefusesCalls() {
+        CircuitBreaker breaker = breaker(Duration.ofSeconds(30));
+
+        call(breaker, false, FAST);
+        call(breaker, false, FAST);
+        call(breaker, true, FAST);
+        call(breaker, true, FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void opensOnSlowCallRate() {
+        CircuitBreaker breaker = breaker(Duration.ofSeconds(30));
+
+        call(breaker, false, FAST);
+        call(breaker, false, FAST);
+        call(breaker, false, SLOW);
+        call(breaker, false, SLOW);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void halfOpensAfterOpenDurationAndClosesOnSuccessfulTrial() throws InterruptedException {
+        CircuitBreaker breaker = breaker(Duration.ofMillis(100));
+        List<CircuitBreaker.State> transitions = new CopyOnWriteArrayList<>();
+        breaker.addListener(transitions::add);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true, FAST);
+        }
+
+        Thread.sleep(300);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        CircuitBreaker.Permit trial = breaker.tryAcquire();
+        assertNotNull(trial);
+        assertNull(breaker.tryAcquire(), "only one trial call is allowed while half-open");
+        breaker.onResult(trial, false, FAST);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(List.of(CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.CLOSED),
+                transitions);
+    }
+
+    @Test
+    void reopensWhenTrialCallFails() throws InterruptedException {
+        CircuitBreaker breaker = breaker(Duration.ofMillis(100));
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true, FAST);
+        }
+
+        Thread.sleep(300);
+        call(breaker, true, FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void onlyTheTrialCallDecidesWhetherAHalfOpenBreakerCloses() throws InterruptedException {
+        CircuitBreaker breaker = breaker(Duration.ofMillis(100));
+        CircuitBreaker.Permit late = breaker.tryAcquire();
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true, FAST);
+        }
+        Thread.sleep(300);
+        CircuitBreaker.Permit trial = breaker.tryAcquire();
+        assertTrue(trial.trial());
+
+        // admitted while closed, completes while half-open
+        breaker.onResult(late, false, FAST);
+        breaker.release(late);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertNull(breaker.tryAcquire(), "the trial is still in flight");
+
+        breaker.onResult(trial, true, FAST);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void callsAdmittedBeforeABreakerClosedDoNotCountInItsNewWindow() throws InterruptedException {
+        CircuitBreaker breaker = breaker(Duration.ofMillis(100));
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true, FAST);
+        }
+        Thread.sleep(300);
+        CircuitBreaker.Permit trial = breaker.tryAcquire();
+        breaker.onResult(trial, false, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // a stale trial result and stale closed-state results are ignored
+        breaker.onResult(trial, true, FAST);
+        for (int i = 0; i < 2; i++) {
+            call(breaker, false, FAST);
+        }
+        call(breaker, true, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
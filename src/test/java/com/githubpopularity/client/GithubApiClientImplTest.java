@@ -1,15 +1,29 @@
 package com.githubpopularity.client;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.githubpopularity.cache.RepositoryPool;
 import com.githubpopularity.configuration.WebClientConfig;
-import com.githubpopularity.dto.GithubRepositoryItem;
+import com.githubpopularity.model.GithubRepository;
 import com.githubpopularity.exception.GithubApiException;
+import com.githubpopularity.metrics.PopularityMetrics;
+import com.githubpopularity.metrics.StageTimings;
 import com.github.tomakehurst.wiremock.WireMockServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.*;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 class GithubApiClientImplTest {
 
@@ -25,7 +39,10 @@ class GithubApiClientImplTest {
         String baseUrl = wireMockServer.baseUrl();
         WebClientConfig config = new WebClientConfig();
         WebClient webClient = config.githubWebClient(WebClient.builder(), baseUrl);
-        githubApiClient = new GithubApiClientImpl(webClient);
+        githubApiClient = new GithubApiClientImpl(webClient, Caffeine.newBuilder().maximumSize(100).build(),
+                new RateLimitScheduler(List.of(), 5, Duration.ofSeconds(2), Duration.ofSeconds(10)),
+                new CircuitBreaker(20, 10, 50, Duration.ofSeconds(5), 100, Duration.ofSeconds(30)),
+                new PopularityMetrics(new SimpleMeterRegistry()), List.of(), new RepositoryPool(true));
     }
 
     @AfterAll
@@ -63,13 +80,49 @@ class GithubApiClientImplTest {
                                 }
                                 """)));
 
-        List<GithubRepositoryItem> items = githubApiClient.fetchRepositories("language:Java", 10, 1);
+        List<GithubRepository> items = githubApiClient.fetchRepositories("language:Java", 10, 1);
 
         assertNotNull(items);
         assertEquals(1, items.size());
         assertEquals("repo1", items.get(0).name());
     }
 
+    @Test
+    void testGithubStageExcludesDecodeTime() {
+        StringJoiner items = new StringJoiner(",", "{\"items\": [", "]}");
+        for (int i = 0; i < 20_000; i++) {
+            items.add("{\"name\": \"repo" + i + "\", \"full_name\": \"owner/repo" + i + "\", \"description\": \"desc\","
+                    + " \"stargazers_count\": " + i + ", \"forks_count\": 1, \"updated_at\": \"2025-10-06T00:00:00Z\","
+                    + " \"language\": \"Java\"}");
+        }
+        stubFor(get(urlPathEqualTo("/search/repositories"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(items.toString())));
+        Map<String, Long> stages = new ConcurrentHashMap<>();
+        StageTimings timings = new StageTimings(System.nanoTime()) {
+            @Override
+            public void record(String stage, long nanos) {
+                stages.merge(stage, nanos, Long::sum);
+            }
+        };
+
+        long start = System.nanoTime();
+        List<GithubRepository> repositories = githubApiClient.searchRepositories("language:Java", 100, 1)
+                .contextWrite(Context.of(StageTimings.class, timings))
+                .collectList()
+                .block();
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(20_000, repositories.size());
+        assertTrue(stages.get(StageTimings.DECODE) > 0);
+        assertTrue(stages.get(StageTimings.GITHUB) > 0);
+        // both stages happen within the call; if github also counted decoding, together they would exceed it
+        assertTrue(stages.get(StageTimings.GITHUB) + stages.get(StageTimings.DECODE) <= elapsed,
+                () -> "stages " + stages + " overlap within " + elapsed + "ns");
+    }
+
     @Test
     void testFetchRepositoriesEmptyResponseReturnsEmptyList() {
         stubFor(get(urlPathEqualTo("/search/repositories"))
@@ -79,7 +132,7 @@ class GithubApiClientImplTest {
                         .withHeader("Content-Type", "application/json")
                         .withBody("{ \"items\": [] }")));
 
-        List<GithubRepositoryItem> items = githubApiClient.fetchRepositories("language:Python", 5, 2);
+        List<GithubRepository> items = githubApiClient.fetchRepositories("language:Python", 5, 2);
         assertNotNull(items);
         assertTrue(items.isEmpty());
     }
@@ -113,4 +166,202 @@ class GithubApiClientImplTest {
         assertEquals(503, ex.getStatusCode());
         assertTrue(ex.getMessage().contains("service unavailable"));
     }
+
+    @Test
+    void testFreshRepositoriesAreReportedToListenersButNotOn304() {
+        stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", containing("language:Dart"))
+                .withHeader("If-None-Match", absent())
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("ETag", "\"dart1\"")
+                        .withBody("""
+                                {
+                                  "items": [
+                                    {
+                                      "name": "repo1",
+                                      "full_name": "owner/repo1",
+                                      "stargazers_count": 10,
+                                      "forks_count": 1,
+                                      "updated_at": "2025-10-06T00:00:00Z",
+                                      "language": "Dart"
+                                    }
+                                  ]
+                                }
+                                """)));
+        stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", containing("language:Dart"))
+                .withHeader("If-None-Match", equalTo("\"dart1\""))
+                .willReturn(aResponse().withStatus(304)));
+        List<GithubRepository> fetched = new CopyOnWriteArrayList<>();
+        WebClient webClient = new WebClientConfig().githubWebClient(WebClient.builder(), wireMockServer.baseUrl());
+        GithubApiClientImpl client = new GithubApiClientImpl(webClient, Caffeine.newBuilder().maximumSize(100).build(),
+                new RateLimitScheduler(List.of(), 5, Duration.ofSeconds(2), Duration.ofSeconds(10)),
+                new CircuitBreaker(20, 10, 50, Duration.ofSeconds(5), 100, Duration.ofSeconds(30)),
+                new PopularityMetrics(new SimpleMeterRegistry()), List.of(fetched::add),
+                new RepositoryPool(true));
+
+        client.fetchRepositories("language:Dart", 10, 1);
+        client.fetchRepositories("language:Dart", 10, 1);
+
+        assertEquals(1, fetched.size());
+        assertEquals("owner/repo1", fetched.get(0).fullName());
+    }
+
+    @Test
+    void testFetchRepositoriesRevalidatesWithEtagAndServesStoredItemsOn304() {
+        stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", containing("language:Kotlin"))
+                .withHeader("If-None-Match", absent())
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("ETag", "\"abc123\"")
+                        .withBody("""
+                                {
+                                  "items": [
+                                    {
+                                      "name": "repo1",
+                                      "full_name": "owner/repo1",
+                                      "stargazers_count": 10,
+                                      "forks_count": 1,
+                                      "updated_at": "2025-10-06T00:00:00Z",
+                                      "language": "Kotlin"
+                                    }
+                                  ]
+                                }
+                                """)));
+        stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", containing("language:Kotlin"))
+                .withHeader("If-None-Match", equalTo("\"abc123\""))
+                .willReturn(aResponse().withStatus(304)));
+
+        List<GithubRepository> first = githubApiClient.fetchRepositories("language:Kotlin", 10, 1);
+        List<GithubRepository> second = githubApiClient.fetchRepositories("language:Kotlin", 10, 1);
+
+        assertEquals(1, second.size());
+        assertEquals(first, second);
+        verify(1, getRequestedFor(urlPathEqualTo("/search/repositories"))
+                .withHeader("If-None-Match", equalTo("\"abc123\"")));
+    }
+
+    private static GithubApiClientImpl clientWithTokens(String... tokens) {
+        WebClient webClient = new WebClientConfig().githubWebClient(WebClient.builder(), wireMockServer.baseUrl());
+        return new GithubApiClientImpl(webClient, Caffeine.newBuilder().maximumSize(100).build(),
+                new RateLimitScheduler(List.of(tokens), 5, Duration.ofSeconds(2), Duration.ofSeconds(10)),
+                new CircuitBreaker(20, 10, 50, Duration.ofSeconds(5), 100, Duration.ofSeconds(30)),
+                new PopularityMetrics(new SimpleMeterRegistry()), List.of(), new RepositoryPool(true));
+    }
+
+    @Test
+    void testFetchRepositoriesMovesToTokenWithHeadroomWhenOneIsExhausted() {
+        String reset = String.valueOf(Instant.now().plusSeconds(3600).getEpochSecond());
+        stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withHeader("Authorization", equalTo("Bearer t1"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("X-RateLimit-Remaining", "0")
+                        .withHeader("X-RateLimit-Reset", reset)
+                        .withBody("{ \"items\": [] }")));
+        stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withHeader("Authorization", equalTo("Bearer t2"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("X-RateLimit-Remaining", "1000")
+                        .withHeader("X-RateLimit-Reset", reset)
+                        .withBody("{ \"items\": [] }")));
+
+        GithubApiClientImpl client = clientWithTokens("t1", "t2");
+        for (int i = 0; i < 3; i++) {
+            client.fetchRepositories("language:Java", 10, 1);
+        }
+
+        verify(1, getRequestedFor(urlPathEqualTo("/search/repositories"))
+                .withHeader("Authorization", equalTo("Bearer t1")));
+        verify(2, getRequestedFor(urlPathEqualTo("/search/repositories"))
+                .withHeader("Authorization", equalTo("Bearer t2")));
+    }
+
+    @Test
+    void testFetchRepositoriesTakesRevokedTokenOutOfRotation() {
+        stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withHeader("Authorization", equalTo("Bearer revoked"))
+                .willReturn(aResponse().withStatus(401).withBody("Bad credentials")));
+        stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withHeader("Authorization", equalTo("Bearer valid"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{ \"items\": [] }")));
+
+        GithubApiClientImpl client = clientWithTokens("revoked", "valid");
+        GithubApiException ex = assertThrows(GithubApiException.class,
+                () -> client.fetchRepositories("language:Java", 10, 1));
+        assertEquals(401, ex.getStatusCode());
+
+        client.fetchRepositories("language:Java", 10, 1);
+        client.fetchRepositories("language:Java", 10, 1);
+
+        verify(1, getRequestedFor(urlPathEqualTo("/search/repositories"))
+                .withHeader("Authorization", equalTo("Bearer revoked")));
+        verify(2, getRequestedFor(urlPathEqualTo("/search/repositories"))
+                .withHeader("Authorization", equalTo("Bearer valid")));
+    }
+
+    @Test
+    void testFetchRepositoriesFailsFastWhileCircuitIsOpen() {
+        stubFor(get(urlPathEqualTo("/search/repositories"))
+                .willReturn(aResponse()
+                        .withStatus(503)
+                        .withBody("Service Unavailable")));
+        WebClient webClient = new WebClientConfig().githubWebClient(WebClient.builder(), wireMockServer.baseUrl());
+        GithubApiClientImpl client = new GithubApiClientImpl(webClient, Caffeine.newBuilder().maximumSize(100).build(),
+                new RateLimitScheduler(List.of(), 5, Duration.ofSeconds(2), Duration.ofSeconds(10)),
+                new CircuitBreaker(4, 2, 50, Duration.ofSeconds(5), 100, Duration.ofSeconds(30)),
+                new PopularityMetrics(new SimpleMeterRegistry()), List.of(), new RepositoryPool(true));
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(GithubApiException.class, () -> client.fetchRepositories("language:Java", 10, 1));
+        }
+        GithubApiException ex = assertThrows(GithubApiException.class,
+                () -> client.fetchRepositories("language:Java", 10, 1));
+
+        assertEquals(503, ex.getStatusCode());
+        assertEquals("GitHub API circuit open", ex.getMessage());
+        verify(2, getRequestedFor(urlPathEqualTo("/search/repositories")));
+    }
+
+    @Test
+    void testRateLimitWaitsAndRejectionsDoNotCountAgainstTheCircuit() {
+        stubFor(get(urlPathEqualTo("/search/repositories"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{ \"items\": [] }")));
+        RateLimitScheduler scheduler = mock(RateLimitScheduler.class);
+        Mono<TokenBudget> slowBudget = Mono.delay(Duration.ofMillis(1200)).thenReturn(new TokenBudget(null, "anonymous", 5));
+        when(scheduler.acquire())
+                .thenReturn(slowBudget, slowBudget)
+                .thenReturn(Mono.error(new GithubApiException(429, "GitHub API rate limit exceeded")));
+        // both exchanges must be slow to open the breaker, so a slow first exchange in a cold JVM does not
+        CircuitBreaker circuitBreaker = new CircuitBreaker(4, 2, 50, Duration.ofSeconds(1), 100, Duration.ofSeconds(30));
+        WebClient webClient = new WebClientConfig().githubWebClient(WebClient.builder(), wireMockServer.baseUrl());
+        GithubApiClientImpl client = new GithubApiClientImpl(webClient, Caffeine.newBuilder().maximumSize(100).build(),
+                scheduler, circuitBreaker, new PopularityMetrics(new SimpleMeterRegistry()), List.of(),
+                new RepositoryPool(true));
+
+        for (int i = 0; i < 2; i++) {
+            assertTrue(client.fetchRepositories("language:Java", 10, 1).isEmpty());
+        }
+        for (int i = 0; i < 3; i++) {
+            GithubApiException ex = assertThrows(GithubApiException.class,
+                    () -> client.fetchRepositories("language:Java", 10, 1));
+            assertEquals(429, ex.getStatusCode());
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
 }
@@ -0,0 +1,96 @@
+package com.githubpopularity.client;
+
+import com.githubpopularity.model.GithubRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GithubSearchResponseDecoderTest {
+
+    private static final String RESPONSE = """
+            {
+              "total_count": 2,
+              "incomplete_results": false,
+              "items": [
+                {
+                  "id": 1,
+                  "name": "repo1",
+                  "full_name": "owner/repo1",
+                  "owner": { "login": "owner", "name": "ignored" },
+                  "description": "first",
+                  "topics": ["a", "b"],
+                  "stargazers_count": 100,
+                  "forks_count": 50,
+                  "updated_at": "2025-10-06T00:00:00Z",
+                  "language": "Java"
+                },
+                {
+                  "name": "repo2",
+                  "full_name": "owner/repo2",
+                  "description": null,
+                  "stargazers_count": 7,
+                  "forks_count": 0,
+                  "updated_at": "2025-09-01T12:00:00Z",
+                  "language": "Java",
+                  "license": { "name": "MIT", "items": [] }
+                }
+              ]
+            }
+            """;
+
+    private final GithubSearchResponseDecoder decoder = new GithubSearchResponseDecoder();
+
+    @Test
+    void decodeReadsItemsAndSkipsUnmappedFields() {
+        List<GithubRepository> repositories = decoder.decode(RESPONSE.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(2, repositories.size());
+        GithubRepository first = repositories.get(0);
+        assertEquals("repo1", first.name());
+        assertEquals("owner/repo1", first.fullName());
+        assertEquals("first", first.description());
+        assertEquals(100, first.stars());
+        assertEquals(50, first.forks());
+        assertEquals(Instant.parse("2025-10-06T00:00:00Z"), first.lastUpdated());
+        assertEquals("Java", first.language());
+        assertNull(repositories.get(1).description());
+    }
+
+    @Test
+    void decodeHandlesBodySplitAcrossSmallChunks() {
+        byte[] bytes = RESPONSE.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> chunks = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += 7) {
+            byte[] chunk = Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + 7));
+            chunks.add(DefaultDataBufferFactory.sharedInstance.wrap(chunk));
+        }
+
+        List<GithubRepository> repositories = decoder.decode(Flux.fromIterable(chunks)).collectList().block();
+
+        assertNotNull(repositories);
+        assertEquals(decoder.decode(bytes), repositories);
+    }
+
+    @Test
+    void decodeEmptyItemsReturnsEmpty() {
+        List<GithubRepository> repositories = decoder.decode("{ \"items\": [] }".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(repositories.isEmpty());
+    }
+
+    @Test
+    void decodeTotalCountReadsTopLevelCount() {
+        DataBuffer body = DefaultDataBufferFactory.sharedInstance.wrap(RESPONSE.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(2L, decoder.decodeTotalCount(Flux.just(body)).block());
+    }
+}
@@ -0,0 +1,94 @@
+package com.githubpopularity.client;
+
+import com.githubpopularity.exception.GithubApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitSchedulerTest {
+
+    private RateLimitScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new RateLimitScheduler(List.of(), 5, Duration.ofMillis(300), Duration.ofSeconds(5));
+    }
+
+    private static HttpHeaders headers(String name, String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(name, value);
+        return headers;
+    }
+
+    @Test
+    void acquireDispatchesImmediatelyWithoutKnownBudget() {
+        long start = System.nanoTime();
+        scheduler.acquire(RequestPriority.INTERACTIVE).block();
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 200);
+    }
+
+    @Test
+    void acquireRejectsInteractiveCallQuicklyWhenBudgetExhausted() {
+        HttpHeaders headers = headers(RateLimitScheduler.REMAINING_HEADER, "0");
+        headers.set(RateLimitScheduler.RESET_HEADER, String.valueOf(Instant.now().plusSeconds(60).getEpochSecond()));
+        scheduler.update(scheduler.acquire(RequestPriority.INTERACTIVE).block(), headers);
+
+        long start = System.nanoTime();
+        GithubApiException ex = assertThrows(GithubApiException.class,
+                () -> scheduler.acquire(RequestPriority.INTERACTIVE).block());
+
+        assertEquals(429, ex.getStatusCode());
+        assertTrue(ex.getMessage().contains("rate limit exceeded"));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 200);
+    }
+
+    @Test
+    void acquireWaitsForRetryAfterWithinDeadline() {
+        TokenBudget budget = scheduler.acquire(RequestPriority.INTERACTIVE).block();
+        scheduler.update(budget, headers(RateLimitScheduler.RETRY_AFTER_HEADER, "1"));
+
+        long start = System.nanoTime();
+        scheduler.acquire(RequestPriority.BACKGROUND).block();
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 900);
+    }
+
+    @Test
+    void acquireReleasesInteractiveCallsBeforeBackgroundCalls() {
+        RateLimitScheduler patientScheduler = new RateLimitScheduler(List.of(), 5, Duration.ofSeconds(5), Duration.ofSeconds(5));
+        TokenBudget budget = patientScheduler.acquire(RequestPriority.INTERACTIVE).block();
+        patientScheduler.update(budget, headers(RateLimitScheduler.RETRY_AFTER_HEADER, "1"));
+        List<RequestPriority> order = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<TokenBudget> background = patientScheduler.acquire(RequestPriority.BACKGROUND)
+                .doOnSuccess(v -> order.add(RequestPriority.BACKGROUND)).toFuture();
+        CompletableFuture<TokenBudget> interactive = patientScheduler.acquire(RequestPriority.INTERACTIVE)
+                .doOnSuccess(v -> order.add(RequestPriority.INTERACTIVE)).toFuture();
+
+        CompletableFuture.allOf(background, interactive).join();
+        assertEquals(List.of(RequestPriority.INTERACTIVE, RequestPriority.BACKGROUND), order);
+    }
+
+    @Test
+    void acquirePacesCallsOnceBurstIsUsed() {
+        RateLimitScheduler pacedScheduler = new RateLimitScheduler(List.of(), 1, Duration.ofSeconds(5), Duration.ofSeconds(5));
+        HttpHeaders headers = headers(RateLimitScheduler.REMAINING_HEADER, "2");
+        headers.set(RateLimitScheduler.RESET_HEADER, String.valueOf(Instant.now().plusSeconds(3).getEpochSecond()));
+        pacedScheduler.update(pacedScheduler.acquire(RequestPriority.INTERACTIVE).block(), headers);
+
+        long start = System.nanoTime();
+        pacedScheduler.acquire(RequestPriority.INTERACTIVE).block();
+        pacedScheduler.acquire(RequestPriority.INTERACTIVE).block();
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 500);
+    }
+}
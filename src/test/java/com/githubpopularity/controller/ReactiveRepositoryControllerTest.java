@@ -0,0 +1,66 @@
+package com.githubpopularity.controller;
+
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryResult;
+import com.githubpopularity.service.PopularityScoringService;
+import com.githubpopularity.service.ReactiveGithubRepositoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReactiveRepositoryControllerTest {
+
+    private ReactiveGithubRepositoryService githubService;
+    private PopularityScoringService scoringService;
+    private ReactiveRepositoryController controller;
+
+    @BeforeEach
+    void setUp() {
+        githubService = mock(ReactiveGithubRepositoryService.class);
+        scoringService = mock(PopularityScoringService.class);
+        controller = new ReactiveRepositoryController(githubService, scoringService);
+    }
+
+    @Test
+    void testGetPopularRepositoriesReturns200() {
+        GithubRepository repo = new GithubRepository(
+                "repo1", "owner/repo1", "desc", 100, 50,
+                Instant.parse("2025-10-05T00:00:00Z"), "Java", 0.0
+        );
+
+        when(githubService.fetchResult("Java", "2023-01-01", 10, 1))
+                .thenReturn(Mono.just(RepositoryResult.fresh(List.of(repo))));
+        when(scoringService.scoreRepositories(List.of(repo)))
+                .thenReturn(List.of(repo.withScore(75.0)));
+
+        ResponseEntity<List<GithubRepository>> response = controller.getPopularRepositories(
+                "Java", "2023-01-01", 10, 1
+        ).block();
+
+        assertNotNull(response);
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(75.0, response.getBody().get(0).popularityScore());
+    }
+
+    @Test
+    void testGetPopularRepositoriesReturns204WhenNoRepos() {
+        when(githubService.fetchResult("Python", "2023-01-01", 10, 1))
+                .thenReturn(Mono.just(RepositoryResult.fresh(List.of())));
+        when(scoringService.scoreRepositories(List.of())).thenReturn(List.of());
+
+        ResponseEntity<List<GithubRepository>> response = controller.getPopularRepositories(
+                "Python", "2023-01-01", 10, 1
+        ).block();
+
+        assertNotNull(response);
+        assertEquals(204, response.getStatusCode().value());
+        assertNull(response.getBody());
+    }
+}
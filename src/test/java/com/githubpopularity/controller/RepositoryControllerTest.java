@@ -1,10 +1,12 @@
 package com.githubpopularity.controller;
 
 import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryResult;
 import com.githubpopularity.service.GithubRepositoryService;
 import com.githubpopularity.service.PopularityScoringService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 
 import java.time.Instant;
@@ -33,8 +35,8 @@ class RepositoryControllerTest {
                 Instant.parse("2025-10-05T00:00:00Z"), "Java", 0.0
         );
 
-        when(githubService.fetchRepositories("Java", "2023-01-01", 10, 1))
-                .thenReturn(List.of(repo));
+        when(githubService.fetchResult("Java", "2023-01-01", 10, 1))
+                .thenReturn(RepositoryResult.fresh(List.of(repo)));
         when(scoringService.scoreRepositories(List.of(repo)))
                 .thenReturn(List.of(repo.withScore(75.0)));
 
@@ -48,14 +50,14 @@ class RepositoryControllerTest {
         assertEquals(1, body.size());
         assertEquals("repo1", body.get(0).name());
 
-        verify(githubService, times(1)).fetchRepositories("Java", "2023-01-01", 10, 1);
+        verify(githubService, times(1)).fetchResult("Java", "2023-01-01", 10, 1);
         verify(scoringService, times(1)).scoreRepositories(List.of(repo));
     }
 
     @Test
     void testGetPopularRepositoriesReturns204WhenNoRepos() {
-        when(githubService.fetchRepositories("Python", "2023-01-01", 10, 1))
-                .thenReturn(List.of());
+        when(githubService.fetchResult("Python", "2023-01-01", 10, 1))
+                .thenReturn(RepositoryResult.fresh(List.of()));
         when(scoringService.scoreRepositories(List.of())).thenReturn(List.of());
 
         ResponseEntity<List<GithubRepository>> response = controller.getPopularRepositories(
@@ -65,7 +67,26 @@ class RepositoryControllerTest {
         assertEquals(204, response.getStatusCodeValue());
         assertNull(response.getBody());
 
-        verify(githubService, times(1)).fetchRepositories("Python", "2023-01-01", 10, 1);
+        verify(githubService, times(1)).fetchResult("Python", "2023-01-01", 10, 1);
         verify(scoringService, times(1)).scoreRepositories(List.of());
     }
+
+    @Test
+    void testGetPopularRepositoriesMarksStaleResult() {
+        GithubRepository repo = new GithubRepository(
+                "repo1", "owner/repo1", "desc", 100, 50,
+                Instant.parse("2025-10-05T00:00:00Z"), "Java", 0.0
+        );
+        when(githubService.fetchResult("Java", "2023-01-01", 10, 1))
+                .thenReturn(RepositoryResult.stale(List.of(repo)));
+        when(scoringService.scoreRepositories(List.of(repo)))
+                .thenReturn(List.of(repo.withScore(75.0)));
+
+        ResponseEntity<List<GithubRepository>> response = controller.getPopularRepositories(
+                "Java", "2023-01-01", 10, 1
+        );
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("110 - \"Response is Stale\"", response.getHeaders().getFirst(HttpHeaders.WARNING));
+    }
 }
@@ -0,0 +1,70 @@
+package com.githubpopularity.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.githubpopularity.cache.CachedResponseBody;
+import com.githubpopularity.model.RepositoryQuery;
+import com.githubpopularity.service.CompositeScoringStrategy;
+import com.githubpopularity.service.DeltaSyncService;
+import com.githubpopularity.service.FormulaScoringStrategy;
+import com.githubpopularity.service.ScoringFormula;
+import com.githubpopularity.service.StaticThresholdStrategy;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ScoringFormulaEndpointTest {
+
+    private final FormulaScoringStrategy strategy =
+            new FormulaScoringStrategy(ScoringFormula.compile("stars", "exp(-ageDays)", 1));
+    private final DeltaSyncService deltaSyncService = mock(DeltaSyncService.class);
+    private final Cache<RepositoryQuery, CachedResponseBody> responseBodyCache = Caffeine.newBuilder().build();
+    private final ScoringFormulaEndpoint endpoint =
+            new ScoringFormulaEndpoint(strategy, deltaSyncService, responseBodyCache);
+
+    @Test
+    void updateReplacesGivenPartsAndKeepsTheRest() {
+        Map<String, Object> updated = endpoint.update("forks * 2", null, null);
+
+        assertEquals("forks * 2", updated.get("base"));
+        assertEquals("exp(-ageDays)", updated.get("recency"));
+        assertEquals("forks * 2", strategy.formula().base());
+        assertEquals(updated, endpoint.formula());
+    }
+
+    @Test
+    void invalidFormulaIsRejectedAndCurrentOneKept() {
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.update("stars +", null, null));
+
+        assertEquals("stars", strategy.formula().base());
+    }
+
+    @Test
+    void updateRetiresScoresComputedWithThePreviousFormula() {
+        responseBodyCache.put(new RepositoryQuery("Java", "2023-01-01", 10, 1),
+                new CachedResponseBody(new byte[1], List.of()));
+
+        endpoint.update("forks", null, null);
+
+        assertEquals(0, responseBodyCache.estimatedSize());
+        verify(deltaSyncService).requireFullResync();
+    }
+
+    @Test
+    void formulaVariantsThatDoNotRankSyncedRankingsLeaveThemAlone() {
+        CompositeScoringStrategy composite = new CompositeScoringStrategy(List.of(
+                new CompositeScoringStrategy.Variant("static", new StaticThresholdStrategy(50_000, 10_000, 3), 1),
+                new CompositeScoringStrategy.Variant("formula", strategy, 1)), null);
+        ScoringFormulaEndpoint variantEndpoint = new ScoringFormulaEndpoint(composite, deltaSyncService, responseBodyCache);
+
+        variantEndpoint.update("forks", null, null);
+
+        assertEquals("forks", strategy.formula().base());
+        verifyNoInteractions(deltaSyncService);
+    }
+}
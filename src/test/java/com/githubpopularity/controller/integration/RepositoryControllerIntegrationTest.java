@@ -3,19 +3,27 @@ package com.githubpopularity.controller.integration;
 import com.githubpopularity.model.GithubRepository;
 import com.githubpopularity.GithubPopularityApplication;
 import com.github.tomakehurst.wiremock.WireMockServer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.springframework.http.HttpStatus;
 
+import java.util.List;
+
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
         classes = GithubPopularityApplication.class)
 class RepositoryControllerIntegrationTest {
@@ -25,6 +33,9 @@ class RepositoryControllerIntegrationTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeAll
     static void startWireMock() {
         wireMockServer = new WireMockServer(8089);
@@ -42,6 +53,7 @@ class RepositoryControllerIntegrationTest {
     @DynamicPropertySource
     static void configureProperties(DynamicPropertyRegistry registry) {
         registry.add("github.api.base-url", () -> "http://localhost:8089");
+        registry.add("popularity.store.enabled", () -> "false");
     }
 
     @Test
@@ -173,4 +185,102 @@ class RepositoryControllerIntegrationTest {
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertTrue(response.getBody() != null && response.getBody().contains("GitHub API error"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetPopularRepositoriesReportsStageTimings() {
+        stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", containing("language:Scala"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {
+                                  "items": [
+                                    {
+                                      "name": "repo1",
+                                      "full_name": "owner/repo1",
+                                      "stargazers_count": 100,
+                                      "forks_count": 50,
+                                      "updated_at": "2025-10-05T00:00:00Z",
+                                      "language": "Scala"
+                                    }
+                                  ]
+                                }
+                                """)));
+
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "/api/repositories/popularity?language=Scala&createdAfter=2023-01-01",
+                String.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String serverTiming = response.getHeaders().getFirst("Server-Timing");
+        assertNotNull(serverTiming);
+        for (String stage : List.of("github;dur=", "decode;dur=", "score;dur=", "serialize;dur=", "total;dur=")) {
+            assertTrue(serverTiming.contains(stage), () -> "missing " + stage + " in " + serverTiming);
+        }
+        assertNotNull(meterRegistry.find("popularity.request.stage")
+                .tags("stage", "github", "language", "scala", "outcome", "success")
+                .timer());
+        assertEquals(200.0, meterRegistry.get("github.api.response.status").gauge().value());
+    }
+
+    @Test
+    void testStreamRepositoriesAsNdjson() {
+        stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", containing("language:Elixir"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {
+                                  "items": [
+                                    {
+                                      "name": "repo1",
+                                      "full_name": "owner/repo1",
+                                      "stargazers_count": 100,
+                                      "forks_count": 50,
+                                      "updated_at": "2025-10-05T00:00:00Z",
+                                      "language": "Elixir"
+                                    },
+                                    {
+                                      "name": "repo2",
+                                      "full_name": "owner/repo2",
+                                      "stargazers_count": 10,
+                                      "forks_count": 5,
+                                      "updated_at": "2025-10-05T00:00:00Z",
+                                      "language": "Elixir"
+                                    }
+                                  ]
+                                }
+                                """)));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/api/repositories/popularity/stream?language=Elixir&createdAfter=2023-01-01&pages=1",
+                HttpMethod.GET, new HttpEntity<>(headers), String.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(MediaType.APPLICATION_NDJSON.isCompatibleWith(response.getHeaders().getContentType()));
+        List<String> lines = response.getBody().lines().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("{") && lines.get(0).contains("\"fullName\":\"owner/repo1\""));
+    }
+
+    @Test
+    void testBatchRejectsInvalidQueries() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                "/api/repositories/popularity/batch",
+                new HttpEntity<>("""
+                        [{"language": "", "createdAfter": "2023-01-01"}]
+                        """, headers),
+                String.class
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+}
@@ -0,0 +1,29 @@
+package com.githubpopularity.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PopularityMetricsTest {
+
+    @Test
+    void tagsUnknownLanguagesAsOther() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PopularityMetrics metrics = new PopularityMetrics(registry, List.of("Java", " Go"));
+
+        metrics.recordStage("github", "JAVA", "success", 1_000);
+        metrics.recordStage("github", "go", "success", 1_000);
+        for (int i = 0; i < 100; i++) {
+            metrics.recordStage("github", "made-up-" + i, "success", 1_000);
+        }
+        metrics.recordStage("github", null, "success", 1_000);
+
+        assertEquals(4, registry.find(PopularityMetrics.STAGE_TIMER).timers().size());
+        assertEquals(100, registry.get(PopularityMetrics.STAGE_TIMER).tag("language", "other").timer().count());
+        assertEquals(1, registry.get(PopularityMetrics.STAGE_TIMER).tag("language", "java").timer().count());
+        assertEquals(1, registry.get(PopularityMetrics.STAGE_TIMER).tag("language", "none").timer().count());
+    }
+}
@@ -0,0 +1,55 @@
+package com.githubpopularity.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.util.context.Context;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StageTimingsTest {
+
+    @AfterEach
+    void tearDown() {
+        StageTimings.unbind();
+    }
+
+    @Test
+    void testRepeatedStagesAreSummedAndReportedInMilliseconds() {
+        StageTimings timings = new StageTimings(0);
+        timings.record(StageTimings.DECODE, 1_000_000);
+        timings.record(StageTimings.DECODE, 500_000);
+        timings.record(StageTimings.SCORE, 250_000);
+
+        assertEquals(Map.of(StageTimings.DECODE, 1_500_000L, StageTimings.SCORE, 250_000L), timings.stages());
+        assertEquals("decode;dur=1.50, score;dur=0.25", timings.toServerTiming());
+    }
+
+    @Test
+    void testFinishAddsSerializeAndTotal() {
+        StageTimings timings = new StageTimings(System.nanoTime());
+        timings.markSerializeStart();
+        timings.finish(System.nanoTime());
+
+        assertTrue(timings.stages().containsKey(StageTimings.SERIALIZE));
+        assertTrue(timings.stages().containsKey(StageTimings.TOTAL));
+    }
+
+    @Test
+    void testCurrentIsNoOpWhenNothingIsBound() {
+        StageTimings.current().record(StageTimings.SCORE, 1_000);
+
+        assertEquals("", StageTimings.current().toServerTiming());
+    }
+
+    @Test
+    void testContextTakesPrecedenceOverBoundTimings() {
+        StageTimings bound = new StageTimings(0);
+        StageTimings inContext = new StageTimings(0);
+        StageTimings.bind(bound);
+
+        assertSame(bound, StageTimings.from(Context.empty()));
+        assertSame(inContext, StageTimings.from(Context.of(StageTimings.class, inContext)));
+    }
+}
@@ -0,0 +1,71 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.exception.GithubApiException;
+import com.githubpopularity.model.BatchQueryResult;
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+import com.githubpopularity.model.RepositoryResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BatchQueryServiceTest {
+
+    private ReactiveGithubRepositoryService githubService;
+    private BatchQueryService batchQueryService;
+
+    @BeforeEach
+    void setUp() {
+        githubService = mock(ReactiveGithubRepositoryService.class);
+        batchQueryService = new BatchQueryService(githubService,
+                new PopularityScoringService(new StaticThresholdStrategy(50000, 10000, 3)), 2);
+    }
+
+    private static GithubRepository repo(String name) {
+        return new GithubRepository(name, "owner/" + name, "desc", 100, 10,
+                Instant.parse("2025-10-05T00:00:00Z"), "Java", 0.0);
+    }
+
+    @Test
+    void deduplicatesQueriesAndKeepsRequestOrder() {
+        RepositoryQuery java = new RepositoryQuery("Java", "2023-01-01", 10, 1);
+        RepositoryQuery go = new RepositoryQuery("Go", "2023-01-01", 10, 1);
+        when(githubService.fetchResult("Java", "2023-01-01", 10, 1))
+                .thenReturn(Mono.just(RepositoryResult.fresh(List.of(repo("j")))));
+        when(githubService.fetchResult("Go", "2023-01-01", 10, 1))
+                .thenReturn(Mono.just(RepositoryResult.stale(List.of(repo("g")))));
+
+        List<BatchQueryResult> results = batchQueryService.execute(List.of(java, go, java)).block();
+
+        assertNotNull(results);
+        assertEquals(List.of(java, go, java), results.stream().map(BatchQueryResult::query).toList());
+        assertEquals("j", results.get(0).repositories().get(0).name());
+        assertTrue(results.get(0).repositories().get(0).popularityScore() > 0);
+        assertTrue(results.get(1).stale());
+        verify(githubService, times(1)).fetchResult("Java", "2023-01-01", 10, 1);
+    }
+
+    @Test
+    void failedQueriesBecomeErrorEntries() {
+        RepositoryQuery java = new RepositoryQuery("Java", "2023-01-01", 10, 1);
+        RepositoryQuery bad = new RepositoryQuery("Nope", "2023-01-01", 10, 1);
+        when(githubService.fetchResult("Java", "2023-01-01", 10, 1))
+                .thenReturn(Mono.just(RepositoryResult.fresh(List.of(repo("j")))));
+        when(githubService.fetchResult("Nope", "2023-01-01", 10, 1))
+                .thenReturn(Mono.error(new GithubApiException(422, "GitHub API validation error")));
+
+        List<BatchQueryResult> results = batchQueryService.execute(List.of(java, bad)).block();
+
+        assertNotNull(results);
+        assertEquals(200, results.get(0).status());
+        assertEquals(422, results.get(1).status());
+        assertEquals("GitHub API validation error", results.get(1).error());
+        assertTrue(results.get(1).repositories().isEmpty());
+    }
+}
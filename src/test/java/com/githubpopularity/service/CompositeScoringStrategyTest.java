@@ -0,0 +1,108 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.metrics.PopularityMetrics;
+import com.githubpopularity.model.GithubRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompositeScoringStrategyTest {
+
+    private static final Instant NOW = Instant.now();
+    private static final List<GithubRepository> REPOS = List.of(
+            new GithubRepository("a", "o/a", "d", 100, 1, NOW, "Java", 0.0),
+            new GithubRepository("b", "o/b", "d", 10, 50, NOW, "Java", 0.0),
+            new GithubRepository("c", "o/c", "d", 1, 5, NOW, "Java", 0.0));
+
+    private SimpleMeterRegistry registry;
+    private PopularityMetrics metrics;
+    private CountingStrategy byStars;
+    private CountingStrategy byForks;
+
+    /**
+     * Scores by a single field and counts the repositories it scored.
+     */
+    private static final class CountingStrategy implements PopularityScoringStrategy {
+        private final boolean stars;
+        private final AtomicInteger scored = new AtomicInteger();
+
+        CountingStrategy(boolean stars) {
+            this.stars = stars;
+        }
+
+        @Override
+        public GithubRepository calculateScore(GithubRepository repository) {
+            scored.incrementAndGet();
+            return repository.withScore(stars ? repository.stars() : repository.forks());
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new PopularityMetrics(registry);
+        byStars = new CountingStrategy(true);
+        byForks = new CountingStrategy(false);
+    }
+
+    private CompositeScoringStrategy composite(double starsWeight, double forksWeight, double draw) {
+        return new CompositeScoringStrategy(List.of(
+                new CompositeScoringStrategy.Variant("stars", byStars, starsWeight),
+                new CompositeScoringStrategy.Variant("forks", byForks, forksWeight)), metrics, () -> draw);
+    }
+
+    @Test
+    void scoresEveryVariantOnceAndServesTheDrawnOne() {
+        CompositeScoringStrategy strategy = composite(1, 3, 0.5);
+
+        List<GithubRepository> scored = strategy.calculateResponseScores(REPOS);
+
+        assertEquals(List.of(1.0, 50.0, 5.0), scored.stream().map(GithubRepository::popularityScore).toList());
+        assertEquals(3, byStars.scored.get());
+        assertEquals(3, byForks.scored.get());
+        assertEquals(1, registry.get("popularity.scoring.variant.served").tag("variant", "forks").counter().count());
+        // stars ranks a, b, c as 1, 2, 3 and forks as 3, 1, 2
+        assertEquals(4 / 3.0, registry.get("popularity.scoring.variant.rank-shift").tag("variant", "forks")
+                .summary().mean(), 1e-9);
+    }
+
+    @Test
+    void routesByWeightAndNeverServesZeroWeightVariants() {
+        assertEquals(0, composite(1, 3, 0.2).route());
+        assertEquals(1, composite(1, 3, 0.3).route());
+        assertEquals(0, composite(1, 0, 0.999_999).route());
+        assertEquals(0, composite(1, 0, 1.0).route());
+    }
+
+    @Test
+    void rankingsAndBaseScoresUseTheControlOnly() {
+        CompositeScoringStrategy strategy = composite(0, 1, 0.5);
+
+        assertEquals(100, strategy.calculateScore(REPOS.get(0)).popularityScore());
+        assertEquals(100, strategy.baseScore(REPOS.get(0)));
+        assertEquals(List.of(100.0, 10.0, 1.0),
+                strategy.calculateScores(REPOS).stream().map(GithubRepository::popularityScore).toList());
+        assertEquals(0, byForks.scored.get());
+    }
+
+    @Test
+    void tiesShareTheBestRank() {
+        assertArrayEquals(new int[]{2, 1, 2, 4}, CompositeScoringStrategy.ranks(new double[]{5, 9, 5, 1}));
+    }
+
+    @Test
+    void rejectsInvalidVariants() {
+        assertThrows(IllegalArgumentException.class, () -> new CompositeScoringStrategy(List.of(), metrics));
+        assertThrows(IllegalArgumentException.class, () -> composite(0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> composite(-1, 2, 0));
+        assertThrows(IllegalArgumentException.class, () -> new CompositeScoringStrategy(List.of(
+                new CompositeScoringStrategy.Variant("x", byStars, 1),
+                new CompositeScoringStrategy.Variant("x", byForks, 1)), metrics));
+    }
+}
@@ -0,0 +1,260 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.client.ReactiveGithubApiClient;
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.store.OffHeapRepositoryStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DeltaSyncServiceTest {
+
+    private static final Instant START = Instant.parse("2025-10-01T12:00:00Z");
+    private static final String DELTA_QUERY = "language:Java created:>2023-01-01 pushed:>2025-10-01T11:59:00Z";
+
+    private ReactiveGithubApiClient githubApiClient;
+    private ShardedCrawlService crawlService;
+    private AtomicReference<Instant> now;
+    private AtomicInteger scored;
+    private DeltaSyncService syncService;
+
+    @BeforeEach
+    void setUp() {
+        githubApiClient = mock(ReactiveGithubApiClient.class);
+        crawlService = mock(ShardedCrawlService.class);
+        now = new AtomicReference<>(START);
+        scored = new AtomicInteger();
+        PopularityScoringStrategy strategy = repo -> {
+            scored.incrementAndGet();
+            return repo.withScore(repo.stars());
+        };
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+        syncService = new DeltaSyncService(githubApiClient, crawlService, strategy, "pushed",
+                Duration.ofMinutes(1), Duration.ofHours(24), 2, Duration.ofMinutes(2), OffHeapRepositoryStore::new, clock);
+    }
+
+    private static GithubRepository repo(String name, int stars) {
+        return new GithubRepository(name, "owner/" + name, "desc", stars, 0,
+                Instant.parse("2025-09-01T00:00:00Z"), "Java", 0.0);
+    }
+
+    private static List<String> names(List<GithubRepository> repositories) {
+        return repositories.stream().map(GithubRepository::name).toList();
+    }
+
+    @Test
+    void firstSyncCrawlsAndLaterSyncsMergeOnlyChanges() {
+        when(crawlService.crawl("Java", "2023-01-01"))
+                .thenReturn(Flux.just(repo("a", 100), repo("b", 50), repo("c", 10)));
+        assertEquals(List.of("a", "b"), names(syncService.rankSynced("Java", "2023-01-01", 2).block()));
+        assertEquals(3, scored.get());
+
+        now.set(START.plus(Duration.ofMinutes(5)));
+        when(githubApiClient.searchRepositories(DELTA_QUERY, DeltaSyncService.PAGE_SIZE, 1))
+                .thenReturn(Flux.just(repo("a", 100), repo("c", 500), repo("d", 75)));
+
+        List<GithubRepository> top = syncService.rankSynced("Java", "2023-01-01", 3).block();
+
+        assertEquals(List.of("c", "a", "d"), names(top));
+        assertEquals(500.0, top.get(0).popularityScore());
+        // unchanged "a" is not re-scored
+        assertEquals(5, scored.get());
+        verify(crawlService, times(1)).crawl(anyString(), anyString());
+        verify(githubApiClient, times(1)).searchRepositories(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void rankingRequestsServeTheStoredRankingUntilItIsTooOld() {
+        when(crawlService.crawl("Java", "2023-01-01")).thenReturn(Flux.just(repo("a", 100), repo("b", 50)));
+        syncService.rankSynced("Java", "2023-01-01", 2).block();
+        now.set(START.plus(Duration.ofMinutes(1)));
+
+        assertEquals(List.of("a", "b"), names(syncService.rankSynced("Java", "2023-01-01", 2).block()));
+        verifyNoInteractions(githubApiClient);
+
+        now.set(START.plus(Duration.ofMinutes(3)));
+        when(githubApiClient.searchRepositories(anyString(), anyInt(), anyInt())).thenReturn(Flux.empty());
+        syncService.rankSynced("Java", "2023-01-01", 2).block();
+        verify(githubApiClient, times(1)).searchRepositories(anyString(), anyInt(), anyInt());
+        verify(crawlService, times(1)).crawl(anyString(), anyString());
+    }
+
+    @Test
+    void requiredFullResyncRescoresTheRankingOnTheNextRequest() {
+        when(crawlService.crawl("Java", "2023-01-01")).thenReturn(Flux.just(repo("a", 100), repo("b", 50)));
+        syncService.rankSynced("Java", "2023-01-01", 2).block();
+        now.set(START.plus(Duration.ofMinutes(1)));
+
+        syncService.requireFullResync();
+        syncService.rankSynced("Java", "2023-01-01", 2).block();
+
+        verify(crawlService, times(2)).crawl(anyString(), anyString());
+        assertEquals(4, scored.get());
+        verifyNoInteractions(githubApiClient);
+        syncService.rankSynced("Java", "2023-01-01", 2).block();
+        verify(crawlService, times(2)).crawl(anyString(), anyString());
+    }
+
+    @Test
+    void deltaPagesUntilAPageIsNotFull() {
+        when(crawlService.crawl("Java", "2023-01-01")).thenReturn(Flux.just(repo("a", 1)));
+        syncService.sync("Java", "2023-01-01").block();
+        now.set(START.plus(Duration.ofMinutes(5)));
+        when(githubApiClient.searchRepositories(DELTA_QUERY, DeltaSyncService.PAGE_SIZE, 1))
+                .thenReturn(Flux.fromStream(IntStream.range(0, DeltaSyncService.PAGE_SIZE).mapToObj(i -> repo("p" + i, i))));
+        when(githubApiClient.searchRepositories(DELTA_QUERY, DeltaSyncService.PAGE_SIZE, 2))
+                .thenReturn(Flux.just(repo("last", 1000)));
+
+        SyncedRanking ranking = syncService.sync("Java", "2023-01-01").block();
+
+        assertNotNull(ranking);
+        assertEquals(DeltaSyncService.PAGE_SIZE + 2, ranking.size());
+        assertEquals(START.plus(Duration.ofMinutes(5)), ranking.getWatermark());
+        verify(githubApiClient, times(2)).searchRepositories(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void deltaOverTheSearchCapFallsBackToFullSync() {
+        when(crawlService.crawl("Java", "2023-01-01")).thenReturn(Flux.just(repo("a", 1)));
+        syncService.sync("Java", "2023-01-01").block();
+        now.set(START.plus(Duration.ofMinutes(5)));
+        when(githubApiClient.searchRepositories(eq(DELTA_QUERY), anyInt(), anyInt()))
+                .thenAnswer(invocation -> Flux.fromStream(IntStream.range(0, DeltaSyncService.PAGE_SIZE)
+                        .mapToObj(i -> repo("p" + invocation.getArgument(2) + "-" + i, i))));
+
+        syncService.sync("Java", "2023-01-01").block();
+
+        verify(githubApiClient, times(DeltaSyncService.MAX_PAGES)).searchRepositories(anyString(), anyInt(), anyInt());
+        verify(crawlService, times(2)).crawl("Java", "2023-01-01");
+    }
+
+    @Test
+    void fullSyncRunsAgainAfterResyncInterval() {
+        when(crawlService.crawl("Java", "2023-01-01")).thenReturn(Flux.just(repo("a", 1)));
+        syncService.sync("Java", "2023-01-01").block();
+        now.set(START.plus(Duration.ofHours(24)));
+
+        syncService.sync("Java", "2023-01-01").block();
+
+        verify(crawlService, times(2)).crawl("Java", "2023-01-01");
+        verifyNoInteractions(githubApiClient);
+    }
+
+    @Test
+    void failedFirstSyncIsNotTracked() {
+        when(crawlService.crawl(anyString(), anyString())).thenReturn(Flux.just(repo("a", 1)));
+        when(crawlService.crawl("Rust", "2023-01-01")).thenReturn(Flux.error(new IllegalStateException("boom")));
+
+        assertThrows(IllegalStateException.class, () -> syncService.sync("Rust", "2023-01-01").block());
+        syncService.rankSynced("Java", "2023-01-01", 1).block();
+        syncService.rankSynced("Go", "2023-01-01", 1).block();
+
+        assertEquals(List.of("a"), names(syncService.rankSynced("Java", "2023-01-01", 1).block()));
+        assertEquals(List.of("a"), names(syncService.rankSynced("Go", "2023-01-01", 1).block()));
+        verify(crawlService, times(3)).crawl(anyString(), anyString());
+    }
+
+    @Test
+    void newRankingOverTheLimitEvictsTheLeastRecentlyReadOne() {
+        when(crawlService.crawl(anyString(), anyString())).thenReturn(Flux.just(repo("a", 1)));
+        syncService.rankSynced("Java", "2023-01-01", 1).block();
+        now.set(START.plusSeconds(10));
+        SyncedRanking go = syncService.sync("Go", "2023-01-01").block();
+        syncService.rankSynced("Go", "2023-01-01", 1).block();
+        now.set(START.plusSeconds(20));
+        syncService.rankSynced("Java", "2023-01-01", 1).block();
+
+        assertEquals(List.of("a"), names(syncService.rankSynced("Kotlin", "2023-01-01", 1).block()));
+
+        assertNotNull(go);
+        assertEquals(0, go.size(), "the evicted ranking releases its store");
+        syncService.rankSynced("Java", "2023-01-01", 1).block();
+        verify(crawlService, times(1)).crawl("Java", "2023-01-01");
+        syncService.rankSynced("Go", "2023-01-01", 1).block();
+        verify(crawlService, times(2)).crawl("Go", "2023-01-01");
+    }
+
+    @Test
+    void rankingsThatAreAllSyncingAreNotEvicted() {
+        when(crawlService.crawl(anyString(), anyString())).thenReturn(Flux.never());
+        syncService.sync("Java", "2023-01-01").subscribe();
+        syncService.sync("Go", "2023-01-01").subscribe();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> syncService.sync("Kotlin", "2023-01-01").block());
+        assertTrue(e.getMessage().contains("All 2 synced rankings are syncing"));
+    }
+
+    @Test
+    void backgroundSyncDoesNotBlockAndSkipsWhileThePreviousRunIsSyncing() {
+        when(crawlService.crawl("Java", "2023-01-01")).thenReturn(Flux.just(repo("a", 1)));
+        SyncedRanking ranking = syncService.sync("Java", "2023-01-01").block();
+        now.set(START.plus(Duration.ofMinutes(5)));
+        Sinks.Many<GithubRepository> delta = Sinks.many().unicast().onBackpressureBuffer();
+        when(githubApiClient.searchRepositories(DELTA_QUERY, DeltaSyncService.PAGE_SIZE, 1))
+                .thenReturn(delta.asFlux());
+
+        syncService.syncAll();
+        syncService.syncAll();
+        verify(githubApiClient, times(1)).searchRepositories(anyString(), anyInt(), anyInt());
+
+        delta.tryEmitNext(repo("b", 5));
+        delta.tryEmitComplete();
+        assertNotNull(ranking);
+        assertEquals(2, ranking.size());
+        now.set(START.plus(Duration.ofMinutes(10)));
+        when(githubApiClient.searchRepositories(anyString(), anyInt(), anyInt())).thenReturn(Flux.empty());
+        syncService.syncAll();
+        verify(githubApiClient, times(2)).searchRepositories(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void syncedRankingAppliesRecencyAtReadTime() {
+        StaticThresholdStrategy strategy = new StaticThresholdStrategy(50000, 10000, 3);
+        GithubRepository active = new GithubRepository("active", "owner/active", "desc", 1000, 0,
+                START, "Java", 0.0);
+        GithubRepository dormant = new GithubRepository("dormant", "owner/dormant", "desc", 1500, 0,
+                START.minus(Duration.ofDays(400)), "Java", 0.0);
+        SyncedRanking ranking = new SyncedRanking();
+        ranking.replaceAll(List.of(active.withScore(strategy.baseScore(active)),
+                dormant.withScore(strategy.baseScore(dormant))), START);
+
+        List<GithubRepository> today = ranking.top(2, strategy, START);
+        List<GithubRepository> nextMonth = ranking.top(2, strategy, START.plus(Duration.ofDays(30)));
+
+        assertEquals(List.of("active", "dormant"), names(today));
+        assertEquals(List.of("dormant", "active"), names(nextMonth));
+        assertEquals(strategy.baseScore(active) + StaticThresholdStrategy.RECENCY_WEIGHT,
+                today.get(0).popularityScore(), 0.0001);
+    }
+}
@@ -0,0 +1,108 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.model.GithubRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormulaScoringStrategyTest {
+
+    private static final String STATIC_BASE = "(min(1.0, stars / 50000) * 0.6 + min(1.0, forks / 10000) * 0.3) * 100";
+    private static final String STATIC_RECENCY = "exp(-ageDays / 3) * 10";
+
+    private static List<GithubRepository> repositories(int count) {
+        Random random = new Random(7);
+        Instant now = Instant.now();
+        List<GithubRepository> repos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            repos.add(new GithubRepository("repo" + i, "owner/repo" + i, "desc",
+                    random.nextInt(80_000), random.nextInt(15_000),
+                    now.minusSeconds(random.nextInt(86_400 * 30)), i % 2 == 0 ? "Java" : null, 0.0));
+        }
+        return repos;
+    }
+
+    @Test
+    void compiledFormulaMatchesHandWrittenStrategy() {
+        FormulaScoringStrategy formula = new FormulaScoringStrategy(
+                ScoringFormula.compile(STATIC_BASE, STATIC_RECENCY, 10));
+        StaticThresholdStrategy reference = new StaticThresholdStrategy(50_000, 10_000, 3);
+        List<GithubRepository> repos = repositories(1000);
+        RepositoryBatch batch = RepositoryBatch.of(repos);
+
+        double[] expected = reference.calculateScores(batch);
+        double[] actual = formula.calculateScores(batch);
+
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual[i], 1e-9);
+            assertEquals(reference.baseScore(repos.get(i)), formula.baseScore(repos.get(i)), 1e-9);
+        }
+        assertEquals(reference.maxRecencyScore(), formula.maxRecencyScore());
+    }
+
+    @Test
+    void formulasCanUseLanguageAndClampRecency() {
+        ScoringFormula compiled = ScoringFormula.compile(
+                "select(language == 'Java', stars * 2, stars)", "100 - ageDays", 5);
+        FormulaScoringStrategy strategy = new FormulaScoringStrategy(compiled);
+        Instant now = Instant.now();
+
+        GithubRepository java = new GithubRepository("a", "o/a", "d", 10, 0, now, "Java", 0.0);
+        GithubRepository none = new GithubRepository("b", "o/b", "d", 10, 0, now.minusSeconds(86_400 * 200), null, 0.0);
+
+        assertEquals(25, strategy.calculateScore(java).popularityScore(), 1e-9);
+        assertEquals(10, strategy.calculateScore(none).popularityScore(), 1e-9);
+    }
+
+    @Test
+    void rejectsInvalidOrUncompilableFormulas() {
+        assertThrows(IllegalArgumentException.class, () -> ScoringFormula.compile("stars *", "0", 0));
+        assertThrows(IllegalArgumentException.class, () -> ScoringFormula.compile("watchers", "0", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoringFormula.compile("language == 'Go' ? stars : forks", "0", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoringFormula.compile("T(java.lang.System).exit(0)", "0", 0));
+        assertThrows(IllegalArgumentException.class, () -> ScoringFormula.compile("language", "0", 0));
+        assertThrows(IllegalArgumentException.class, () -> ScoringFormula.compile(" ", "0", 0));
+        assertThrows(IllegalArgumentException.class, () -> ScoringFormula.compile("stars", "0", -1));
+    }
+
+    @Test
+    void rejectsFormulasWithNonFiniteResultsForEdgeInputs() {
+        assertThrows(IllegalArgumentException.class, () -> ScoringFormula.compile("log(stars)", "0", 0));
+        assertThrows(IllegalArgumentException.class, () -> ScoringFormula.compile("forks / stars", "0", 0));
+        assertThrows(IllegalArgumentException.class, () -> ScoringFormula.compile("pow(stars, 100.0)", "0", 0));
+        assertThrows(IllegalArgumentException.class, () -> ScoringFormula.compile("stars", "sqrt(ageDays - 1)", 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> ScoringFormula.compile("language.length() / language.length()", "0", 0));
+        assertDoesNotThrow(() -> ScoringFormula.compile("log1p(stars)", "exp(-ageDays / 3)", 1));
+    }
+
+    @Test
+    void nonFiniteScoresCountAsZero() {
+        FormulaScoringStrategy strategy = new FormulaScoringStrategy(
+                ScoringFormula.compile("100 / (stars - 5)", "1 / (ageDays - 5)", 1));
+        Instant now = Instant.now();
+        GithubRepository repo = new GithubRepository("a", "o/a", "d", 5, 0, now.minusSeconds(86_400 * 5), "Java", 0.0);
+
+        assertEquals(0, strategy.baseScore(repo), 0.0);
+        assertEquals(0, strategy.recencyScore(repo.lastUpdated(), now), 0.0);
+        assertEquals(0, strategy.calculateScores(RepositoryBatch.of(List.of(repo)))[0], 0.0);
+    }
+
+    @Test
+    void updateSwapsFormulaForSubsequentScoring() {
+        FormulaScoringStrategy strategy = new FormulaScoringStrategy(ScoringFormula.compile("stars", "0", 0));
+        GithubRepository repo = new GithubRepository("a", "o/a", "d", 10, 3, Instant.now(), "Java", 0.0);
+
+        ScoringFormula previous = strategy.update(ScoringFormula.compile("forks", "0", 0));
+
+        assertEquals("stars", previous.base());
+        assertEquals(3, strategy.calculateScore(repo).popularityScore(), 1e-9);
+    }
+}
@@ -1,13 +1,29 @@
 package com.githubpopularity.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.githubpopularity.cache.RepositoryPool;
+import com.githubpopularity.client.CircuitBreaker;
 import com.githubpopularity.client.GithubApiClient;
-import com.githubpopularity.dto.GithubRepositoryItem;
+import com.githubpopularity.client.ReactiveGithubApiClient;
+import com.githubpopularity.exception.GithubApiException;
+import com.githubpopularity.model.CacheStatistics;
 import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+import com.githubpopularity.store.SnapshotStore;
+import com.githubpopularity.model.RepositoryResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -15,24 +31,33 @@ import static org.mockito.Mockito.*;
 class GithubRepositoryServiceImplTest {
 
     private GithubApiClient githubApiClient;
+    private Cache<RepositoryQuery, List<GithubRepository>> repositoryCache;
     private GithubRepositoryServiceImpl repositoryService;
 
     @BeforeEach
     void setUp() {
         githubApiClient = mock(GithubApiClient.class);
-        repositoryService = new GithubRepositoryServiceImpl(githubApiClient);
+        repositoryCache = Caffeine.newBuilder().maximumSize(100).recordStats().build();
+        RepositoryPool repositoryPool = new RepositoryPool(true);
+        StaleResultFallback staleResultFallback = new StaleResultFallback(mock(ReactiveGithubApiClient.class),
+                new CircuitBreaker(10, 5, 50, Duration.ofSeconds(5), 100, Duration.ofSeconds(30)),
+                repositoryCache, Caffeine.newBuilder().maximumSize(100).build(), SnapshotStore.disabled(),
+                repositoryPool);
+        repositoryService = new GithubRepositoryServiceImpl(githubApiClient, repositoryCache, staleResultFallback,
+                new HotQueryTracker(100), repositoryPool);
     }
 
     @Test
-    void fetchRepositoriesReturnsMappedRepositories() {
-        GithubRepositoryItem item = new GithubRepositoryItem(
+    void fetchRepositoriesReturnsRepositories() {
+        GithubRepository item = new GithubRepository(
                 "repo1",
                 "owner/repo1",
                 "A test repo",
                 100,
                 50,
                 Instant.parse("2025-10-05T00:00:00Z"),
-                "Java"
+                "Java",
+                0.0
         );
 
         when(githubApiClient.fetchRepositories(anyString(), eq(10), eq(1)))
@@ -70,4 +95,93 @@ class GithubRepositoryServiceImplTest {
 
         verify(githubApiClient, times(1)).fetchRepositories(anyString(), eq(5), eq(1));
     }
+
+    @Test
+    void fetchRepositoriesServesRepeatedQueryFromCache() {
+        GithubRepository item = new GithubRepository(
+                "repo1", "owner/repo1", "A test repo", 100, 50,
+                Instant.parse("2025-10-05T00:00:00Z"), "Java", 0.0
+        );
+        when(githubApiClient.fetchRepositories(anyString(), eq(10), eq(1)))
+                .thenReturn(List.of(item));
+
+        List<GithubRepository> first = repositoryService.fetchRepositories("Java", "2023-01-01", 10, 1);
+        List<GithubRepository> second = repositoryService.fetchRepositories("Java", "2023-01-01", 10, 1);
+
+        assertEquals(first, second);
+        verify(githubApiClient, times(1)).fetchRepositories(anyString(), eq(10), eq(1));
+
+        CacheStatistics stats = repositoryService.getCacheStatistics();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+    }
+
+    @Test
+    void fetchRepositoriesConcurrentMissesShareOneCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(githubApiClient.fetchRepositories(anyString(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return List.of();
+                });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<GithubRepository>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> repositoryService.fetchRepositories("Go", "2023-01-01", 10, 1)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<List<GithubRepository>> future : futures) {
+                assertTrue(future.get(5, TimeUnit.SECONDS).isEmpty());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(githubApiClient, times(1)).fetchRepositories(anyString(), eq(10), eq(1));
+    }
+
+    @Test
+    void fetchResultServesLastGoodResultAsStaleWhenGithubIsUnavailable() {
+        GithubRepository item = new GithubRepository(
+                "repo1", "owner/repo1", "A test repo", 100, 50,
+                Instant.parse("2025-10-05T00:00:00Z"), "Java", 0.0
+        );
+        when(githubApiClient.fetchRepositories(anyString(), eq(10), eq(1)))
+                .thenReturn(List.of(item))
+                .thenThrow(new GithubApiException(503, "GitHub API service unavailable"));
+
+        RepositoryResult fresh = repositoryService.fetchResult("Java", "2023-01-01", 10, 1);
+        repositoryCache.invalidateAll();
+        RepositoryResult stale = repositoryService.fetchResult("Java", "2023-01-01", 10, 1);
+
+        assertFalse(fresh.stale());
+        assertTrue(stale.stale());
+        assertEquals(fresh.repositories(), stale.repositories());
+    }
+
+    @Test
+    void fetchResultRethrowsRequestErrorsEvenWithLastGoodResult() {
+        when(githubApiClient.fetchRepositories(anyString(), eq(10), eq(1)))
+                .thenReturn(List.of())
+                .thenThrow(new GithubApiException(422, "GitHub API validation error"));
+
+        repositoryService.fetchResult("Java", "2023-01-01", 10, 1);
+        repositoryCache.invalidateAll();
+
+        GithubApiException ex = assertThrows(GithubApiException.class,
+                () -> repositoryService.fetchResult("Java", "2023-01-01", 10, 1));
+        assertEquals(422, ex.getStatusCode());
+    }
+
+    @Test
+    void fetchResultRethrowsWhenNoEarlierResultIsKnown() {
+        when(githubApiClient.fetchRepositories(anyString(), anyInt(), anyInt()))
+                .thenThrow(new GithubApiException(503, "GitHub API service unavailable"));
+
+        assertThrows(GithubApiException.class,
+                () -> repositoryService.fetchResult("Java", "2023-01-01", 10, 1));
+    }
 }
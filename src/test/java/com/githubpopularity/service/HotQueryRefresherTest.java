@@ -0,0 +1,81 @@
+package com.githubpopularity.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HotQueryRefresherTest {
+
+    private final AtomicLong ticker = new AtomicLong();
+    private ReactiveGithubRepositoryService githubService;
+    private HotQueryTracker tracker;
+    private Cache<RepositoryQuery, List<GithubRepository>> repositoryCache;
+
+    @BeforeEach
+    void setUp() {
+        githubService = mock(ReactiveGithubRepositoryService.class);
+        when(githubService.refresh(any())).thenReturn(Mono.just(List.of()));
+        tracker = new HotQueryTracker(100);
+        repositoryCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .ticker(ticker::get)
+                .build();
+    }
+
+    private HotQueryRefresher refresher(List<String> warmQueries) {
+        return new HotQueryRefresher(githubService, tracker, repositoryCache, 2, 2, 60_000, warmQueries, 5_000);
+    }
+
+    private static RepositoryQuery query(String language) {
+        return new RepositoryQuery(language, "2023-01-01", 10, 1);
+    }
+
+    @Test
+    void refreshesOnlyHotQueriesThatAreMissingOrAboutToExpire() {
+        tracker.record(query("Java"));
+        tracker.record(query("Java"));
+        tracker.record(query("Go"));
+        tracker.record(query("Go"));
+        tracker.record(query("Rust"));
+        repositoryCache.put(query("Go"), List.of());
+        repositoryCache.put(query("Java"), List.of());
+        ticker.addAndGet(Duration.ofMinutes(4).toNanos());
+        repositoryCache.put(query("Go"), List.of());
+
+        refresher(List.of()).refreshHotQueries();
+
+        verify(githubService).refresh(query("Java"));
+        verify(githubService, never()).refresh(query("Go"));
+        verify(githubService, never()).refresh(query("Rust"));
+    }
+
+    @Test
+    void warmsConfiguredQueriesAtStartupAndTracksThem() {
+        refresher(List.of("Java:2023-01-01", " Go:2023-01-01 ", "invalid")).run(new DefaultApplicationArguments());
+
+        verify(githubService).refresh(query("Java"));
+        verify(githubService).refresh(query("Go"));
+        verifyNoMoreInteractions(githubService);
+        assertEquals(2, tracker.hottest(10).size());
+    }
+
+    @Test
+    void parseWarmQueryKeepsColonsInLanguage() {
+        assertEquals(Optional.of(new RepositoryQuery("objective:c", "2024-01-01", 10, 1)),
+                HotQueryRefresher.parseWarmQuery("objective:c:2024-01-01"));
+        assertEquals(Optional.empty(), HotQueryRefresher.parseWarmQuery("Java:"));
+    }
+}
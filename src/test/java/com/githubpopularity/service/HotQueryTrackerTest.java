@@ -0,0 +1,53 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.model.RepositoryQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotQueryTrackerTest {
+
+    private static RepositoryQuery query(String language) {
+        return new RepositoryQuery(language, "2023-01-01", 10, 1);
+    }
+
+    private static void record(HotQueryTracker tracker, String language, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(query(language));
+        }
+    }
+
+    @Test
+    void hottestOrdersByRequestCount() {
+        HotQueryTracker tracker = new HotQueryTracker(10);
+        record(tracker, "Go", 2);
+        record(tracker, "Java", 5);
+        record(tracker, "Rust", 1);
+
+        assertEquals(List.of(query("Java"), query("Go")), tracker.hottest(2));
+    }
+
+    @Test
+    void decayHalvesCountsAndForgetsColdQueries() {
+        HotQueryTracker tracker = new HotQueryTracker(10);
+        record(tracker, "Java", 4);
+        record(tracker, "Go", 1);
+
+        tracker.decay();
+
+        assertEquals(List.of(query("Java")), tracker.hottest(10));
+        record(tracker, "Go", 3);
+        assertEquals(List.of(query("Go"), query("Java")), tracker.hottest(10));
+    }
+
+    @Test
+    void ignoresNewQueriesWhenFull() {
+        HotQueryTracker tracker = new HotQueryTracker(1);
+        record(tracker, "Java", 1);
+        record(tracker, "Go", 5);
+
+        assertEquals(List.of(query("Java")), tracker.hottest(10));
+    }
+}
@@ -0,0 +1,111 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.model.GithubRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PercentileRankStrategyTest {
+
+    private static GithubRepository repo(String language, int stars, int forks) {
+        return new GithubRepository("repo", "owner/repo", "desc", stars, forks,
+                Instant.parse("2020-01-01T00:00:00Z"), language, 0.0);
+    }
+
+    @Test
+    void sketchRankMatchesExactRankWithinAccuracy() {
+        QuantileSketch sketch = new QuantileSketch(0.01);
+        Random random = new Random(42);
+        int[] values = new int[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // heavy-tailed like star counts: most near zero, a few very large
+            values[i] = (int) Math.min(Integer.MAX_VALUE, Math.exp(random.nextDouble() * 14) - 1);
+            sketch.add(values[i]);
+        }
+
+        for (int probe : new int[]{0, 5, 100, 2_000, 50_000, 1_000_000}) {
+            long below = 0;
+            for (int value : values) {
+                below += value < probe * 0.97 ? 1 : 0;
+            }
+            long belowOrNear = 0;
+            for (int value : values) {
+                belowOrNear += value <= probe * 1.03 ? 1 : 0;
+            }
+            // a bucket spans about 2% at 1% accuracy, so only values within that of the probe are uncertain
+            double rank = sketch.rank(probe);
+            assertTrue(rank >= below / (double) values.length - 1e-9 && rank <= belowOrNear / (double) values.length + 1e-9,
+                    () -> "rank " + rank + " of " + probe + " out of bounds");
+        }
+        assertEquals(values.length, sketch.count());
+    }
+
+    @Test
+    void sketchesMergeByAddingCounts() {
+        QuantileSketch left = new QuantileSketch(0.01);
+        QuantileSketch right = new QuantileSketch(0.01);
+        for (int i = 0; i < 100; i++) {
+            left.add(i);
+            right.add(1000 + i);
+        }
+
+        left.merge(right);
+
+        assertEquals(200, left.count());
+        assertEquals(0.5, left.rank(500), 0.0);
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new QuantileSketch(0.05)));
+    }
+
+    @Test
+    void scoresByRankWithinLanguageAndFallsBackToGlobalDistribution() {
+        LanguageDistribution distribution = new LanguageDistribution(10, 50);
+        for (int i = 0; i < 100; i++) {
+            distribution.onFetched(repo("Haskell", i, i / 10));
+            distribution.onFetched(repo("Java", i * 1000, i * 100));
+        }
+        distribution.onFetched(repo("Zig", 1, 1));
+        PercentileRankStrategy strategy = new PercentileRankStrategy(distribution, 3);
+
+        // 90 stars is near the top for Haskell but at the bottom for Java
+        double haskell = strategy.baseScore(repo("Haskell", 90, 9));
+        double java = strategy.baseScore(repo("Java", 90, 9));
+        assertTrue(haskell > 80, () -> "haskell " + haskell);
+        assertTrue(java < 20, () -> "java " + java);
+        assertEquals(distribution.starsRank(null, 90), distribution.starsRank("Zig", 90), 0.0);
+        assertEquals(1, distribution.samples("zig"));
+        assertTrue(strategy.calculateScore(repo("Java", 99_000, 9_900)).popularityScore() <= 100);
+    }
+
+    @Test
+    void runsScoreAgainstTheDistributionAtTheirStart() {
+        LanguageDistribution distribution = new LanguageDistribution(10, 1);
+        for (int i = 0; i < 100; i++) {
+            distribution.onFetched(repo("Java", i, i));
+        }
+        PercentileRankStrategy strategy = new PercentileRankStrategy(distribution, 3);
+        PopularityScoringStrategy run = strategy.forRun();
+        double before = run.baseScore(repo("Java", 50, 50));
+
+        // the run fetches much more popular repositories
+        for (int i = 0; i < 100; i++) {
+            distribution.onFetched(repo("Java", 1000 + i, 1000 + i));
+        }
+
+        assertEquals(before, run.baseScore(repo("Java", 50, 50)), 0.0);
+        assertTrue(strategy.baseScore(repo("Java", 50, 50)) < before);
+        assertEquals(200, distribution.snapshot().samples("Java"));
+    }
+
+    @Test
+    void stopsTrackingNewLanguagesAtLimit() {
+        LanguageDistribution distribution = new LanguageDistribution(1, 1);
+        distribution.onFetched(repo("Java", 10, 1));
+        distribution.onFetched(repo("Go", 10, 1));
+
+        assertEquals(1, distribution.samples("Java"));
+        assertEquals(0, distribution.samples("Go"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.githubpopularity.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.githubpopularity.cache.RepositoryPool;
+import com.githubpopularity.client.CircuitBreaker;
+import com.githubpopularity.client.ReactiveGithubApiClient;
+import com.githubpopularity.exception.GithubApiException;
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+import com.githubpopularity.store.SnapshotStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReactiveGithubRepositoryServiceImplTest {
+
+    private ReactiveGithubApiClient githubApiClient;
+    private ReactiveGithubRepositoryServiceImpl repositoryService;
+
+    @BeforeEach
+    void setUp() {
+        githubApiClient = mock(ReactiveGithubApiClient.class);
+        Cache<RepositoryQuery, List<GithubRepository>> repositoryCache =
+                Caffeine.newBuilder().maximumSize(100).recordStats().build();
+        RepositoryPool repositoryPool = new RepositoryPool(true);
+        StaleResultFallback staleResultFallback = new StaleResultFallback(githubApiClient,
+                new CircuitBreaker(10, 5, 50, Duration.ofSeconds(5), 100, Duration.ofSeconds(30)),
+                repositoryCache, Caffeine.newBuilder().maximumSize(100).build(), SnapshotStore.disabled(),
+                repositoryPool);
+        repositoryService = new ReactiveGithubRepositoryServiceImpl(githubApiClient, repositoryCache, staleResultFallback,
+                new HotQueryTracker(100), repositoryPool);
+    }
+
+    @Test
+    void fetchRepositoriesReturnsRepositories() {
+        GithubRepository item = new GithubRepository(
+                "repo1", "owner/repo1", "A test repo", 100, 50,
+                Instant.parse("2025-10-05T00:00:00Z"), "Java", 0.0
+        );
+        when(githubApiClient.searchRepositories(anyString(), eq(10), eq(1)))
+                .thenReturn(Flux.just(item));
+
+        List<GithubRepository> result = repositoryService.fetchRepositories("Java", "2023-01-01", 10, 1).block();
+
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertEquals("owner/repo1", result.get(0).fullName());
+    }
+
+    @Test
+    void fetchRepositoriesConcurrentSubscribersShareOneCall() {
+        Sinks.Empty<Void> response = Sinks.empty();
+        when(githubApiClient.searchRepositories(anyString(), anyInt(), anyInt()))
+                .thenReturn(response.asMono().thenMany(Flux.empty()));
+
+        CompletableFuture<List<GithubRepository>> firstFuture =
+                repositoryService.fetchRepositories("Go", "2023-01-01", 10, 1).toFuture();
+        CompletableFuture<List<GithubRepository>> secondFuture =
+                repositoryService.fetchRepositories("Go", "2023-01-01", 10, 1).toFuture();
+        response.tryEmitEmpty();
+
+        assertTrue(firstFuture.join().isEmpty());
+        assertTrue(secondFuture.join().isEmpty());
+        verify(githubApiClient, times(1)).searchRepositories(anyString(), eq(10), eq(1));
+    }
+
+    @Test
+    void fetchRepositoriesServesRepeatedQueryFromCache() {
+        when(githubApiClient.searchRepositories(anyString(), anyInt(), anyInt()))
+                .thenReturn(Flux.empty());
+
+        repositoryService.fetchRepositories("Rust", "2023-01-01", 5, 1).block();
+        repositoryService.fetchRepositories("Rust", "2023-01-01", 5, 1).block();
+
+        verify(githubApiClient, times(1)).searchRepositories(anyString(), eq(5), eq(1));
+    }
+
+    @Test
+    void fetchRepositoriesPropagatesClientError() {
+        when(githubApiClient.searchRepositories(anyString(), anyInt(), anyInt()))
+                .thenReturn(Flux.error(new GithubApiException(503, "GitHub API service unavailable")));
+
+        GithubApiException ex = assertThrows(GithubApiException.class,
+                () -> repositoryService.fetchRepositories("C", "2023-01-01", 5, 1).block());
+
+        assertEquals(503, ex.getStatusCode());
+    }
+}
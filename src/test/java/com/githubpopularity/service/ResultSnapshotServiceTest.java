@@ -0,0 +1,106 @@
+package com.githubpopularity.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.githubpopularity.exception.InvalidCursorException;
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryPage;
+import com.githubpopularity.model.RepositoryResult;
+import com.githubpopularity.model.ResultSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ResultSnapshotServiceTest {
+
+    private ReactiveGithubRepositoryService githubService;
+    private Cache<String, ResultSnapshot> snapshotCache;
+    private ResultSnapshotService snapshotService;
+
+    @BeforeEach
+    void setUp() {
+        githubService = mock(ReactiveGithubRepositoryService.class);
+        snapshotCache = Caffeine.newBuilder().build();
+        snapshotService = new ResultSnapshotService(githubService,
+                new PopularityScoringService(new StaticThresholdStrategy(50000, 10000, 3)), snapshotCache, 500, 4);
+    }
+
+    private static GithubRepository repo(int stars) {
+        return new GithubRepository("repo" + stars, "owner/repo" + stars, "desc", stars, 0,
+                Instant.parse("2025-10-05T00:00:00Z"), "Java", 0.0);
+    }
+
+    @Test
+    void pagesThroughRankedSnapshotWithOneUpstreamFetch() {
+        List<GithubRepository> fetched = IntStream.rangeClosed(1, 5).mapToObj(i -> repo(i * 100)).toList();
+        when(githubService.fetchResult("Java", "2023-01-01", ResultSnapshotService.GITHUB_MAX_PER_PAGE, 1))
+                .thenReturn(Mono.just(RepositoryResult.fresh(fetched)));
+
+        RepositoryPage first = snapshotService.firstPage("Java", "2023-01-01", 2).block().page();
+        List<String> walked = new ArrayList<>(first.items().stream().map(GithubRepository::name).toList());
+        String cursor = first.nextCursor();
+        while (cursor != null) {
+            RepositoryPage page = snapshotService.nextPage(cursor, 2).page();
+            page.items().forEach(repo -> walked.add(repo.name()));
+            cursor = page.nextCursor();
+        }
+
+        assertEquals(5, first.total());
+        assertEquals(List.of("repo500", "repo400", "repo300", "repo200", "repo100"), walked);
+        verify(githubService, times(1)).fetchResult(anyString(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void snapshotsSpanSeveralGithubPagesWhenTheFirstIsFull() {
+        for (int page = 1; page <= 4; page++) {
+            int base = page * 1000;
+            List<GithubRepository> fetched = IntStream.range(0, ResultSnapshotService.GITHUB_MAX_PER_PAGE)
+                    .mapToObj(i -> repo(base + i)).toList();
+            when(githubService.fetchResult("Java", "2023-01-01", ResultSnapshotService.GITHUB_MAX_PER_PAGE, page))
+                    .thenReturn(Mono.just(new RepositoryResult(fetched, page == 3)));
+        }
+        // the last page repeats a repository of the first, as results shifted while paging
+        when(githubService.fetchResult("Java", "2023-01-01", ResultSnapshotService.GITHUB_MAX_PER_PAGE, 5))
+                .thenReturn(Mono.just(RepositoryResult.fresh(List.of(repo(1000), repo(5000)))));
+
+        ResultSnapshotService.SnapshotPage first = snapshotService.firstPage("Java", "2023-01-01", 10).block();
+
+        assertEquals(401, first.page().total());
+        assertTrue(first.snapshot().stale());
+        assertEquals("repo5000", first.page().items().get(0).name());
+        verify(githubService, times(5)).fetchResult(anyString(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void cursorKeepsServingTheSnapshotItWasCutFrom() {
+        when(githubService.fetchResult("Java", "2023-01-01", ResultSnapshotService.GITHUB_MAX_PER_PAGE, 1))
+                .thenReturn(Mono.just(RepositoryResult.stale(List.of(repo(300), repo(200), repo(100)))));
+        ResultSnapshotService.SnapshotPage first = snapshotService.firstPage("Java", "2023-01-01", 1).block();
+
+        ResultSnapshotService.SnapshotPage second = snapshotService.nextPage(first.page().nextCursor(), 1);
+
+        assertTrue(second.snapshot().stale());
+        assertEquals(first.snapshot().id(), second.snapshot().id());
+        assertEquals("repo200", second.page().items().get(0).name());
+    }
+
+    @Test
+    void expiredAndMalformedCursorsAreRejected() {
+        String expired = new ResultSnapshotService.Cursor("gone", 10).encode();
+
+        assertEquals(410, assertThrows(InvalidCursorException.class,
+                () -> snapshotService.nextPage(expired, 10)).getStatusCode());
+        assertEquals(400, assertThrows(InvalidCursorException.class,
+                () -> snapshotService.nextPage("not a cursor!", 10)).getStatusCode());
+        assertEquals(400, assertThrows(InvalidCursorException.class,
+                () -> snapshotService.nextPage(new ResultSnapshotService.Cursor("id", -1).encode(), 10)).getStatusCode());
+    }
+}
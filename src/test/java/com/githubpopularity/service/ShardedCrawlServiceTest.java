@@ -0,0 +1,79 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.client.ReactiveGithubApiClient;
+import com.githubpopularity.model.GithubRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ShardedCrawlServiceTest {
+
+    private static final Instant FROM = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2024-01-01T00:00:09Z");
+    private static final String FULL_RANGE = "language:Java created:2024-01-01T00:00:00Z..2024-01-01T00:00:09Z";
+
+    private ReactiveGithubApiClient githubApiClient;
+    private ShardedCrawlService crawlService;
+
+    @BeforeEach
+    void setUp() {
+        githubApiClient = mock(ReactiveGithubApiClient.class);
+        crawlService = new ShardedCrawlService(githubApiClient, 4);
+    }
+
+    private static GithubRepository repo(String fullName) {
+        return new GithubRepository(fullName, fullName, "desc", 1, 0,
+                Instant.parse("2025-10-05T00:00:00Z"), "Java", 0.0);
+    }
+
+    @Test
+    void crawlSplitsRangesOverTheCapAndDeduplicatesResults() {
+        when(githubApiClient.countRepositories(anyString()))
+                .thenAnswer(invocation -> Mono.just(FULL_RANGE.equals(invocation.getArgument(0)) ? 1500L : 150L));
+        when(githubApiClient.searchRepositories(anyString(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> Flux.just(
+                        repo("owner/shared"),
+                        repo(invocation.getArgument(0) + "#" + invocation.getArgument(2))));
+
+        List<GithubRepository> repositories = crawlService.crawl("Java", FROM, TO).collectList().block();
+
+        assertNotNull(repositories);
+        // two shards of two pages each, one unique repository per page plus one shared by all pages
+        assertEquals(5, repositories.size());
+        verify(githubApiClient).countRepositories(FULL_RANGE);
+        verify(githubApiClient).countRepositories("language:Java created:2024-01-01T00:00:00Z..2024-01-01T00:00:04Z");
+        verify(githubApiClient).countRepositories("language:Java created:2024-01-01T00:00:05Z..2024-01-01T00:00:09Z");
+        verify(githubApiClient, times(4)).searchRepositories(anyString(), eq(ShardedCrawlService.PAGE_SIZE), anyInt());
+    }
+
+    @Test
+    void crawlStopsSplittingAtSingleSecondRanges() {
+        when(githubApiClient.countRepositories(anyString())).thenReturn(Mono.just(5000L));
+        when(githubApiClient.searchRepositories(anyString(), anyInt(), anyInt())).thenReturn(Flux.empty());
+
+        crawlService.crawl("Java", FROM, FROM.plusSeconds(1)).collectList().block();
+
+        // the two single-second shards are fetched up to the cap of 10 pages each
+        verify(githubApiClient, times(3)).countRepositories(anyString());
+        verify(githubApiClient, times(20)).searchRepositories(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void crawlSkipsEmptyRanges() {
+        when(githubApiClient.countRepositories(anyString())).thenReturn(Mono.just(0L));
+
+        List<GithubRepository> repositories = crawlService.crawl("Java", FROM, TO).collectList().block();
+
+        assertNotNull(repositories);
+        assertTrue(repositories.isEmpty());
+        verify(githubApiClient, never()).searchRepositories(anyString(), anyInt(), anyInt());
+    }
+}
@@ -4,7 +4,10 @@ import com.githubpopularity.model.GithubRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -139,4 +142,46 @@ class StaticThresholdStrategyTest {
         assertEquals(score1, score2, 0.0001,
                 "Two repos with identical inputs must produce the same score");
     }
+
+    @Test
+    void testBatchScoresMatchSingleScores() {
+        Instant now = Instant.now();
+        List<GithubRepository> repos = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            repos.add(new GithubRepository(
+                    "repo" + i, "owner/repo" + i, "batch test",
+                    i * 700, i * 90,
+                    now.minusSeconds(3600L * 7 * i),
+                    "Java", 0.0
+            ));
+        }
+
+        StaticThresholdStrategy parallelStrategy = new StaticThresholdStrategy(50000, 10000, 3, 8);
+        double[] sequential = strategy.calculateScores(RepositoryBatch.of(repos, now));
+        double[] parallel = parallelStrategy.calculateScores(RepositoryBatch.of(repos, now));
+
+        for (int i = 0; i < repos.size(); i++) {
+            double expected = strategy.calculateScore(repos.get(i)).popularityScore();
+            assertEquals(expected, sequential[i], 0.0001, "Batch score must match single score");
+            assertEquals(sequential[i], parallel[i], 0.0, "Parallel score must match sequential score");
+        }
+    }
+
+    @Test
+    void testBaseAndRecencyScoresAddUpToFullScore() {
+        Instant now = Instant.now();
+        GithubRepository repo = new GithubRepository(
+                "repo", "owner/repo", "split test",
+                12000, 800,
+                now.minus(Duration.ofDays(2)),
+                "Java", 0.0
+        );
+
+        double split = strategy.baseScore(repo) + strategy.recencyScore(repo.lastUpdated(), now);
+
+        assertEquals(strategy.calculateScore(repo).popularityScore(), split, 0.0001);
+        assertEquals(StaticThresholdStrategy.RECENCY_WEIGHT, strategy.recencyScore(now, now), 0.0);
+        assertTrue(strategy.recencyScore(repo.lastUpdated(), now.plus(Duration.ofDays(30)))
+                < strategy.recencyScore(repo.lastUpdated(), now));
+    }
 }
@@ -0,0 +1,83 @@
+package com.githubpopularity.service;
+
+import com.githubpopularity.model.GithubRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TopKRankingServiceTest {
+
+    private ReactiveGithubRepositoryService githubService;
+    private TopKRankingService rankingService;
+
+    @BeforeEach
+    void setUp() {
+        githubService = mock(ReactiveGithubRepositoryService.class);
+        rankingService = new TopKRankingService(githubService, mock(ShardedCrawlService.class),
+                new StaticThresholdStrategy(50000, 10000, 3), 2, 2, 10);
+    }
+
+    private static GithubRepository repo(String name, int stars) {
+        return new GithubRepository(name, "owner/" + name, "desc", stars, 0,
+                Instant.parse("2025-10-05T00:00:00Z"), "Java", 0.0);
+    }
+
+    @Test
+    void rankTopKReturnsBestAcrossPagesInScoreOrder() {
+        when(githubService.fetchRepositories("Java", "2023-01-01", 2, 1))
+                .thenReturn(Mono.just(List.of(repo("a", 100), repo("b", 5000))));
+        when(githubService.fetchRepositories("Java", "2023-01-01", 2, 2))
+                .thenReturn(Mono.just(List.of(repo("c", 20000), repo("d", 10))));
+        when(githubService.fetchRepositories("Java", "2023-01-01", 2, 3))
+                .thenReturn(Mono.just(List.of(repo("e", 3000))));
+
+        List<GithubRepository> top = rankingService.rankTopK("Java", "2023-01-01", 3, 3).block();
+
+        assertNotNull(top);
+        assertEquals(List.of("c", "b", "e"), top.stream().map(GithubRepository::name).toList());
+        assertTrue(top.get(0).popularityScore() > top.get(1).popularityScore());
+    }
+
+    @Test
+    void rankTopKCapsPagesAtConfiguredMaximum() {
+        when(githubService.fetchRepositories(anyString(), anyString(), anyInt(), anyInt()))
+                .thenReturn(Mono.just(List.of()));
+
+        List<GithubRepository> top = rankingService.rankTopK("Go", "2023-01-01", 5, 50).block();
+
+        assertNotNull(top);
+        assertTrue(top.isEmpty());
+        verify(githubService, times(10)).fetchRepositories(anyString(), anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void accumulatorIgnoresDuplicateRepositories() {
+        TopKAccumulator accumulator = new TopKAccumulator(2);
+        accumulator.offer(repo("a", 1).withScore(10));
+        accumulator.offer(repo("a", 1).withScore(10));
+        accumulator.offer(repo("b", 1).withScore(5));
+        accumulator.offer(repo("c", 1).withScore(1));
+
+        assertEquals(List.of("a", "b"), accumulator.toSortedList().stream().map(GithubRepository::name).toList());
+    }
+
+    @Test
+    void streamPagesEmitsScoredRepositoriesInPageOrder() {
+        when(githubService.fetchRepositories("Java", "2023-01-01", 2, 1))
+                .thenReturn(Mono.just(List.of(repo("a", 100), repo("b", 5000))));
+        when(githubService.fetchRepositories("Java", "2023-01-01", 2, 2))
+                .thenReturn(Mono.just(List.of(repo("c", 20000))));
+
+        List<GithubRepository> streamed = rankingService.streamPages("Java", "2023-01-01", 2).collectList().block();
+
+        assertNotNull(streamed);
+        assertEquals(List.of("a", "b", "c"), streamed.stream().map(GithubRepository::name).toList());
+        assertTrue(streamed.stream().allMatch(repo -> repo.popularityScore() > 0));
+    }
+}
@@ -0,0 +1,104 @@
+package com.githubpopularity.store;
+
+import com.githubpopularity.model.GithubRepository;
+import com.githubpopularity.model.RepositoryQuery;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedFileSnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static RepositoryQuery query(String language) {
+        return new RepositoryQuery(language, "2023-01-01", 10, 1);
+    }
+
+    private static GithubRepository repo(String name, String description, Instant lastUpdated) {
+        return new GithubRepository(name, "owner/" + name, description, 120, 7, lastUpdated, "Java", 0.0);
+    }
+
+    @Test
+    void snapshotsSurviveReopenWithLatestWinning() {
+        Path file = dir.resolve("snapshots.bin");
+        List<GithubRepository> first = List.of(repo("a", "first", Instant.parse("2025-10-05T00:00:00Z")));
+        List<GithubRepository> second = List.of(
+                repo("b", null, null),
+                repo("c", "ünïcödé", Instant.parse("2025-10-06T01:02:03.456Z")));
+
+        try (SnapshotStore store = new MappedFileSnapshotStore(file, 8, 100)) {
+            store.append(query("Java"), first);
+            store.append(query("Go"), first);
+            store.append(query("Java"), second);
+        }
+
+        try (SnapshotStore store = new MappedFileSnapshotStore(file, 8, 100)) {
+            assertEquals(second, store.read(query("Java")).orElseThrow().repositories());
+            assertEquals(first, store.read(query("Go")).orElseThrow().repositories());
+            assertTrue(store.read(query("Rust")).isEmpty());
+            assertEquals(2, store.latest(10).size());
+        }
+    }
+
+    @Test
+    void truncatesTornTailAndKeepsAppending() throws IOException {
+        Path file = dir.resolve("snapshots.bin");
+        List<GithubRepository> repositories = List.of(repo("a", "desc", Instant.parse("2025-10-05T00:00:00Z")));
+        try (SnapshotStore store = new MappedFileSnapshotStore(file, 8, 100)) {
+            store.append(query("Java"), repositories);
+        }
+        long validSize = Files.size(file);
+        Files.write(file, new byte[]{0, 0, 1, 0, 42, 42}, StandardOpenOption.APPEND);
+
+        try (SnapshotStore store = new MappedFileSnapshotStore(file, 8, 100)) {
+            assertEquals(validSize, Files.size(file));
+            store.append(query("Go"), repositories);
+        }
+
+        try (SnapshotStore store = new MappedFileSnapshotStore(file, 8, 100)) {
+            assertTrue(store.read(query("Java")).isPresent());
+            assertTrue(store.read(query("Go")).isPresent());
+        }
+    }
+
+    @Test
+    void compactsSupersededSnapshots() throws IOException {
+        Path file = dir.resolve("snapshots.bin");
+        List<GithubRepository> repositories = List.of(repo("a", "x".repeat(1000), Instant.parse("2025-10-05T00:00:00Z")));
+        List<GithubRepository> latest = List.of(repo("a", "latest", Instant.parse("2025-10-06T00:00:00Z")));
+        try (MappedFileSnapshotStore store = new MappedFileSnapshotStore(file, 8, 1000, 16 * 1024)) {
+            for (int i = 0; i < 100; i++) {
+                store.append(query("Java"), repositories);
+                store.append(query("Go"), repositories);
+            }
+            store.append(query("Java"), latest);
+            store.append(query("Go"), latest);
+            store.close();
+            // 200 superseded snapshots of over 1 KB each; compaction keeps the file around the threshold
+            assertTrue(Files.size(file) < 24 * 1024, "file was not compacted: " + Files.size(file) + " bytes");
+        }
+        assertFalse(Files.exists(dir.resolve("snapshots.bin.compact")));
+
+        try (SnapshotStore store = new MappedFileSnapshotStore(file, 8, 100)) {
+            assertEquals(latest, store.read(query("Java")).orElseThrow().repositories());
+            assertEquals(latest, store.read(query("Go")).orElseThrow().repositories());
+        }
+    }
+
+    @Test
+    void refusesFileLockedByAnotherInstance() {
+        Path file = dir.resolve("snapshots.bin");
+        try (SnapshotStore store = new MappedFileSnapshotStore(file, 8, 100)) {
+            assertThrows(IllegalStateException.class, () -> new MappedFileSnapshotStore(file, 8, 100));
+        }
+    }
+}
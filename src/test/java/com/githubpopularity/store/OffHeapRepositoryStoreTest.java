@@ -0,0 +1,118 @@
+package com.githubpopularity.store;
+
+import com.githubpopularity.model.GithubRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapRepositoryStoreTest {
+
+    private static final Instant UPDATED = Instant.parse("2025-10-05T12:34:56.789Z");
+
+    private final OffHeapRepositoryStore store = new OffHeapRepositoryStore();
+
+    private static GithubRepository repo(String name, int stars, double score) {
+        return new GithubRepository(name, "owner/" + name, "about " + name, stars, stars / 10, UPDATED, "Java", score);
+    }
+
+    private static List<GithubRepository> drain(Iterator<GithubRepository> iterator) {
+        List<GithubRepository> repositories = new ArrayList<>();
+        iterator.forEachRemaining(repositories::add);
+        return repositories;
+    }
+
+    @Test
+    void storesAndReadsBackRepositories() {
+        GithubRepository unicode = new GithubRepository("größe", "österreich/größe", "日本語 ✓", 7, 1,
+                UPDATED, "C++", 1.5);
+        GithubRepository sparse = new GithubRepository(null, "owner/sparse", null, 0, 0, null, null, 0.0);
+
+        store.put(unicode);
+        store.put(sparse);
+
+        assertEquals(unicode, store.get("österreich/größe"));
+        assertEquals(sparse, store.get("owner/sparse"));
+        assertNull(store.get("owner/missing"));
+        assertNull(new OffHeapRepositoryStore().get("owner/sparse"));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void replacesRepositoriesByFullName() {
+        store.put(repo("a", 10, 10));
+        store.put(repo("b", 20, 20));
+        assertEquals(List.of("b", "a"), drain(store.byScore()).stream().map(GithubRepository::name).toList());
+
+        GithubRepository renamed = new GithubRepository("a2", "owner/a", "moved", 30, 3, UPDATED, "Go", 30);
+        store.put(renamed);
+
+        assertEquals(2, store.size());
+        assertEquals(renamed, store.get("owner/a"));
+        assertEquals(List.of(renamed, repo("b", 20, 20)), drain(store.byScore()));
+    }
+
+    @Test
+    void iteratesInTheSameScoreOrderAsTheHeapStore() {
+        Random random = new Random(7);
+        RepositoryStore heap = RepositoryStore.onHeap();
+        for (int round = 0; round < 5; round++) {
+            // a large first round, then small deltas re-scoring existing repositories and adding new ones
+            int count = round == 0 ? 20_000 : 500;
+            for (int i = 0; i < count; i++) {
+                GithubRepository repository = repo("r" + random.nextInt(25_000), random.nextInt(1000),
+                        random.nextInt(5000) / 10.0);
+                store.put(repository);
+                heap.put(repository);
+            }
+            List<GithubRepository> expected = drain(heap.byScore());
+            List<GithubRepository> actual = drain(store.byScore());
+            assertEquals(expected.size(), store.size());
+            assertEquals(expected.stream().map(GithubRepository::popularityScore).toList(),
+                    actual.stream().map(GithubRepository::popularityScore).toList());
+            for (GithubRepository repository : actual) {
+                assertEquals(repository, heap.get(repository.fullName()));
+            }
+        }
+    }
+
+    @Test
+    void compactsReplacedStrings() {
+        for (int i = 0; i < 1000; i++) {
+            store.put(repo("r" + i, i, i));
+        }
+        long initial = store.offHeapBytes();
+        String padding = "x".repeat(1000);
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 1000; i++) {
+                store.put(new GithubRepository("r" + i, "owner/r" + i, padding + round, i, 0, UPDATED, "Java", i));
+            }
+        }
+
+        assertTrue(store.offHeapBytes() < initial + 8 * 1000 * 1010L, "string area was not compacted");
+        assertEquals(padding + 19, store.get("owner/r999").description());
+        assertEquals("owner/r999", store.byScore().next().fullName());
+    }
+
+    @Test
+    void clearReleasesEverything() {
+        store.put(repo("a", 1, 1));
+        Iterator<GithubRepository> iterator = store.byScore();
+
+        store.clear();
+
+        assertEquals(0, store.size());
+        assertEquals(0, store.offHeapBytes());
+        assertNull(store.get("owner/a"));
+        assertFalse(store.byScore().hasNext());
+        assertThrows(ConcurrentModificationException.class, iterator::next);
+        store.put(repo("b", 2, 2));
+        assertEquals(List.of(repo("b", 2, 2)), drain(store.byScore()));
+    }
+}